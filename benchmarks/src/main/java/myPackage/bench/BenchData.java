@@ -0,0 +1,147 @@
+/*
+ * 파일명: BenchData.java
+ * 목적: 벤치마크용 내장 DB(h2-mem)에 크기별 데이터셋을 채운다.
+ *
+ * 데이터셋(users = N)
+ * - user: b0 ~ b{N-1}
+ * - posts: 사용자당 POSTS_PER_USER개, 본문에 해시태그 2개(#t{0..TAGS-1})
+ * - following: 사용자당 FOLLOWS_PER_USER명(고정 시드 난수, 자기 자신/중복 제외)
+ * - post_like: 글당 평균 LIKES_PER_POST개 (posts.num_of_likes도 맞춰 둠)
+ *
+ * 주의
+ * - 포크된 JVM마다 메모리 DB가 새로 만들어지므로 @Setup(Level.Trial)에서 한 번만 호출한다.
+ * - DAO들이 System.out으로 진행 로그를 찍으므로, quietStdout()으로 측정 중 출력을 버린다.
+ */
+
+package myPackage.bench;
+
+import myPackage.DBConn;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.*;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class BenchData {
+
+    public static final int POSTS_PER_USER   = 5;
+    public static final int FOLLOWS_PER_USER = 10;
+    public static final int LIKES_PER_POST   = 3;
+    public static final int TAGS             = 50;
+
+    private static final int BATCH = 1_000;
+
+    public static String user(int i) { return "b" + i; }
+
+    /** users명 규모의 데이터셋을 만든다(이미 있으면 건너뜀) */
+    public static void seed(int users) throws SQLException {
+        Random rnd = new Random(42);
+        try (Connection con = DBConn.getConnection()) {
+            try (Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM user WHERE user_id LIKE 'b%'")) {
+                rs.next();
+                if (rs.getInt(1) >= users) return;
+            }
+            con.setAutoCommit(false);
+
+            try (PreparedStatement ps = con.prepareStatement("INSERT INTO user(user_id, pwd) VALUES(?, 'pw')")) {
+                for (int i = 0; i < users; i++) {
+                    ps.setString(1, user(i));
+                    add(ps, i);
+                }
+                ps.executeBatch();
+            }
+
+            int posts = users * POSTS_PER_USER;
+            int firstPostId = maxId(con, "posts", "post_id") + 1;
+            try (PreparedStatement ps = con.prepareStatement(
+                         "INSERT INTO posts(post_id, content, writer_id) VALUES(?, ?, ?)");
+                 PreparedStatement tag = con.prepareStatement("INSERT INTO post_tag(post_id, tag) VALUES(?, ?)")) {
+                for (int i = 0; i < posts; i++) {
+                    int id = firstPostId + i;
+                    int t1 = rnd.nextInt(TAGS), t2 = (t1 + 1 + rnd.nextInt(TAGS - 1)) % TAGS;
+                    ps.setInt(1, id);
+                    ps.setString(2, "bench post " + i + " #t" + t1 + " #t" + t2);
+                    ps.setString(3, user(i % users));
+                    add(ps, i);
+                    for (int t : new int[]{ t1, t2 }) {
+                        tag.setInt(1, id);
+                        tag.setString(2, "t" + t);
+                        tag.addBatch();
+                    }
+                    if (i % BATCH == BATCH - 1) tag.executeBatch();
+                }
+                ps.executeBatch();
+                tag.executeBatch();
+            }
+
+            int follows = Math.min(FOLLOWS_PER_USER, users - 1);
+            try (PreparedStatement ps = con.prepareStatement(
+                         "INSERT INTO following(user_id, follower_id) VALUES(?, ?)");
+                 PreparedStatement cnt = con.prepareStatement(
+                         "UPDATE user SET followings = ? WHERE user_id = ?")) {
+                int n = 0;
+                for (int f = 0; f < users; f++) {
+                    Set<Integer> picked = new HashSet<>();
+                    while (picked.size() < follows) {
+                        int u = rnd.nextInt(users);
+                        if (u != f) picked.add(u);
+                    }
+                    for (int u : picked) {
+                        ps.setString(1, user(u));
+                        ps.setString(2, user(f));
+                        add(ps, n++);
+                    }
+                    cnt.setInt(1, follows);
+                    cnt.setString(2, user(f));
+                    cnt.addBatch();
+                }
+                ps.executeBatch();
+                cnt.executeBatch();
+            }
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("UPDATE user u SET followers = (SELECT COUNT(*) FROM following f WHERE f.user_id = u.user_id)");
+            }
+
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO post_like(post_id, liker_id) VALUES(?, ?)")) {
+                int n = 0;
+                for (int i = 0; i < posts; i++) {
+                    Set<Integer> likers = new HashSet<>();
+                    int k = rnd.nextInt(LIKES_PER_POST * 2 + 1);
+                    while (likers.size() < Math.min(k, users)) likers.add(rnd.nextInt(users));
+                    for (int u : likers) {
+                        ps.setInt(1, firstPostId + i);
+                        ps.setString(2, user(u));
+                        add(ps, n++);
+                    }
+                }
+                ps.executeBatch();
+            }
+            try (Statement st = con.createStatement()) {
+                st.executeUpdate("UPDATE posts p SET num_of_likes = (SELECT COUNT(*) FROM post_like l WHERE l.post_id = p.post_id)");
+            }
+            con.commit();
+        }
+    }
+
+    /** DAO 진행 로그(System.out)를 버린다. JMH 결과 출력은 호스트 JVM이 하므로 영향 없음 */
+    public static void quietStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    public static int maxId(Connection con, String table, String col) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + col + "), 0) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void add(PreparedStatement ps, int n) throws SQLException {
+        ps.addBatch();
+        if (n % BATCH == BATCH - 1) ps.executeBatch();
+    }
+}
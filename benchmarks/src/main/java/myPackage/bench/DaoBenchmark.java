@@ -0,0 +1,91 @@
+/*
+ * 파일명: DaoBenchmark.java
+ * 목적: 주요 DAO 호출(풀 대여·트랜잭션 포함 전체 경로)을 데이터셋 크기별로 측정.
+ *
+ * 측정 항목
+ * - likePost       : PostLike.likePost (매 호출 새 (글, 사용자) 쌍 → 실제 INSERT + 경험치 갱신)
+ * - followUnfollow : Follow.follow + Follow.unfollow 한 쌍(카운트/경험치 갱신 포함)
+ * - isFollowing    : Follow.isFollowing
+ * - followersPage  : SeeFollow.getFollowers(userId, 20, 0)
+ * - countFollowers : ProfileDAO.countFollowers
+ * - writeComment   : Comment.write
+ */
+
+package myPackage.bench;
+
+import myPackage.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Dtwitter.db.profile=h2-mem", "-Dtwitter.db.metrics=false",
+        "-Dtwitter.db.metrics.report=false" })
+public class DaoBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int users;
+
+    private int firstPostId, posts;
+    // (글, 사용자) 쌍을 겹치지 않게 훑는 카운터: 시드 좋아요와 겹치면 likePost가 false(중복)로 끝날 뿐
+    private final AtomicLong likeSeq = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchData.quietStdout();
+        BenchData.seed(users);
+        posts = users * BenchData.POSTS_PER_USER;
+        try (Connection con = DBConn.getConnection()) {
+            firstPostId = BenchData.maxId(con, "posts", "post_id") - posts + 1;
+        }
+    }
+
+    private String randomUser() {
+        return BenchData.user(ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    public boolean likePost() throws SQLException {
+        long n = likeSeq.getAndIncrement();
+        int post = firstPostId + (int) (n % posts);
+        String liker = BenchData.user((int) ((n / posts + n) % users));
+        return PostLike.likePost(post, liker);
+    }
+
+    @Benchmark
+    public boolean followUnfollow() throws SQLException {
+        String a = randomUser(), b = randomUser();
+        boolean followed = Follow.follow(a, b);
+        if (followed) Follow.unfollow(a, b);
+        return followed;
+    }
+
+    @Benchmark
+    public boolean isFollowing() throws SQLException {
+        return Follow.isFollowing(randomUser(), randomUser());
+    }
+
+    @Benchmark
+    public List<String> followersPage() throws SQLException {
+        return SeeFollow.getFollowers(randomUser(), 20, 0);
+    }
+
+    @Benchmark
+    public int countFollowers() throws SQLException {
+        return ProfileDAO.countFollowers(randomUser());
+    }
+
+    @Benchmark
+    public void writeComment() throws SQLException {
+        Comment.write(firstPostId + ThreadLocalRandom.current().nextInt(posts), randomUser(), "bench comment");
+    }
+}
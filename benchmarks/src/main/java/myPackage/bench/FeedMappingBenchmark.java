@@ -0,0 +1,124 @@
+/*
+ * 파일명: FeedMappingBenchmark.java
+ * 목적: 피드 조회 쿼리 + 행 → DTO(PostRepository.PostRow) 매핑 비용 측정.
+ *
+ * 측정 항목
+ * - boardByName : 개인 보드 쿼리(작성자 필터, 좋아요 수 상관 서브쿼리) + 컬럼명으로 매핑
+ * - boardByIndex: 같은 쿼리 + 컬럼 인덱스로 매핑(이름 조회 비용 비교)
+ * - boardRepository: 같은 조회를 PostRepository.byAuthor(공용 매퍼)로 — 화면이 실제로 쓰는 경로
+ * - recentFeed  : PostRepository.recent(최근 limit개)
+ * - tagResults  : PostRepository.byTag(post_tag 조인)
+ *
+ * 파라미터
+ * - users: 데이터셋 규모(BenchData), limit: 한 화면에 가져오는 글 수
+ */
+
+package myPackage.bench;
+
+import myPackage.DBConn;
+import myPackage.PostRepository;
+import myPackage.PostRepository.Cursor;
+import myPackage.PostRepository.PostRow;
+import myPackage.PostRepository.Projection;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Dtwitter.db.profile=h2-mem", "-Dtwitter.db.metrics=false",
+        "-Dtwitter.db.metrics.report=false" })
+public class FeedMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int users;
+
+    @Param({"10", "50"})
+    public int limit;
+
+    private static final String BOARD_SQL =
+            "SELECT p.post_id, p.writer_id, p.content, " +
+            "       p.num_of_likes AS like_cnt, p.created_at " +
+            "FROM posts p WHERE p.writer_id = ? ORDER BY p.post_id DESC LIMIT ?";
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchData.quietStdout();
+        BenchData.seed(users);
+    }
+
+    @Benchmark
+    public List<PostRow> boardByName() throws SQLException {
+        try (Connection con = DBConn.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(BOARD_SQL)) {
+            ps.setString(1, BenchData.user(ThreadLocalRandom.current().nextInt(users)));
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<PostRow> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(new PostRow(
+                            rs.getInt("post_id"), rs.getString("writer_id"), rs.getString("content"),
+                            rs.getInt("like_cnt"), rs.getTimestamp("created_at")));
+                }
+                return list;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PostRow> boardByIndex() throws SQLException {
+        try (Connection con = DBConn.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(BOARD_SQL)) {
+            ps.setString(1, BenchData.user(ThreadLocalRandom.current().nextInt(users)));
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                return mapByIndex(rs);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PostRow> boardRepository() throws SQLException {
+        try (Connection con = DBConn.getReadConnection()) {
+            List<PostRow> list = new ArrayList<>();
+            PostRepository.byAuthor(con, Projection.CARD, BenchData.user(ThreadLocalRandom.current().nextInt(users)),
+                                    Cursor.first(limit), list::add);
+            return list;
+        }
+    }
+
+    @Benchmark
+    public List<PostRow> recentFeed() throws SQLException {
+        try (Connection con = DBConn.getReadConnection()) {
+            List<PostRow> list = new ArrayList<>();
+            PostRepository.recent(con, Projection.CARD, Cursor.first(limit), list::add);
+            return list;
+        }
+    }
+
+    @Benchmark
+    public List<PostRow> tagResults() throws SQLException {
+        try (Connection con = DBConn.getReadConnection()) {
+            List<PostRow> list = new ArrayList<>();
+            PostRepository.byTag(con, Projection.CARD, "t" + ThreadLocalRandom.current().nextInt(BenchData.TAGS),
+                                 Cursor.first(limit), list::add);
+            return list;
+        }
+    }
+
+    private static List<PostRow> mapByIndex(ResultSet rs) throws SQLException {
+        List<PostRow> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new PostRow(
+                    rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getTimestamp(5)));
+        }
+        return list;
+    }
+}
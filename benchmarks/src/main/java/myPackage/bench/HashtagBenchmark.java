@@ -0,0 +1,52 @@
+/*
+ * 파일명: HashtagBenchmark.java
+ * 목적: 게시글 본문 해시태그 추출(Hashtags.extract, PostWriterMain/ReservedPostWorker 공용 TAG 정규식) 측정.
+ *
+ * 파라미터
+ * - words: 본문 단어 수(본문 길이 스케일)
+ * - tagRatio: 단어 중 해시태그 비율(%)
+ */
+
+package myPackage.bench;
+
+import myPackage.Hashtags;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashtagBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int words;
+
+    @Param({"0", "10", "50"})
+    public int tagRatio;
+
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(7);
+        String[] vocab = { "오늘", "날씨", "coffee", "java", "여행", "제주도", "db_tuning", "swing", "피드", "2025" };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(i % 12 == 0 ? '\n' : ' ');
+            if (rnd.nextInt(100) < tagRatio) sb.append('#');
+            sb.append(vocab[rnd.nextInt(vocab.length)]);
+        }
+        content = sb.toString();
+    }
+
+    @Benchmark
+    public List<String> extract() {
+        return Hashtags.extract(content);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * 파일명: LevelAdminBenchmark.java
+ * 목적: 경험치 가산/레벨업 계산(LevelAdmin.progress) 측정. 가산량이 클수록 레벨업 루프가 길어진다.
+ */
+
+package myPackage.bench;
+
+import myPackage.LevelAdmin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelAdminBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int gainedExp;
+
+    @Param({"1", "10"})
+    public int startLevel;
+
+    @Benchmark
+    public int[] progress() {
+        return LevelAdmin.progress(startLevel, 0, gainedExp);
+    }
+}
@@ -5,14 +5,39 @@ import java.sql.*;
 public class Comment {
 
     public static void write(int postId, String writer, String content) throws SQLException {
-        Connection con = DBConn.getConnection();
+        if (EngagementWriter.ENABLED) {
+            // 그룹 커밋 모드: 다른 쓰기들과 한 트랜잭션으로 커밋될 때까지 대기
+            EngagementWriter.await(EngagementWriter.comment(postId, writer, content));
+        } else {
+            // 댓글 INSERT + comment_count 증가를 한 트랜잭션으로(데드락 시 재시도)
+            TxExecutor.inTransaction("comment", con -> {
+                insert(con, postId, writer, content);
+                return null;
+            });
+        }
+        DBConn.noteWrite(writer);
+        EngagementEvents.commented(postId); // 커밋 후
+    }
 
+    /** 주어진 커넥션(트랜잭션)으로 댓글 한 건 입력(+ posts.comment_count) */
+    static void insert(Connection con, int postId, String writer, String content) throws SQLException {
         String sql = "insert into comment(content,writer_id,post_id) values(?,?,?)";
-        PreparedStatement ps = con.prepareStatement(sql);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, content);
+            ps.setString(2, writer);
+            ps.setInt(3, postId);
+            ps.executeUpdate();
+        }
+        addToCount(con, postId, 1);
+    }
 
-        ps.setString(1, content);
-        ps.setString(2, writer);
-        ps.setInt(3, postId);
-        ps.executeUpdate();
+    /** posts.comment_count += n (댓글 INSERT와 같은 트랜잭션에서 호출 → 글 행 잠금으로 직렬화) */
+    static void addToCount(Connection con, int postId, int n) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "update posts set comment_count = comment_count + ? where post_id = ?")) {
+            ps.setInt(1, n);
+            ps.setInt(2, postId);
+            ps.executeUpdate();
+        }
     }
 }
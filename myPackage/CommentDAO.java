@@ -4,7 +4,7 @@
  *
  * 동작 개요:
  *  1) add(con, writerId, postId, content)
- *     - comment 테이블에 새 댓글을 INSERT 합니다.
+ *     - comment 테이블에 새 댓글을 INSERT 하고, 같은 커넥션으로 posts.comment_count를 1 올립니다.
  *     - 이어서 해당 postId의 원글 작성자(writer_id)를 조회합니다.
  *     - 댓글 작성자(writerId)와 원글 작성자가 다르면, 원글 작성자에게 경험치 +5를 부여합니다.
  *       (LevelAdmin.info(con, postWriter, 5) 호출)
@@ -69,6 +69,7 @@ public class CommentDAO {
             ps.setInt(3, postId);
             ps.executeUpdate();
         }
+        Comment.addToCount(con, postId, 1); // posts.comment_count
 
         // 2) 원글 작성자 조회
         String q = "SELECT writer_id FROM posts WHERE post_id=?";
@@ -6,38 +6,46 @@ public class CommentLike {
 
     public static boolean likeComment(int commentId, String liker) throws SQLException {
 
-        Connection con = DBConn.getConnection();
-
-        //Check already pressed "like"
-        String check = "select * from comment_like where comment_id=? and liker_id=?";
-        PreparedStatement ps = con.prepareStatement(check);
-        ps.setInt(1, commentId);
-        ps.setString(2, liker);
-        ResultSet rs = ps.executeQuery();
+        // 좋아요 등록 + 작성자 경험치를 한 트랜잭션으로(데드락 시 재시도).
+        // 그룹 커밋 모드면 다른 사용자들의 쓰기와 묶여 커밋될 때까지 대기
+        boolean liked = EngagementWriter.ENABLED
+                ? EngagementWriter.await(EngagementWriter.commentLike(commentId, liker))
+                : TxExecutor.inTransaction("comment_like", con -> applyLike(con, commentId, liker));
+        if (!liked) return false;
+
+        DBConn.noteWrite(liker); // 잠시 동안 liker의 읽기는 primary에서(read-your-writes)
+        System.out.println("Comment Like successfully");
+        return true;
+    }
 
-        if (rs.next()) return false; //Already pressed "like"
+    /** 주어진 트랜잭션 안에서 좋아요 반영(등록 + 작성자 경험치). 이미 눌렀으면 false */
+    static boolean applyLike(Connection con, int commentId, String liker) throws SQLException {
+        //Like, register (UNIQUE(comment_id, liker_id) → already pressed "like" inserts 0 rows)
+        String insert = "insert ignore into comment_like(comment_id, liker_id) values(?,?)";
+        try (PreparedStatement ps = con.prepareStatement(insert)) {
+            ps.setInt(1, commentId);
+            ps.setString(2, liker);
+            if (ps.executeUpdate() == 0) return false; //Already pressed "like"
+        }
 
-        //Like, register
-        String insert = "insert into comment_like(comment_id, liker_id) values(?,?)";
-        ps = con.prepareStatement(insert);
-        ps.setInt(1, commentId);
-        ps.setString(2, liker);
-        ps.executeUpdate();
+        //Like counter (comment.num_of_likes) in the same transaction; comment lists read this column
+        try (PreparedStatement ps = con.prepareStatement("update comment set num_of_likes = num_of_likes + 1 where comment_id=?")) {
+            ps.setInt(1, commentId);
+            ps.executeUpdate();
+        }
 
         //Find a writer of comment
         String writerQuery = "select writer_id from comment where comment_id=?";
-        ps = con.prepareStatement(writerQuery);
-        ps.setInt(1, commentId);
-        rs = ps.executeQuery();
-
-        if (rs.next()) {
-            String writerId = rs.getString("writer_id");
-
-            //Exp values +5
-            LevelAdmin.info(con, writerId, 5);
+        String writerId = null;
+        try (PreparedStatement ps = con.prepareStatement(writerQuery)) {
+            ps.setInt(1, commentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) writerId = rs.getString("writer_id");
+            }
         }
 
-        System.out.println("Comment Like successfully");
+        //Exp values +5
+        if (writerId != null) LevelAdmin.info(con, writerId, 5);
         return true;
     }
 }
@@ -5,12 +5,14 @@
  * 동작 개요:
  *  1) like(con, likerId, commentId)
  *     - comment_like 테이블에 (commentId, likerId)를 INSERT 하여 '댓글 좋아요'를 기록합니다.
+ *     - 같은 트랜잭션에서 comment.num_of_likes를 +1 합니다(댓글 목록은 이 컬럼만 읽음).
  *     - 이어서 해당 댓글의 작성자(writer_id)를 조회합니다.
  *     - 좋아요 누른 사람(likerId)과 댓글 작성자가 다르면, 댓글 작성자에게 경험치 +5를 부여합니다.
  *       (LevelAdmin.info(con, writer, 5) 호출)
  *
  *  2) unlike(con, likerId, commentId)
  *     - comment_like 테이블에서 (commentId, likerId) 행을 DELETE 하여 '댓글 좋아요 취소'를 처리합니다.
+ *     - 실제로 지운 경우에만 comment.num_of_likes를 -1 합니다(0 미만으로 내려가지 않음).
  *     - 취소 시에는 경험치 환원/감소를 하지 않습니다. (정책상 단순 취소)
  *
  * 파라미터:
@@ -70,6 +72,12 @@ public class CommentLikeDAO {
             ps.executeUpdate();
         }
 
+        // 1-1) 좋아요 수 컬럼 갱신(같은 트랜잭션)
+        try (PreparedStatement ps = con.prepareStatement("UPDATE comment SET num_of_likes = num_of_likes + 1 WHERE comment_id=?")) {
+            ps.setInt(1, commentId);
+            ps.executeUpdate();
+        }
+
         // 2) 댓글 작성자 조회
         String q = "SELECT writer_id FROM comment WHERE comment_id=?";
         String writer = null;
@@ -101,7 +109,14 @@ public class CommentLikeDAO {
         try (PreparedStatement ps = con.prepareStatement(del)) {
             ps.setInt(1, commentId);
             ps.setString(2, likerId);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) return false;
         }
+        // 실제로 지운 경우에만 좋아요 수 컬럼 -1
+        try (PreparedStatement ps = con.prepareStatement(
+                "UPDATE comment SET num_of_likes = GREATEST(num_of_likes - 1, 0) WHERE comment_id=?")) {
+            ps.setInt(1, commentId);
+            ps.executeUpdate();
+        }
+        return true;
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * 파일명: CommentRepository.java
+ * 목적: 댓글 스레드 조회 API. 피드 카드(FeedPanel)와 공용 카드(FeedCardFactory)의 댓글 영역이 모두 이 클래스를 거친다.
+ *
+ * 조회
+ * - page(con, postId, viewerId, before, limit): 한 글의 댓글 중 before(comment_id)보다 오래된 최신 limit개.
+ *   · 쿼리 한 번으로 댓글 + 좋아요 수(comment.num_of_likes) + 보는 사람의 좋아요 여부(comment_like LEFT JOIN)를 읽는다.
+ *     (예전: 댓글 목록 조회 후 댓글마다 좋아요 여부 SELECT 한 번씩)
+ *   · comment(post_id, comment_id) 인덱스를 역순으로 limit+1행만 읽으므로 댓글이 몇 개든 비용이 같다.
+ *     한 행 더 읽어서 더 오래된 댓글이 남았는지(Page.hasOlder) 안다.
+ *   · 결과(Page.rows)는 화면 순서(오래된 것 → 최신). 다음 페이지는 before = Page.oldestId().
+ *
+ * 댓글 수
+ * - posts.comment_count(Comment.insert / CommentDAO.add / EngagementWriter가 같은 트랜잭션에서 +1,
+ *   LikeCounterReconciler가 주기적으로 검사)를 PostRepository CARD 프로젝션으로 읽어 [Comments (N)] 버튼에 표시한다.
+ *
+ * 설정
+ * - -Dtwitter.comments.pageSize (기본 20): 처음 펼칠 때/[이전 댓글]마다 읽는 댓글 수(PAGE_SIZE)
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CommentRepository {
+
+    public static final int PAGE_SIZE = Math.max(1, Integer.getInteger("twitter.comments.pageSize", 20));
+
+    /** 댓글 한 행(좋아요 수/여부는 화면에서 바꿀 수 있음) */
+    public static final class CommentRow {
+        public final int commentId;
+        public final String writerId;
+        public final String content;
+        public int likes;          // comment.num_of_likes
+        public final Timestamp createdAt;
+        public boolean liked;      // 보는 사람이 좋아요했는지
+
+        public CommentRow(int commentId, String writerId, String content, int likes, Timestamp createdAt, boolean liked) {
+            this.commentId = commentId; this.writerId = writerId; this.content = content;
+            this.likes = likes; this.createdAt = createdAt; this.liked = liked;
+        }
+    }
+
+    /** 댓글 한 페이지(오래된 것 → 최신)와 그보다 오래된 댓글이 남았는지 */
+    public static final class Page {
+        public final List<CommentRow> rows;
+        public final boolean hasOlder;
+
+        Page(List<CommentRow> rows, boolean hasOlder) { this.rows = rows; this.hasOlder = hasOlder; }
+
+        /** 다음(더 오래된) 페이지의 before 값 */
+        public int oldestId() { return rows.isEmpty() ? 0 : rows.get(0).commentId; }
+    }
+
+    /**
+     * postId의 댓글 중 before보다 오래된 최신 limit개(before가 0 이하이면 가장 최신부터).
+     * viewerId가 없으면 좋아요 여부는 모두 false.
+     */
+    public static Page page(Connection con, int postId, String viewerId, int before, int limit) throws SQLException {
+        String sql = "SELECT c.comment_id, c.writer_id, c.content, c.num_of_likes, c.created_at, l.l_id"
+                   + " FROM comment c"
+                   + " LEFT JOIN comment_like l ON l.comment_id = c.comment_id AND l.liker_id = ?"
+                   + " WHERE c.post_id = ?" + (before > 0 ? " AND c.comment_id < ?" : "")
+                   + " ORDER BY c.comment_id DESC LIMIT ?";
+        List<CommentRow> rows = new ArrayList<>(limit + 1);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            int i = 1;
+            ps.setString(i++, viewerId == null ? "" : viewerId); // uq_comment_like(comment_id, liker_id) → 댓글당 최대 1행
+            ps.setInt(i++, postId);
+            if (before > 0) ps.setInt(i++, before);
+            ps.setInt(i, limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    boolean liked = rs.getObject(6) != null; // 보는 사람의 comment_like 행이 있음
+                    rows.add(new CommentRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                                            rs.getTimestamp(5), liked));
+                }
+            }
+        }
+        boolean hasOlder = rows.size() > limit;
+        if (hasOlder) rows.remove(limit);
+        Collections.reverse(rows);
+        return new Page(rows, hasOlder);
+    }
+}
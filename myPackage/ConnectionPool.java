@@ -0,0 +1,384 @@
+/*
+ * 파일명: ConnectionPool.java
+ * 목적: DBConn.getConnection()이 매번 새 물리 커넥션을 여는 대신, 상한이 있는 커넥션 풀에서 빌려주도록 한다.
+ *
+ * 동작 개요
+ * - borrow(): 세마포어로 동시에 빌려줄 수 있는 커넥션 수를 maxSize로 제한한다.
+ *     · 유휴 커넥션이 있으면 꺼내서(LIFO) 검증 후 반환, 없으면 새 물리 커넥션을 연다.
+ *     · borrowTimeoutMs 안에 자리가 나지 않으면 SQLException("pool exhausted").
+ *     · 반환되는 객체는 물리 커넥션을 감싼 프록시이며, close()는 실제로 닫지 않고 풀에 돌려준다.
+ * - 반납 시: 열려 있는 Statement 정리, 미커밋 트랜잭션 롤백, autoCommit/readOnly/격리수준 원복.
+ * - 검증(validation on borrow): 마지막 사용 후 validationBypassMs가 지난 커넥션만 isValid()로 확인한다.
+ * - 하우스키핑(데몬 스레드, housekeepingMs 주기):
+ *     · 유휴 축출: idleTimeoutMs 이상 놀고 있는 커넥션을 minSize까지 닫는다.
+ *     · 최소 유지: 유휴+사용중 커넥션이 minSize보다 적으면 미리 열어둔다.
+ *     · 누수 감지: leakThresholdMs 이상 반납되지 않은 커넥션을 빌려간 위치(스택)와 함께 로그로 남긴다.
+ *
+ * 설정
+ * - Config.fromSystemProperties("twitter.db.pool")로 -D 옵션에서 읽는다.
+ *   예) -Dtwitter.db.pool.max=20 -Dtwitter.db.pool.leakThresholdMs=10000
+ *
+ * 통계
+ * - stats(): 현재 크기/사용중/유휴/대기 수와 누적 대여·생성·폐기·타임아웃·검증실패·누수 건수, 대기시간을 스냅샷으로 반환.
+ *
+ * 주의
+ * - 반납된 프록시를 다시 사용하면 SQLException("Connection is closed")이 발생한다.
+ * - SQLState 08xxx(연결 오류)가 난 커넥션은 반납 시 재사용하지 않고 폐기한다.
+ */
+
+package myPackage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool {
+
+    /* ========= 설정 ========= */
+    public static class Config {
+        public int  minSize            = 2;       // 항상 열어둘 최소 커넥션 수
+        public int  maxSize            = 10;      // 동시에 빌려줄 수 있는 최대 커넥션 수
+        public long borrowTimeoutMs    = 5_000;   // 빈 자리 대기 한도
+        public long idleTimeoutMs      = 300_000; // 이 시간 이상 유휴면 축출(minSize 초과분)
+        public long validationBypassMs = 1_000;   // 최근 사용한 커넥션은 검증 생략
+        public int  validationTimeoutSec = 2;     // isValid() 타임아웃
+        public long leakThresholdMs    = 30_000;  // 0 이하이면 누수 감지 끔
+        public long housekeepingMs     = 5_000;   // 하우스키핑 주기
+
+        /** -D{prefix}.min, -D{prefix}.max ... 형태의 시스템 프로퍼티로 덮어쓴다. */
+        public static Config fromSystemProperties(String prefix) {
+            Config c = new Config();
+            c.minSize            = Integer.getInteger(prefix + ".min", c.minSize);
+            c.maxSize            = Integer.getInteger(prefix + ".max", c.maxSize);
+            c.borrowTimeoutMs    = Long.getLong(prefix + ".borrowTimeoutMs", c.borrowTimeoutMs);
+            c.idleTimeoutMs      = Long.getLong(prefix + ".idleTimeoutMs", c.idleTimeoutMs);
+            c.validationBypassMs = Long.getLong(prefix + ".validationBypassMs", c.validationBypassMs);
+            c.validationTimeoutSec = Integer.getInteger(prefix + ".validationTimeoutSec", c.validationTimeoutSec);
+            c.leakThresholdMs    = Long.getLong(prefix + ".leakThresholdMs", c.leakThresholdMs);
+            c.housekeepingMs     = Long.getLong(prefix + ".housekeepingMs", c.housekeepingMs);
+            c.maxSize = Math.max(1, c.maxSize);
+            c.minSize = Math.max(0, Math.min(c.minSize, c.maxSize));
+            return c;
+        }
+    }
+
+    /* ========= 통계 스냅샷 ========= */
+    public static final class Stats {
+        public final String name;
+        public final int total, active, idle, waiting, maxSize;
+        public final long borrowed, created, destroyed, timeouts, validationFailures, leaks;
+        public final long avgWaitMicros, maxWaitMicros;
+
+        Stats(String name, int total, int active, int idle, int waiting, int maxSize,
+              long borrowed, long created, long destroyed, long timeouts, long validationFailures,
+              long leaks, long avgWaitMicros, long maxWaitMicros) {
+            this.name = name; this.total = total; this.active = active; this.idle = idle;
+            this.waiting = waiting; this.maxSize = maxSize; this.borrowed = borrowed;
+            this.created = created; this.destroyed = destroyed; this.timeouts = timeouts;
+            this.validationFailures = validationFailures; this.leaks = leaks;
+            this.avgWaitMicros = avgWaitMicros; this.maxWaitMicros = maxWaitMicros;
+        }
+
+        @Override public String toString() {
+            return String.format(
+                "[pool %s] total=%d active=%d idle=%d waiting=%d max=%d | borrowed=%d created=%d destroyed=%d " +
+                "timeouts=%d validationFailures=%d leaks=%d | wait avg=%dus max=%dus",
+                name, total, active, idle, waiting, maxSize, borrowed, created, destroyed,
+                timeouts, validationFailures, leaks, avgWaitMicros, maxWaitMicros);
+        }
+    }
+
+    private final String name;
+    private final String url, user, pwd;
+    private final Config cfg;
+
+    private final Semaphore permits;                                    // 동시 대여 상한
+    private final ConcurrentLinkedDeque<PhysicalConn> idle = new ConcurrentLinkedDeque<>();
+    private final Map<Lease, Boolean> leased = new ConcurrentHashMap<>(); // 누수 감지용 대여 목록
+    private final AtomicInteger total = new AtomicInteger();            // 열려 있는 물리 커넥션 수
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // 누적 카운터
+    private final AtomicLong borrowed = new AtomicLong(), created = new AtomicLong(), destroyed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong(), validationFailures = new AtomicLong(), leaks = new AtomicLong();
+    private final AtomicLong waitNanosSum = new AtomicLong(), waitNanosMax = new AtomicLong();
+
+    public ConnectionPool(String name, String url, String user, String pwd, Config cfg) {
+        this.name = name;
+        this.url = url; this.user = user; this.pwd = pwd;
+        this.cfg = cfg;
+        this.permits = new Semaphore(cfg.maxSize, true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                cfg.housekeepingMs, cfg.housekeepingMs, TimeUnit.MILLISECONDS);
+    }
+
+    /* ========= 대여 ========= */
+
+    /** 풀에서 커넥션을 빌린다. 반환된 커넥션의 close()는 풀 반납을 의미한다. */
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool '" + name + "' is closed");
+
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(cfg.borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", ie);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLTransientConnectionException("Connection pool '" + name + "' exhausted: no connection within "
+                    + cfg.borrowTimeoutMs + "ms (" + stats() + ")");
+        }
+
+        try {
+            PhysicalConn pc = takeValidIdle();
+            if (pc == null) pc = open();
+
+            long waited = System.nanoTime() - start;
+            waitNanosSum.addAndGet(waited);
+            waitNanosMax.accumulateAndGet(waited, Math::max);
+            borrowed.incrementAndGet();
+
+            Lease lease = new Lease(pc, cfg.leakThresholdMs > 0 ? new Throwable("borrowed here") : null);
+            leased.put(lease, Boolean.TRUE);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** 유휴 커넥션 중 검증을 통과한 것 하나를 꺼낸다(없으면 null). */
+    private PhysicalConn takeValidIdle() {
+        PhysicalConn pc;
+        while ((pc = idle.pollFirst()) != null) {
+            long idleMs = (System.nanoTime() - pc.lastUsedNanos) / 1_000_000;
+            if (idleMs < cfg.validationBypassMs) return pc;
+            try {
+                if (pc.raw.isValid(cfg.validationTimeoutSec)) return pc;
+            } catch (SQLException ignored) {
+                // 아래에서 폐기
+            }
+            validationFailures.incrementAndGet();
+            destroy(pc);
+        }
+        return null;
+    }
+
+    private PhysicalConn open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, pwd);
+        total.incrementAndGet();
+        created.incrementAndGet();
+        return new PhysicalConn(raw);
+    }
+
+    private void destroy(PhysicalConn pc) {
+        total.decrementAndGet();
+        destroyed.incrementAndGet();
+        try { pc.raw.close(); } catch (SQLException ignored) {}
+    }
+
+    /* ========= 반납 ========= */
+
+    private void giveBack(Lease lease) {
+        leased.remove(lease);
+        PhysicalConn pc = lease.pc;
+        try {
+            lease.closeOpenStatements();
+            if (!pc.broken) {
+                Connection raw = pc.raw;
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();          // 커밋 안 된 작업은 버린다
+                    raw.setAutoCommit(true);
+                }
+                if (raw.isReadOnly()) raw.setReadOnly(false);
+                if (raw.getTransactionIsolation() != pc.defaultIsolation) {
+                    raw.setTransactionIsolation(pc.defaultIsolation);
+                }
+                raw.clearWarnings();
+            }
+        } catch (SQLException e) {
+            pc.broken = true;
+        }
+
+        if (pc.broken || closed) {
+            destroy(pc);
+        } else {
+            pc.lastUsedNanos = System.nanoTime();
+            idle.offerFirst(pc);
+        }
+        permits.release();
+    }
+
+    /* ========= 하우스키핑 ========= */
+
+    private void housekeep() {
+        try {
+            long now = System.nanoTime();
+
+            // 1) 누수 감지: 오래 반납되지 않은 커넥션을 빌려간 위치와 함께 로그
+            if (cfg.leakThresholdMs > 0) {
+                for (Lease l : leased.keySet()) {
+                    long heldMs = (now - l.borrowedNanos) / 1_000_000;
+                    if (heldMs >= cfg.leakThresholdMs && !l.leakReported) {
+                        l.leakReported = true;
+                        leaks.incrementAndGet();
+                        System.err.println("[pool " + name + "] Possible connection leak: held for " + heldMs
+                                + "ms by thread '" + l.threadName + "'");
+                        if (l.borrowSite != null) l.borrowSite.printStackTrace();
+                    }
+                }
+            }
+
+            // 2) 유휴 축출: 오래된 것부터(덱의 뒤쪽) minSize 초과분 정리
+            PhysicalConn oldest;
+            while (total.get() > cfg.minSize && (oldest = idle.peekLast()) != null
+                    && (now - oldest.lastUsedNanos) / 1_000_000 >= cfg.idleTimeoutMs) {
+                if (idle.removeLastOccurrence(oldest)) destroy(oldest);
+            }
+
+            // 3) 최소 크기 유지
+            while (!closed && total.get() < cfg.minSize) {
+                idle.offerLast(open());
+            }
+        } catch (Exception e) {
+            System.err.println("[pool " + name + "] housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /* ========= 통계/종료 ========= */
+
+    public Stats stats() {
+        long n = borrowed.get();
+        return new Stats(name, total.get(), leased.size(), idle.size(), waiting.get(), cfg.maxSize,
+                n, created.get(), destroyed.get(), timeouts.get(), validationFailures.get(), leaks.get(),
+                n == 0 ? 0 : waitNanosSum.get() / n / 1_000, waitNanosMax.get() / 1_000);
+    }
+
+    /** 유휴 커넥션을 모두 닫고 하우스키핑을 멈춘다. 사용 중인 커넥션은 반납 시점에 닫힌다. */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PhysicalConn pc;
+        while ((pc = idle.pollFirst()) != null) destroy(pc);
+    }
+
+    private static boolean isClosedQuietly(Statement st) {
+        try { return st.isClosed(); } catch (SQLException e) { return true; }
+    }
+
+    /* ========= 내부 구조 ========= */
+
+    // 물리 커넥션 + 상태
+    private static final class PhysicalConn {
+        final Connection raw;
+        final int defaultIsolation;
+        volatile long lastUsedNanos = System.nanoTime();
+        volatile boolean broken = false;
+
+        PhysicalConn(Connection raw) throws SQLException {
+            this.raw = raw;
+            this.defaultIsolation = raw.getTransactionIsolation();
+        }
+    }
+
+    // 한 번의 대여. 프록시의 close()가 호출되면 풀로 돌아간다.
+    private final class Lease implements InvocationHandler {
+        final PhysicalConn pc;
+        final Throwable borrowSite;          // 누수 감지 시 출력할 대여 위치
+        final String threadName = Thread.currentThread().getName();
+        final long borrowedNanos = System.nanoTime();
+        final Connection proxy;
+        final List<Statement> statements = new ArrayList<>();
+        volatile boolean leakReported = false;
+        private boolean returned = false;
+
+        Lease(PhysicalConn pc, Throwable borrowSite) {
+            this.pc = pc;
+            this.borrowSite = borrowSite;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object p, Method m, Object[] args) throws Throwable {
+            String n = m.getName();
+            switch (n) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) return null;
+                        returned = true;
+                    }
+                    giveBack(this);
+                    return null;
+                case "isClosed":
+                    return returned || pc.raw.isClosed();
+                case "equals":
+                    return p == args[0];
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "toString":
+                    return "Pooled[" + name + "]" + pc.raw;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(p)) return p;
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(p)) return true;
+                    break;
+                default:
+                    break;
+            }
+            if (returned) throw new SQLException("Connection is closed (already returned to pool)");
+
+            try {
+                Object r = m.invoke(pc.raw, args);
+                if (r instanceof Statement) {
+                    synchronized (statements) {
+                        // 오래 쓰는 대여에서 목록이 무한히 커지지 않도록 닫힌 것은 정리
+                        if (statements.size() >= 64) statements.removeIf(ConnectionPool::isClosedQuietly);
+                        statements.add((Statement) r);
+                    }
+                }
+                return r;
+            } catch (InvocationTargetException ite) {
+                Throwable cause = ite.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) pc.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        // 호출측이 닫지 않은 Statement를 반납 시점에 정리
+        void closeOpenStatements() {
+            synchronized (statements) {
+                for (Statement st : statements) {
+                    try { st.close(); } catch (SQLException ignored) {}
+                }
+                statements.clear();
+            }
+        }
+    }
+}
@@ -1,14 +1,200 @@
 package myPackage;
 
 import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DBConn {
     //해당 유저 url,user,pwd로 바꾸기
-    private static final String url = "jdbc:mysql://localhost:3306/twitter"; 
+    private static final String url = "jdbc:mysql://localhost:3306/twitter"
+            + "?rewriteBatchedStatements=true"; // addBatch()/executeBatch()를 다중 행 INSERT로 묶어 전송
     private static final String user = "root";
-    private static final String pwd = "12345"; 
+    private static final String pwd = "12345";
 
+    // 백엔드 프로필: -Dtwitter.db.profile=mysql(기본) | h2-mem | h2-file
+    //  - h2-mem : 메모리 DB(프로세스 종료 시 사라짐), 시작 시 twitter.sql로 스키마 생성
+    //  - h2-file: 파일 DB(-Dtwitter.db.file, 기본 ./data/twitter), 최초 1회만 스키마 생성
+    public static final String PROFILE = System.getProperty("twitter.db.profile", "mysql");
+
+    // H2를 MySQL 호환 모드로: `user` 테이블명, INSERT IGNORE, ON DUPLICATE KEY 등을 그대로 사용
+    private static final String H2_OPTS =
+            ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+
+    // 읽기 전용 복제본(replica) 라우팅
+    //  - -Dtwitter.db.replica.url=jdbc:mysql://replica:3306/twitter 로 지정하거나,
+    //    내장 DB 프로필에서는 -Dtwitter.db.replica=true 로 별도 내장 DB(twitter_replica)를 복제본 대역으로 사용
+    //  - 방금 쓰기를 한 세션은 RYW_WINDOW_MS 동안 읽기도 primary로 보낸다(read-your-writes)
+    private static final long RYW_WINDOW_MS = Long.getLong("twitter.db.ryw.windowMs", 5_000);
+
+    // 커넥션 풀: 최초 사용 때 생성 (크기/누수 감지 등은 -Dtwitter.db.pool.* / -Dtwitter.db.replica.pool.* 로 조정)
+    private static volatile ConnectionPool pool;
+    private static volatile ConnectionPool replicaPool;
+    private static volatile boolean replicaResolved = false;
+
+    // read-your-writes: 세션(사용자ID)별 마지막 쓰기 시각, 현재 앱 세션 사용자
+    private static final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private static volatile String sessionUser;
+
+    private static final LongAdder readsReplica = new LongAdder();
+    private static final LongAdder readsPrimary = new LongAdder();
+    private static final LongAdder readsPinnedByWrite = new LongAdder();
+
+    /** 쓰기용(primary) 커넥션. 반드시 close()(=풀 반납) 할 것 → try-with-resources 권장 */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url,user,pwd);
+        return SqlMetrics.wrap(pool().borrow()); // SQL별 지연/행 수 계측(-Dtwitter.db.metrics=false로 끔)
+    }
+
+    /** 연결 확인(+ 풀 워밍업): 커넥션을 하나 빌려 유효성만 보고 바로 반납 */
+    public static void ping() throws SQLException {
+        try (Connection con = getConnection()) {
+            if (!con.isValid(5)) throw new SQLException("DB connection is not valid");
+        }
+    }
+
+    /** 읽기 전용 조회용 커넥션: 복제본이 있고 현재 세션이 최근 쓰기를 하지 않았으면 복제본으로 보낸다. */
+    public static Connection getReadConnection() throws SQLException {
+        return getReadConnection(sessionUser);
+    }
+
+    /** userId 세션 기준 읽기 커넥션(read-your-writes 창 안이면 primary) */
+    public static Connection getReadConnection(String userId) throws SQLException {
+        ConnectionPool rp = replicaPool();
+        if (rp == null) {
+            readsPrimary.increment();
+            return getConnection();
+        }
+        if (recentlyWrote(userId)) {
+            readsPinnedByWrite.increment();
+            return getConnection();
+        }
+        readsReplica.increment();
+        Connection con = SqlMetrics.wrap(rp.borrow());
+        try {
+            con.setReadOnly(true); // 반납 시 풀이 원복
+        } catch (SQLException | RuntimeException e) {
+            try {
+                con.close(); // 빌린 커넥션은 실패해도 풀에 반납
+            } catch (SQLException closeFail) {
+                e.addSuppressed(closeFail);
+            }
+            throw e;
+        }
+        return con;
+    }
+
+    /** 현재 앱 세션 사용자(로그인 시 TwitterApp이 설정) */
+    public static void setSessionUser(String userId) {
+        sessionUser = userId;
+    }
+
+    /** userId가 방금 쓰기를 했음을 기록 → 잠시 동안 이 세션의 읽기는 primary에서 */
+    public static void noteWrite(String userId) {
+        if (userId != null) lastWriteNanos.put(userId, System.nanoTime());
+    }
+
+    private static boolean recentlyWrote(String userId) {
+        if (userId == null) return false;
+        Long t = lastWriteNanos.get(userId);
+        if (t == null) return false;
+        if ((System.nanoTime() - t) / 1_000_000 < RYW_WINDOW_MS) return true;
+        lastWriteNanos.remove(userId, t); // 창이 지난 기록은 정리
+        return false;
+    }
+
+    /** 풀 사용 현황(크기 산정/모니터링용) */
+    public static ConnectionPool.Stats poolStats() {
+        return pool().stats();
+    }
+
+    /** 복제본 풀 현황(복제본 미사용이면 null) */
+    public static ConnectionPool.Stats replicaPoolStats() {
+        ConnectionPool rp = replicaPool();
+        return rp == null ? null : rp.stats();
+    }
+
+    /** 읽기 라우팅 누적 건수 */
+    public static String routingStats() {
+        return "[routing] replica=" + readsReplica.sum() + " primary(no replica)=" + readsPrimary.sum()
+                + " primary(read-your-writes)=" + readsPinnedByWrite.sum();
+    }
+
+    /** 내장 DB(H2) 프로필로 실행 중인지 */
+    public static boolean isEmbedded() {
+        return PROFILE.startsWith("h2");
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBConn.class) {
+                p = pool;
+                if (p == null) {
+                    p = createPool("primary", jdbcUrl("twitter"), "twitter.db.pool");
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    private static ConnectionPool replicaPool() {
+        if (replicaResolved) return replicaPool;
+        synchronized (DBConn.class) {
+            if (!replicaResolved) {
+                String rurl = System.getProperty("twitter.db.replica.url");
+                if (rurl == null && isEmbedded() && Boolean.getBoolean("twitter.db.replica")) {
+                    rurl = embeddedUrl("twitter_replica");
+                }
+                if (rurl != null) replicaPool = createPool("replica", rurl, "twitter.db.replica.pool");
+                replicaResolved = true;
+            }
+            return replicaPool;
+        }
+    }
+
+    /** 프로필에 맞는 JDBC URL (-Dtwitter.db.url 이 있으면 그대로 사용) */
+    private static String jdbcUrl(String dbName) {
+        String override = System.getProperty("twitter.db.url");
+        if (override != null) return override;
+        if (PROFILE.equals("mysql")) return url;
+        return embeddedUrl(dbName);
+    }
+
+    private static String embeddedUrl(String dbName) {
+        switch (PROFILE) {
+            case "h2-mem":
+                return "jdbc:h2:mem:" + dbName + H2_OPTS;
+            case "h2-file":
+                String file = System.getProperty("twitter.db.file");
+                return "jdbc:h2:file:" + (file == null ? "./data/" + dbName
+                        : dbName.equals("twitter") ? file : file + "_" + dbName) + H2_OPTS;
+            default:
+                throw new IllegalStateException("Unknown twitter.db.profile: " + PROFILE);
+        }
+    }
+
+    private static ConnectionPool createPool(String name, String jdbcUrl, String configPrefix) {
+        String u = System.getProperty("twitter.db.user", isEmbedded() ? "sa" : user);
+        String pw = System.getProperty("twitter.db.password", isEmbedded() ? "" : pwd);
+        ConnectionPool p = new ConnectionPool(name, jdbcUrl, u, pw,
+                ConnectionPool.Config.fromSystemProperties(configPrefix));
+
+        // 내장 DB는 비어 있으면 twitter.sql로 스키마/시드 생성
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            try (Connection con = p.borrow()) {
+                SchemaBootstrap.runIfEmpty(con);
+            } catch (SQLException e) {
+                p.close();
+                throw new IllegalStateException("Embedded DB bootstrap failed: " + e.getMessage(), e);
+            }
+        }
+
+        // 종료 시 풀 통계를 남기고 유휴 커넥션 정리
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(p.stats());
+            p.close();
+        }, "db-pool-shutdown-" + name));
+        return p;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,478 @@
+/*
+ * 파일명: DataGenerator.java
+ * 목적: twitter 스키마에 대규모 합성 데이터(수백만~수천만 행)를 채워 쿼리 플랜/화면을 실제 규모로 점검한다.
+ *
+ * 생성 대상(모든 FK/UNIQUE 제약을 만족하도록 생성)
+ * - user          : {prefix}0 ~ {prefix}{N-1}, followers/followings 카운트는 실제 following 행 수와 일치
+ * - posts         : 작성자는 Zipf 분포(소수 사용자가 글을 많이 씀), 본문에 0~3개 해시태그, post_id 증가 순으로 created_at 증가
+ * - post_tag      : (post_id, tag) 중복 없음, 태그 인기도도 Zipf
+ * - following     : 팔로우 대상은 Zipf 분포 → 팔로워 수가 멱법칙(power-law)을 따름, (user_id, follower_id) 중복/자기 자신 없음
+ * - post_like     : 글별 좋아요 수는 지수 분포, (post_id, liker_id) 중복 없음. posts.num_of_likes도 같은 값으로 채움
+ * - comment / comment_like : 댓글은 임의 글에, 댓글 좋아요는 (comment_id, liker_id) 중복 없음. posts.comment_count는 실제 댓글 수
+ * - block         : (block_id, by_block_id) 중복/자기 자신 없음
+ * - message       : 임의 송신자 → 다른 수신자
+ * - reserved_post : 절반은 과거(is_posted=TRUE), 절반은 미래(is_posted=FALSE)
+ *
+ * 동작 개요
+ * - 모든 난수는 (seed, 엔티티 번호)로 결정되는 SplittableRandom에서 뽑는다.
+ *   → 같은 옵션이면 항상 같은 데이터, 스레드 수와 무관. 팔로우는 1차로 카운트만 세고 2차에 같은 간선을 다시 만들어 INSERT.
+ * - 단계(테이블)별로 ID 범위를 청크로 나눠 스레드 풀에서 병렬 처리. 청크마다 자기 커넥션을 빌린다.
+ * - 입력은 다중 행 INSERT(기본 500행/문장)로, 문장 몇 개마다 커밋한다.
+ * - 모든 AUTO_INCREMENT 키도 직접 지정(기존 최대값 다음부터)한다 → 자동 키 회수/auto-inc 락 경합 없음.
+ *     · following/post_like/comment_like: 행 수를 미리 세어 만든 누적합(prefix sum)으로 구간 배정
+ *     · post_tag: 글당 최대 3개라 post 번호 * 3 + i (빈 번호가 생길 수 있음)
+ * - UNIQUE 보장: 중복 가능성이 있는 테이블은 "한 청크가 한쪽 키 범위를 전담"하도록 나눠(예: 좋아요는 글 단위) 청크 안에서만 중복 제거.
+ *
+ * 사용법
+ *  java -cp ... myPackage.DataGenerator --users=100000 --posts=2000000 --likes=20000000 --follows=5000000 --threads=8
+ *  (Gradle) ./gradlew generateData -Pargs="--users=100000 --posts=2000000" -Dtwitter.db.profile=h2-file
+ *
+ * 옵션(기본값)
+ *  --users=10000 --posts=200000 --likes=2000000 --comments=400000 --commentLikes=400000
+ *  --follows=500000 --blocks=5000 --messages=50000 --reserved=2000
+ *  --threads=코어 수(최대 8) --rows=500(문장당 행 수) --seed=42 --zipf=1.0 --prefix=g --days=365
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DataGenerator {
+
+    /* ========= 옵션 ========= */
+    private final int users, posts, likes, comments, commentLikes, follows, blocks, messages, reserved;
+    private final int threads, rowsPerStmt, days;
+    private final long seed;
+    private final double zipf;
+    private final String prefix;
+
+    private static final int TAG_VOCAB = 2_000;
+    private static final String[] WORDS = {
+            "오늘", "날씨", "맛집", "커피", "공부", "시험", "여행", "운동", "java", "swing",
+            "mysql", "news", "music", "game", "영화", "책", "산책", "점심", "야근", "주말" };
+
+    // 기존 데이터와 겹치지 않도록 시작 ID
+    private int postBase, commentBase, tagBase, followBase, likeBase, commentLikeBase, messageBase, reservedBase;
+    private final long epochStart;
+    private final long spanMillis;
+
+    private final ExecutorService pool;
+
+    public DataGenerator(Map<String, String> o) {
+        users        = intOpt(o, "users", 10_000);
+        posts        = intOpt(o, "posts", 200_000);
+        likes        = intOpt(o, "likes", 2_000_000);
+        comments     = intOpt(o, "comments", 400_000);
+        commentLikes = intOpt(o, "commentLikes", 400_000);
+        follows      = intOpt(o, "follows", 500_000);
+        blocks       = intOpt(o, "blocks", 5_000);
+        messages     = intOpt(o, "messages", 50_000);
+        reserved     = intOpt(o, "reserved", 2_000);
+        threads      = intOpt(o, "threads", Math.min(8, Runtime.getRuntime().availableProcessors()));
+        rowsPerStmt  = intOpt(o, "rows", 500);
+        days         = intOpt(o, "days", 365);
+        seed         = Long.parseLong(o.getOrDefault("seed", "42"));
+        zipf         = Double.parseDouble(o.getOrDefault("zipf", "1.0"));
+        prefix       = o.getOrDefault("prefix", "g");
+        if (users < 2) throw new IllegalArgumentException("--users must be >= 2");
+        if ((prefix + (users - 1)).length() > 20) throw new IllegalArgumentException("user_id longer than 20 chars");
+
+        spanMillis = days * 86_400_000L;
+        epochStart = System.currentTimeMillis() - spanMillis;
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "datagen");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> o = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--") || !a.contains("=")) throw new IllegalArgumentException("usage: --key=value ... (" + a + ")");
+            o.put(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+        }
+        new DataGenerator(o).run();
+        System.exit(0); // 풀/하우스키퍼 스레드 정리
+    }
+
+    public void run() throws Exception {
+        long t0 = System.nanoTime();
+        try (Connection con = DBConn.getConnection()) {
+            postBase    = maxId(con, "posts", "post_id") + 1;
+            commentBase = maxId(con, "comment", "comment_id") + 1;
+            tagBase     = maxId(con, "post_tag", "t_id") + 1;
+            followBase  = maxId(con, "following", "f_id") + 1;
+            likeBase    = maxId(con, "post_like", "l_id") + 1;
+            commentLikeBase = maxId(con, "comment_like", "l_id") + 1;
+            messageBase = maxId(con, "message", "m_id") + 1;
+            reservedBase = maxId(con, "reserved_post", "s_id") + 1;
+            try (PreparedStatement ps = con.prepareStatement("SELECT 1 FROM user WHERE user_id = ?")) {
+                ps.setString(1, prefix + "0");
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) throw new IllegalStateException("users with prefix '" + prefix + "' already exist; use --prefix");
+                }
+            }
+        }
+        System.out.printf("DataGenerator: users=%d posts=%d likes~%d comments=%d commentLikes~%d follows~%d threads=%d%n",
+                users, posts, likes, comments, commentLikes, follows, threads);
+
+        // 1) 팔로우 간선 1차: 카운트만(사용자 행에 실제 값으로 넣기 위해)
+        AtomicIntegerArray followers = new AtomicIntegerArray(users);
+        int[] followings = new int[users];
+        phase("follow-count", users, 10_000, (from, to, con) -> {
+            long n = 0;
+            for (int f = from; f < to; f++) {
+                int[] targets = followTargets(f);
+                followings[f] = targets.length;
+                for (int t : targets) followers.incrementAndGet(t);
+                n += targets.length;
+            }
+            return n;
+        });
+
+        // 1-2) 글별 댓글 수(posts.comment_count): 댓글의 글 번호는 rng(3, c)의 첫 표본
+        AtomicIntegerArray commentCounts = new AtomicIntegerArray(posts);
+        phase("comment-count", comments, 100_000, (from, to, con) -> {
+            for (int c = from; c < to; c++) commentCounts.incrementAndGet(rng(3, c).nextInt(posts));
+            return to - from;
+        });
+
+        // 행별 surrogate 키 구간(누적합)
+        int[] followStart = prefixSum(users, f -> followings[f]);
+        int[] likeStart = prefixSum(posts, this::likeCount);
+        int[] commentLikeStart = prefixSum(comments, c -> commentLikeCount(rng(4, c)));
+
+        // 2) user
+        phase("user", users, 10_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "user", "user_id, pwd, followers, followings", 4)) {
+                for (int u = from; u < to; u++) bi.row(userId(u), "pw" + (u % 1000), followers.get(u), followings[u]);
+                return bi.rows;
+            }
+        });
+
+        // 3) posts (+ num_of_likes) / post_tag
+        phase("posts", posts, 20_000, (from, to, con) -> {
+            try (BulkInsert bp = new BulkInsert(con, "posts", "post_id, content, writer_id, num_of_likes, created_at, comment_count", 6);
+                 BulkInsert bt = new BulkInsert(con, "post_tag", "t_id, post_id, tag", 3, bp)) {
+                for (int p = from; p < to; p++) {
+                    SplittableRandom r = rng(1, p);
+                    String writer = userId(zipfRank(r, users));
+                    int nTags = r.nextInt(4);
+                    Set<String> tags = new LinkedHashSet<>();
+                    for (int i = 0; i < nTags; i++) tags.add("tag" + zipfRank(r, TAG_VOCAB));
+                    StringBuilder sb = new StringBuilder();
+                    int words = 3 + r.nextInt(15);
+                    for (int i = 0; i < words; i++) sb.append(i == 0 ? "" : " ").append(WORDS[r.nextInt(WORDS.length)]);
+                    for (String t : tags) sb.append(" #").append(t);
+
+                    int id = postBase + p;
+                    bp.row(id, sb.toString(), writer, likeCount(p), new Timestamp(epochStart + spanMillis * p / Math.max(1, posts)),
+                           commentCounts.get(p));
+                    int i = 0;
+                    for (String t : tags) bt.row(tagBase + p * 3 + i++, id, t);
+                }
+                return bp.rows + bt.rows;
+            }
+        });
+
+        // 4) following (1차와 같은 간선)
+        phase("following", users, 2_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "following", "f_id, user_id, follower_id", 3)) {
+                for (int f = from; f < to; f++) {
+                    int id = followBase + followStart[f];
+                    for (int t : followTargets(f)) bi.row(id++, userId(t), userId(f));
+                }
+                return bi.rows;
+            }
+        });
+
+        // 5) post_like (글 단위로 청크 → (post_id, liker_id) 중복은 글 안에서만 제거하면 됨)
+        phase("post_like", posts, 10_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "post_like", "l_id, post_id, liker_id", 3)) {
+                for (int p = from; p < to; p++) {
+                    SplittableRandom r = rng(2, p);
+                    int id = likeBase + likeStart[p];
+                    for (int u : distinctUsers(r, likeCount(r))) bi.row(id++, postBase + p, userId(u));
+                }
+                return bi.rows;
+            }
+        });
+
+        // 6) comment
+        phase("comment", comments, 20_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "comment", "comment_id, content, writer_id, post_id, num_of_likes, created_at", 6)) {
+                for (int c = from; c < to; c++) {
+                    SplittableRandom r = rng(3, c);
+                    int p = r.nextInt(posts);
+                    long postTime = epochStart + spanMillis * p / Math.max(1, posts);
+                    bi.row(commentBase + c, WORDS[r.nextInt(WORDS.length)] + " " + WORDS[r.nextInt(WORDS.length)],
+                            userId(r.nextInt(users)), postBase + p, commentLikeCount(rng(4, c)),
+                            new Timestamp(Math.min(System.currentTimeMillis(), postTime + r.nextInt(86_400_000))));
+                }
+                return bi.rows;
+            }
+        });
+
+        // 7) comment_like (댓글 단위 청크)
+        phase("comment_like", comments, 20_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "comment_like", "l_id, comment_id, liker_id", 3)) {
+                for (int c = from; c < to; c++) {
+                    SplittableRandom r = rng(4, c);
+                    int id = commentLikeBase + commentLikeStart[c];
+                    for (int u : distinctUsers(r, commentLikeCount(r))) bi.row(id++, commentBase + c, userId(u));
+                }
+                return bi.rows;
+            }
+        });
+
+        // 8) block (차단한 사람 단위 청크 → PK(block_id, by_block_id) 중복은 사람 안에서만 제거)
+        double blMean = (double) blocks / users;
+        phase("block", users, 10_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "block", "block_id, by_block_id", 2)) {
+                for (int b = from; b < to; b++) {
+                    SplittableRandom r = rng(5, b);
+                    int k = Math.min(users / 2, expCount(r, blMean));
+                    for (int u : distinctUsers(r, k + 1)) {
+                        if (u != b && k-- > 0) bi.row(userId(u), userId(b));
+                    }
+                }
+                return bi.rows;
+            }
+        });
+
+        // 9) message
+        phase("message", messages, 20_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "message", "m_id, send_id, receive_id, content, send_time", 5)) {
+                for (int m = from; m < to; m++) {
+                    SplittableRandom r = rng(6, m);
+                    int s = r.nextInt(users);
+                    int t = (s + 1 + r.nextInt(users - 1)) % users;
+                    bi.row(messageBase + m, userId(s), userId(t), "msg " + m, new Timestamp(epochStart + (long) (r.nextDouble() * spanMillis)));
+                }
+                return bi.rows;
+            }
+        });
+
+        // 10) reserved_post
+        phase("reserved_post", reserved, 10_000, (from, to, con) -> {
+            try (BulkInsert bi = new BulkInsert(con, "reserved_post", "s_id, writer_id, content, scheduled_time, is_posted", 5)) {
+                long now = System.currentTimeMillis();
+                for (int i = from; i < to; i++) {
+                    SplittableRandom r = rng(7, i);
+                    boolean past = (i & 1) == 0;
+                    long when = past ? now - 1 - (long) (r.nextDouble() * spanMillis) : now + 60_000 + (long) (r.nextDouble() * 30 * 86_400_000L);
+                    bi.row(reservedBase + i, userId(r.nextInt(users)), "reserved " + i + " #tag" + zipfRank(r, TAG_VOCAB), new Timestamp(when), past);
+                }
+                return bi.rows;
+            }
+        });
+
+        pool.shutdown();
+        System.out.printf("DataGenerator: done in %.1fs%n", (System.nanoTime() - t0) / 1e9);
+    }
+
+    /* ========= 분포 ========= */
+
+    private SplittableRandom rng(int stream, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + id);
+    }
+
+    /**
+     * Zipf(지수 zipf) 근사 표본: 0이 가장 흔하다. 연속 근사의 역CDF라 메모리 O(1).
+     */
+    private int zipfRank(SplittableRandom r, int n) {
+        double u = r.nextDouble();
+        double x;
+        if (Math.abs(zipf - 1.0) < 1e-9) {
+            x = Math.exp(u * Math.log(n + 1.0)) - 1.0;
+        } else {
+            double a = 1.0 - zipf;
+            x = Math.pow(u * (Math.pow(n + 1.0, a) - 1.0) + 1.0, 1.0 / a) - 1.0;
+        }
+        return Math.min(n - 1, (int) x);
+    }
+
+    // 평균 mean인 지수 분포에서 뽑은 개수(0 이상). 확률적 반올림으로 기대값을 mean에 맞춘다
+    private static int expCount(SplittableRandom r, double mean) {
+        if (mean <= 0) return 0;
+        return (int) (-mean * Math.log(1.0 - r.nextDouble()) + r.nextDouble());
+    }
+
+    // 사용자 f가 팔로우할 대상들(Zipf, 자기 자신/중복 없음). 두 번 호출해도 같은 결과
+    private int[] followTargets(int f) {
+        SplittableRandom r = rng(0, f);
+        int k = Math.min(users / 2, expCount(r, (double) follows / users));
+        Set<Integer> picked = new LinkedHashSet<>();
+        int tries = 0;
+        while (picked.size() < k && tries++ < k * 20) {
+            int t = zipfRank(r, users);
+            if (t != f) picked.add(t);
+        }
+        int[] out = new int[picked.size()];
+        int i = 0;
+        for (int t : picked) out[i++] = t;
+        return out;
+    }
+
+    // 글 p의 좋아요 수. post_like 단계도 같은 rng(2, p)로 시작하므로 posts.num_of_likes와 행 수가 일치한다
+    private int likeCount(int p) {
+        return likeCount(rng(2, p));
+    }
+
+    private int likeCount(SplittableRandom r) {
+        return Math.min(users / 2, expCount(r, posts == 0 ? 0 : (double) likes / posts));
+    }
+
+    // 댓글 좋아요 수(comment.num_of_likes와 comment_like 행 수 일치, rng(4, c)의 첫 표본)
+    private int commentLikeCount(SplittableRandom r) {
+        return Math.min(users / 2, expCount(r, comments == 0 ? 0 : (double) commentLikes / comments));
+    }
+
+    // 서로 다른 사용자 k명(균등)
+    private int[] distinctUsers(SplittableRandom r, int k) {
+        if (k <= 0) return new int[0];
+        Set<Integer> s = new LinkedHashSet<>();
+        while (s.size() < k) s.add(r.nextInt(users));
+        int[] out = new int[k];
+        int i = 0;
+        for (int u : s) out[i++] = u;
+        return out;
+    }
+
+    private String userId(int u) { return prefix + u; }
+
+    /* ========= 병렬 단계 실행 ========= */
+
+    private interface RangeTask {
+        long run(int from, int to, Connection con) throws SQLException;
+    }
+
+    private void phase(String name, int total, int chunk, RangeTask task) throws Exception {
+        if (total <= 0) return;
+        long t0 = System.nanoTime();
+        LongAdder rows = new LongAdder();
+        List<Future<?>> fs = new ArrayList<>();
+        for (int from = 0; from < total; from += chunk) {
+            int f = from, t = Math.min(total, from + chunk);
+            fs.add(pool.submit(() -> {
+                try (Connection con = DBConn.getConnection()) {
+                    rows.add(task.run(f, t, con));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : fs) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                for (Future<?> other : fs) other.cancel(true);
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        double sec = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("  %-14s %,12d rows  %6.1fs  %,10.0f rows/s%n", name, rows.sum(), sec, rows.sum() / Math.max(sec, 1e-9));
+    }
+
+    // out[i] = count(0) + ... + count(i-1), 합계가 int 범위를 넘으면 중단
+    private static int[] prefixSum(int n, java.util.function.IntUnaryOperator count) {
+        int[] out = new int[n + 1];
+        for (int i = 0; i < n; i++) out[i + 1] = Math.addExact(out[i], count.applyAsInt(i));
+        return out;
+    }
+
+    private static int maxId(Connection con, String table, String col) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + col + "), 0) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static int intOpt(Map<String, String> o, String key, int def) {
+        String v = o.get(key);
+        return v == null ? def : Integer.parseInt(v.replace("_", ""));
+    }
+
+    /* ========= 다중 행 INSERT 버퍼 ========= */
+
+    /**
+     * rowsPerStmt행이 모이면 "INSERT INTO t(cols) VALUES (...),(...),..." 한 문장으로 실행한다.
+     * 꽉 찬 문장은 PreparedStatement를 재사용하고, COMMIT_EVERY 문장마다 커밋. close()에서 나머지를 쓰고 커밋.
+     * parent가 있으면(post_tag → posts) 자기 행을 쓰기 전에 parent 버퍼부터 비워 FK 순서를 지킨다.
+     */
+    private final class BulkInsert implements AutoCloseable {
+        private static final int COMMIT_EVERY = 10;
+
+        private final Connection con;
+        private final BulkInsert parent;
+        private final String head;
+        private final int ncols;
+        private final Object[] buf;
+        private int buffered = 0, sinceCommit = 0;
+        private PreparedStatement full;
+        long rows = 0;   // row()로 받은 행 수(close()까지 모두 기록됨)
+
+        BulkInsert(Connection con, String table, String cols, int ncols) throws SQLException {
+            this(con, table, cols, ncols, null);
+        }
+
+        BulkInsert(Connection con, String table, String cols, int ncols, BulkInsert parent) throws SQLException {
+            this.con = con;
+            this.parent = parent;
+            this.head = "INSERT INTO " + table + " (" + cols + ") VALUES ";
+            this.ncols = ncols;
+            this.buf = new Object[rowsPerStmt * ncols];
+            con.setAutoCommit(false);
+        }
+
+        void row(Object... vals) throws SQLException {
+            System.arraycopy(vals, 0, buf, buffered * ncols, ncols);
+            rows++;
+            if (++buffered == rowsPerStmt) flush();
+        }
+
+        private void flush() throws SQLException {
+            if (buffered == 0) return;
+            if (parent != null) parent.flush();
+            PreparedStatement ps;
+            if (buffered == rowsPerStmt) {
+                if (full == null) full = con.prepareStatement(sql(rowsPerStmt));
+                ps = full;
+            } else {
+                ps = con.prepareStatement(sql(buffered));
+            }
+            try {
+                for (int i = 0; i < buffered * ncols; i++) ps.setObject(i + 1, buf[i]);
+                ps.executeUpdate();
+            } finally {
+                if (ps != full) ps.close();
+            }
+            buffered = 0;
+            if (++sinceCommit >= COMMIT_EVERY) {
+                con.commit();
+                sinceCommit = 0;
+            }
+        }
+
+        private String sql(int n) {
+            StringBuilder one = new StringBuilder("(");
+            for (int c = 0; c < ncols; c++) one.append(c == 0 ? "?" : ",?");
+            one.append(')');
+            StringJoiner j = new StringJoiner(",", head, "");
+            for (int i = 0; i < n; i++) j.add(one);
+            return j.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            con.commit();
+            if (full != null) full.close();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * 파일명: DbExecutor.java
+ * 목적: Swing 컴포넌트(좋아요/댓글/팔로우 클릭 등)에서 시작하는 DB 작업을 공용 실행기로 돌린다.
+ *       클릭마다 new Thread(...)로 이름 없는 플랫폼 스레드를 띄우던 방식을 대체한다.
+ *
+ * 동작 개요
+ * - submit(task, callback): task를 백그라운드에서 실행하고, 끝나면 callback(result, error)을 EDT에서 호출한다.
+ *     · 작업 스레드: 가상 스레드(JDK 21+) 실행기를 쓰고, 없으면(JDK 17 등) 이름 있는 데몬 스레드 고정 풀로 대체.
+ *     · DB 동시 실행 상한: 세마포어(maxConcurrent)로 제한 → 클릭이 몰려도 대기열에 쌓일 뿐 커넥션을 한꺼번에 빌리지 않는다.
+ *     · 작업별 타임아웃: 대기+실행 시간이 timeoutMs를 넘으면 작업을 인터럽트하고 callback에 TimeoutException을 넘긴다.
+ *     · 취소: 반환된 Future.cancel(true). 아직 시작 전이면 DB에 닿지 않고 버려지며, 취소된 작업은 callback을 부르지 않는다.
+ * - stream(task, chunkSize, onChunk, callback): 목록 조회용(SwingWorker의 publish/process와 같은 역할).
+ *     · task가 행을 매핑하는 대로 out.publish(item) → chunkSize개씩 모아 EDT에서 onChunk(묶음)를 부른다(마지막 자투리는 끝날 때).
+ *     · 화면은 첫 묶음부터 그리기 시작하고, 전체가 끝나면 callback(null, error)이 마지막 묶음 뒤에 온다(EDT 큐 순서).
+ *     · cancel(true) 이후에는 이미 EDT 큐에 들어간 묶음도 버리고, 작업 쪽 publish는 CancellationException으로 멈춘다.
+ *     · out.flush(): 작업이 화면 요청을 기다리며 멈추기 전에 덜 찬 묶음을 먼저 보낸다. timeoutMs를 받는 버전은 오래 도는 커서용.
+ * - stats(): 제출/완료/실패/타임아웃/취소/실행중/대기 건수.
+ *
+ * 설정
+ * - -Dtwitter.db.executor.maxConcurrent (기본 8, 커넥션 풀 max보다 작게 두어 다른 조회 경로 몫을 남긴다)
+ * - -Dtwitter.db.executor.timeoutMs (기본 10000)
+ * - -Dtwitter.ui.chunkSize (기본 5): 목록 화면들이 stream에 넘기는 묶음 크기(CHUNK_SIZE)
+ *
+ * 사용 예
+ *  DbExecutor.submit(() -> PostLike.likePost(postId, uid), (ok, err) -> { ... EDT에서 UI 갱신 ... });
+ */
+
+package myPackage;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DbExecutor {
+
+    /** 백그라운드에서 실행할 DB 작업 */
+    public interface DbTask<T> {
+        T call() throws Exception;
+    }
+
+    /** 완료 콜백(항상 EDT에서 호출). 성공이면 error == null */
+    public interface Callback<T> {
+        void done(T result, Exception error);
+    }
+
+    /** 결과를 조금씩 내보내는 백그라운드 작업(stream용) */
+    public interface StreamTask<V> {
+        void run(Sink<V> out) throws Exception;
+    }
+
+    /** StreamTask가 항목을 내보내는 곳 */
+    public interface Sink<V> {
+        void publish(V item);
+
+        /** 모아 둔 항목을 묶음이 덜 찼어도 지금 EDT로 보낸다(작업이 한동안 멈출 때) */
+        default void flush() {}
+    }
+
+    /** EDT에서 묶음 단위로 받는 쪽 */
+    public interface ChunkHandler<V> {
+        void accept(List<V> chunk);
+    }
+
+    public static final int  MAX_CONCURRENT = Math.max(1, Integer.getInteger("twitter.db.executor.maxConcurrent", 8));
+    public static final long DEFAULT_TIMEOUT_MS = Long.getLong("twitter.db.executor.timeoutMs", 10_000);
+    public static final int  CHUNK_SIZE = Math.max(1, Integer.getInteger("twitter.ui.chunkSize", 5));
+
+    private static final Semaphore dbPermits = new Semaphore(MAX_CONCURRENT, true);
+    private static final ExecutorService workers = createWorkers();
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-executor-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final LongAdder submitted = new LongAdder(), completed = new LongAdder(), failed = new LongAdder();
+    private static final LongAdder timedOut = new LongAdder(), cancelled = new LongAdder();
+    private static final AtomicInteger running = new AtomicInteger(), pending = new AtomicInteger();
+
+    /** 기본 타임아웃으로 제출 */
+    public static <T> Future<T> submit(DbTask<T> task, Callback<T> callback) {
+        return submit(task, DEFAULT_TIMEOUT_MS, callback);
+    }
+
+    /**
+     * task를 백그라운드에서 실행한다.
+     * @param timeoutMs 대기+실행 한도(0 이하이면 무제한)
+     * @param callback  완료/실패/타임아웃 시 EDT에서 호출(null 가능). cancel()로 취소한 경우는 호출하지 않는다.
+     */
+    public static <T> Future<T> submit(DbTask<T> task, long timeoutMs, Callback<T> callback) {
+        submitted.increment();
+        pending.incrementAndGet();
+        long deadline = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : 0;
+        DbFuture<T> f = new DbFuture<>(() -> runBounded(task, deadline, timeoutMs), callback);
+        if (timeoutMs > 0) {
+            f.timeout = timer.schedule(() -> {
+                f.expired = true;
+                f.cancel(true);
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        workers.execute(f);
+        return f;
+    }
+
+    /**
+     * task를 백그라운드에서 실행하면서, 내보낸 항목을 chunkSize개씩 EDT의 onChunk로 넘긴다.
+     * @param callback 모든 묶음을 넘긴 뒤 EDT에서 호출(null 가능). cancel()로 취소한 경우는 호출하지 않는다.
+     */
+    public static <V> Future<Void> stream(StreamTask<V> task, int chunkSize, ChunkHandler<V> onChunk, Callback<Void> callback) {
+        return stream(task, chunkSize, DEFAULT_TIMEOUT_MS, onChunk, callback);
+    }
+
+    /** stream + 작업별 타임아웃(0 이하이면 무제한: 화면 요청에 맞춰 오래 읽는 커서 등) */
+    public static <V> Future<Void> stream(StreamTask<V> task, int chunkSize, long timeoutMs,
+                                          ChunkHandler<V> onChunk, Callback<Void> callback) {
+        ChunkSink<V> sink = new ChunkSink<>(Math.max(1, chunkSize), onChunk);
+        Future<Void> f = submit(() -> {
+            task.run(sink);
+            sink.flush();
+            return null;
+        }, timeoutMs, callback);
+        sink.future = f;
+        return f;
+    }
+
+    /* ========= stream: 묶음을 EDT로 보내는 Sink ========= */
+    private static final class ChunkSink<V> implements Sink<V> {
+        private final int chunkSize;
+        private final ChunkHandler<V> onChunk;
+        private List<V> buf;
+        volatile Future<?> future; // 제출 직후 채워진다(그 전의 publish는 취소 검사 생략)
+
+        ChunkSink(int chunkSize, ChunkHandler<V> onChunk) {
+            this.chunkSize = chunkSize;
+            this.onChunk = onChunk;
+            this.buf = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void publish(V item) {
+            if (isCancelled()) throw new CancellationException("stream cancelled");
+            buf.add(item);
+            if (buf.size() >= chunkSize) flush();
+        }
+
+        @Override
+        public void flush() {
+            if (buf.isEmpty()) return;
+            final List<V> chunk = buf;
+            buf = new ArrayList<>(chunkSize);
+            SwingUtilities.invokeLater(() -> {
+                if (!isCancelled()) onChunk.accept(chunk);
+            });
+        }
+
+        private boolean isCancelled() {
+            Future<?> f = future;
+            return f != null && f.isCancelled();
+        }
+    }
+
+    /** 실행 현황 */
+    public static String stats() {
+        return String.format("[db-executor] running=%d queued=%d max=%d | submitted=%d completed=%d failed=%d timedOut=%d cancelled=%d",
+                running.get(), Math.max(0, pending.get() - running.get()), MAX_CONCURRENT, submitted.sum(),
+                completed.sum(), failed.sum(), timedOut.sum(), cancelled.sum());
+    }
+
+    // 세마포어로 DB 동시 실행 수 제한(남은 시간만큼만 자리 대기)
+    private static <T> T runBounded(DbTask<T> task, long deadline, long timeoutMs) throws Exception {
+        if (deadline == 0) {
+            dbPermits.acquire();
+        } else if (!dbPermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("DB task waited more than " + timeoutMs + "ms for a slot");
+        }
+        running.incrementAndGet();
+        try {
+            return task.call();
+        } finally {
+            running.decrementAndGet();
+            dbPermits.release();
+        }
+    }
+
+    /* ========= 완료 시 EDT 콜백을 보내는 Future ========= */
+    private static final class DbFuture<T> extends FutureTask<T> {
+        private final Callback<T> callback;
+        volatile ScheduledFuture<?> timeout;
+        volatile boolean expired;   // 타임아웃 타이머가 취소했는지
+
+        DbFuture(Callable<T> c, Callback<T> callback) {
+            super(c);
+            this.callback = callback;
+        }
+
+        @Override
+        protected void done() {
+            pending.decrementAndGet();
+            ScheduledFuture<?> t = timeout;
+            if (t != null) t.cancel(false);
+
+            T result = null;
+            Exception error = null;
+            try {
+                result = get();
+                completed.increment();
+            } catch (CancellationException ce) {
+                if (!expired) { cancelled.increment(); return; } // 호출측 취소 → 콜백 없음
+                timedOut.increment();
+                error = new TimeoutException("DB task timed out");
+            } catch (ExecutionException ee) {
+                Throwable cause = ee.getCause();
+                if (cause instanceof TimeoutException) timedOut.increment(); else failed.increment();
+                error = (cause instanceof Exception) ? (Exception) cause : ee;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (callback == null) {
+                if (error != null) error.printStackTrace();
+                return;
+            }
+            final T r = result;
+            final Exception e = error;
+            SwingUtilities.invokeLater(() -> callback.done(r, e));
+        }
+    }
+
+    /* ========= 작업 스레드 ========= */
+    private static ExecutorService createWorkers() {
+        // JDK 21+: 작업당 가상 스레드(대기 비용이 거의 없음). 컴파일 대상이 17이라 리플렉션으로 찾는다.
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // JDK 17 이하: 세마포어 상한과 같은 수의 데몬 스레드 + 무제한 대기열(대기 작업은 큐 원소일 뿐)
+            AtomicInteger seq = new AtomicInteger();
+            return Executors.newFixedThreadPool(MAX_CONCURRENT, r -> {
+                Thread t = new Thread(r, "db-worker-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * 파일명: EngagementEvents.java
+ * 목적: 커밋된 참여(글 좋아요, 댓글, 새 글) 이벤트를 같은 프로세스 안의 구독자에게 알리는 작은 이벤트 버스.
+ *
+ * 발행 지점(모두 커밋 후)
+ * - PostLike.likePost 성공      → postLiked(postId)
+ * - Comment.write 성공          → commented(postId)
+ * - TimelineFanout.published    → published(postId, writer)
+ *
+ * 구독
+ * - subscribe(listener): 발행한 스레드(DB 작업 스레드)에서 바로 호출된다. 구독자는 짧게 처리하고 스레드 안전해야 한다
+ *   (UI 갱신이 필요하면 SwingUtilities.invokeLater로 넘긴다). 한 구독자의 예외는 다른 구독자에게 영향을 주지 않는다.
+ * - 예: FeedRanker(인기순 점수 갱신)
+ *
+ * 통계
+ * - stats(): 종류별 발행 수, 구독자 수
+ */
+
+package myPackage;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EngagementEvents {
+
+    public enum Kind { POST_LIKED, COMMENTED, PUBLISHED }
+
+    /** 이벤트 구독자. userId는 PUBLISHED의 작성자(그 밖에는 null) */
+    public interface Listener {
+        void onEvent(Kind kind, int postId, String userId);
+    }
+
+    private static final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static final LongAdder likes = new LongAdder(), comments = new LongAdder(), posts = new LongAdder();
+
+    public static void subscribe(Listener l) {
+        listeners.addIfAbsent(l);
+    }
+
+    public static void unsubscribe(Listener l) {
+        listeners.remove(l);
+    }
+
+    static void postLiked(int postId) {
+        likes.increment();
+        fire(Kind.POST_LIKED, postId, null);
+    }
+
+    static void commented(int postId) {
+        comments.increment();
+        fire(Kind.COMMENTED, postId, null);
+    }
+
+    static void published(int postId, String writer) {
+        posts.increment();
+        fire(Kind.PUBLISHED, postId, writer);
+    }
+
+    private static void fire(Kind kind, int postId, String userId) {
+        for (Listener l : listeners) {
+            try {
+                l.onEvent(kind, postId, userId);
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // 발행한 쓰기는 이미 커밋됨 → 구독자 오류는 로그만
+            }
+        }
+    }
+
+    public static String stats() {
+        return String.format("[engagement-events] postLiked=%d commented=%d published=%d listeners=%d",
+                likes.sum(), comments.sum(), posts.sum(), listeners.size());
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * 파일명: EngagementWriter.java
+ * 목적: 좋아요/댓글 좋아요/댓글/팔로우 같은 "참여(engagement)" 쓰기를 그룹 커밋으로 처리한다.
+ *       클릭 하나마다 커넥션 하나·트랜잭션(커밋=fsync) 하나를 쓰던 방식 대신,
+ *       여러 사용자의 쓰기를 몇 ms 동안 모아 한 트랜잭션으로 커밋한다.
+ *
+ * 동작 개요
+ * - postLike/commentLike/comment/follow/unfollow(...): 요청을 제한된 크기의 큐에 넣고 CompletableFuture<Boolean>를 돌려준다.
+ *     · future는 해당 쓰기가 커밋(영속화)된 뒤 완료된다. 값은 "변화가 있었는지"(중복 좋아요/팔로우면 false).
+ *     · 큐가 가득 차면 enqueueTimeoutMs 동안 기다리고, 그래도 자리가 없으면 SQLException으로 완료(배압).
+ * - 드레인 스레드(engagement-writer): 첫 요청이 오면 lingerMs 동안(또는 maxBatch개가 찰 때까지) 더 모은 뒤
+ *   TxExecutor 트랜잭션 하나로 반영한다.
+ *     · 게시글/댓글 좋아요: 배치 내 중복 제거 → 기존 좋아요를 (id, liker) IN (...) 한 번으로 조회
+ *       → 나머지를 다중 행 INSERT IGNORE 한 번으로 입력 → 대상별 num_of_likes += 건수
+ *       → 작성자별 경험치를 합산해 한 번씩 부여
+ *     · 댓글: 다중 행 INSERT 한 번
+ *     · 팔로우/언팔로우: 순서가 의미 있으므로 요청 순서대로 Follow.applyFollow/applyUnfollow
+ * - 배치 트랜잭션이 실패하면(데드락 재시도 소진, 제약 위반 등) 롤백 후 요청을 하나씩 개별 트랜잭션으로 다시 실행한다.
+ *   → 잘못된 요청 하나가 같은 배치의 다른 사용자 쓰기를 실패시키지 않는다.
+ *
+ * 설정
+ * - -Dtwitter.engagement.mode=direct(기본) | group
+ *     direct: PostLike/CommentLike/Comment/Follow가 지금처럼 요청마다 트랜잭션을 연다
+ *     group : 위 클래스들이 이 파이프라인에 넣고 커밋될 때까지 기다린다
+ * - -Dtwitter.engagement.queueCapacity (기본 10000), .lingerMs (기본 5), .maxBatch (기본 256),
+ *   .enqueueTimeoutMs (기본 1000), .awaitTimeoutMs (기본 10000)
+ *
+ * 통계
+ * - stats(): 배치 수/요청 수/평균 배치 크기/개별 재실행 횟수/큐 길이, 배치 커밋 소요시간(p50/p99)
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EngagementWriter {
+
+    public static final boolean ENABLED = "group".equalsIgnoreCase(System.getProperty("twitter.engagement.mode", "direct"));
+
+    private static final int  QUEUE_CAPACITY     = Integer.getInteger("twitter.engagement.queueCapacity", 10_000);
+    private static final long LINGER_MS          = Long.getLong("twitter.engagement.lingerMs", 5);
+    private static final int  MAX_BATCH          = Math.max(1, Integer.getInteger("twitter.engagement.maxBatch", 256));
+    private static final long ENQUEUE_TIMEOUT_MS = Long.getLong("twitter.engagement.enqueueTimeoutMs", 1_000);
+    private static final long AWAIT_TIMEOUT_MS   = Long.getLong("twitter.engagement.awaitTimeoutMs", 10_000);
+
+    private enum Kind { POST_LIKE, COMMENT_LIKE, COMMENT, FOLLOW, UNFOLLOW }
+
+    // 큐에 쌓이는 쓰기 요청 하나
+    private static final class Op {
+        final Kind kind;
+        final int id;            // postId / commentId (팔로우류는 0)
+        final String user;       // liker / 댓글 작성자 / follower
+        final String arg;        // 댓글 내용 / 팔로우 대상
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Op(Kind kind, int id, String user, String arg) {
+            this.kind = kind; this.id = id; this.user = user; this.arg = arg;
+        }
+    }
+
+    private static final BlockingQueue<Op> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static volatile Thread drainer;
+
+    private static final LongAdder batches = new LongAdder(), ops = new LongAdder(), fallbacks = new LongAdder();
+    private static final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    /* ========= 요청 ========= */
+
+    public static CompletableFuture<Boolean> postLike(int postId, String liker) {
+        return enqueue(new Op(Kind.POST_LIKE, postId, liker, null));
+    }
+
+    public static CompletableFuture<Boolean> commentLike(int commentId, String liker) {
+        return enqueue(new Op(Kind.COMMENT_LIKE, commentId, liker, null));
+    }
+
+    public static CompletableFuture<Boolean> comment(int postId, String writer, String content) {
+        return enqueue(new Op(Kind.COMMENT, postId, writer, content));
+    }
+
+    public static CompletableFuture<Boolean> follow(String follower, String target) {
+        return enqueue(new Op(Kind.FOLLOW, 0, follower, target));
+    }
+
+    public static CompletableFuture<Boolean> unfollow(String follower, String target) {
+        return enqueue(new Op(Kind.UNFOLLOW, 0, follower, target));
+    }
+
+    /** 동기 호출측용: 커밋될 때까지 기다렸다가 결과 반환(실패는 SQLException으로) */
+    public static boolean await(CompletableFuture<Boolean> f) throws SQLException {
+        try {
+            return f.get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            throw c instanceof SQLException ? (SQLException) c : new SQLException(c);
+        } catch (TimeoutException e) {
+            throw new SQLException("Engagement write not committed within " + AWAIT_TIMEOUT_MS + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for engagement write", e);
+        }
+    }
+
+    public static String stats() {
+        long b = batches.sum(), n = ops.sum();
+        return String.format("[engagement %s] batches=%d ops=%d avgBatch=%.1f fallbacks=%d queued=%d | flush p50=%dus p99=%dus",
+                ENABLED ? "group" : "direct", b, n, b == 0 ? 0.0 : (double) n / b, fallbacks.sum(), queue.size(),
+                flushLatency.percentile(50), flushLatency.percentile(99));
+    }
+
+    private static CompletableFuture<Boolean> enqueue(Op op) {
+        ensureDrainer();
+        try {
+            if (!queue.offer(op, ENQUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                op.future.completeExceptionally(new SQLException("Engagement write queue is full (" + QUEUE_CAPACITY + ")"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            op.future.completeExceptionally(new SQLException("Interrupted while enqueueing engagement write", e));
+        }
+        return op.future;
+    }
+
+    private static void ensureDrainer() {
+        if (drainer != null) return;
+        synchronized (EngagementWriter.class) {
+            if (drainer != null) return;
+            Thread t = new Thread(EngagementWriter::drainLoop, "engagement-writer");
+            t.setDaemon(true);
+            t.start();
+            // 종료 시 큐에 남은 요청을 마저 커밋
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                List<Op> rest = new ArrayList<>();
+                queue.drainTo(rest);
+                if (!rest.isEmpty()) flush(rest);
+            }, "engagement-writer-shutdown"));
+            drainer = t;
+        }
+    }
+
+    /* ========= 드레인 ========= */
+
+    private static void drainLoop() {
+        List<Op> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                // 첫 요청 이후 lingerMs 동안 더 모은다(또는 maxBatch까지)
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MS);
+                while (batch.size() < MAX_BATCH) {
+                    queue.drainTo(batch, MAX_BATCH - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= MAX_BATCH || left <= 0) break;
+                    Op next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                // 드레인 스레드는 죽지 않는다: 남은 future를 실패로 완료
+                for (Op op : batch) op.future.completeExceptionally(t);
+                t.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void flush(List<Op> batch) {
+        long t0 = System.nanoTime();
+        batches.increment();
+        ops.add(batch.size());
+        try {
+            boolean[] results = TxExecutor.inTransaction("engagement_group_commit", con -> applyBatch(con, batch));
+            for (int i = 0; i < batch.size(); i++) batch.get(i).future.complete(results[i]);
+        } catch (SQLException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+            } else {
+                // 배치 전체가 롤백됨 → 요청별 개별 트랜잭션으로 재실행해 실패를 해당 요청에만 국한
+                fallbacks.increment();
+                for (Op op : batch) {
+                    try {
+                        op.future.complete(TxExecutor.inTransaction("engagement_single", con -> applyOne(con, op)));
+                    } catch (SQLException one) {
+                        op.future.completeExceptionally(one);
+                    }
+                }
+            }
+        } finally {
+            flushLatency.recordNanos(System.nanoTime() - t0);
+        }
+    }
+
+    /* ========= 배치 반영(한 트랜잭션 안) ========= */
+
+    private static boolean[] applyBatch(Connection con, List<Op> batch) throws SQLException {
+        boolean[] results = new boolean[batch.size()];
+        Map<Kind, List<Integer>> byKind = new EnumMap<>(Kind.class);
+        for (int i = 0; i < batch.size(); i++) {
+            byKind.computeIfAbsent(batch.get(i).kind, k -> new ArrayList<>()).add(i);
+        }
+
+        applyLikes(con, batch, byKind.get(Kind.POST_LIKE), results,
+                "post_like", "post_id", "posts", "post_id", 10);
+        applyLikes(con, batch, byKind.get(Kind.COMMENT_LIKE), results,
+                "comment_like", "comment_id", "comment", "comment_id", 5);
+        applyComments(con, batch, byKind.get(Kind.COMMENT), results);
+
+        // 팔로우/언팔로우는 같은 쌍에 대해 순서가 의미 있으므로 요청 순서대로
+        for (int i = 0; i < batch.size(); i++) {
+            Op op = batch.get(i);
+            if (op.kind == Kind.FOLLOW || op.kind == Kind.UNFOLLOW) results[i] = applyOne(con, op);
+        }
+        return results;
+    }
+
+    // 요청 하나를 기존 단건 로직으로 반영(팔로우류, 배치 실패 후 개별 재실행)
+    private static boolean applyOne(Connection con, Op op) throws SQLException {
+        switch (op.kind) {
+            case POST_LIKE:    return PostLike.applyLike(con, op.id, op.user);
+            case COMMENT_LIKE: return CommentLike.applyLike(con, op.id, op.user);
+            case COMMENT:      Comment.insert(con, op.id, op.user, op.arg); return true;
+            case FOLLOW:       return Follow.applyFollow(con, op.user, op.arg);
+            case UNFOLLOW:     return Follow.applyUnfollow(con, op.user, op.arg);
+            default: throw new IllegalStateException(op.kind.toString());
+        }
+    }
+
+    /**
+     * 좋아요류 배치 반영.
+     * @param likeTable   post_like / comment_like
+     * @param idCol       post_id / comment_id
+     * @param parentTable 작성자를 찾을 테이블(posts / comment)
+     * @param exp         좋아요 1건당 작성자 경험치
+     */
+    private static void applyLikes(Connection con, List<Op> batch, List<Integer> idx, boolean[] results,
+                                   String likeTable, String idCol, String parentTable, String parentIdCol,
+                                   int exp) throws SQLException {
+        if (idx == null) return;
+
+        // 1) 배치 안 중복 제거(같은 사람이 같은 대상에 두 번 → 두 번째는 false)
+        Map<String, Integer> firstByKey = new LinkedHashMap<>();
+        for (int i : idx) {
+            Op op = batch.get(i);
+            firstByKey.putIfAbsent(op.id + "\u0000" + op.user, i);
+        }
+        List<Integer> candidates = new ArrayList<>(firstByKey.values());
+
+        // 2) 이미 눌러 둔 좋아요 조회: (id, liker) IN ((?,?), ...)
+        Set<String> existing = new HashSet<>();
+        String sel = "SELECT " + idCol + ", liker_id FROM " + likeTable
+                + " WHERE (" + idCol + ", liker_id) IN (" + placeholders("(?,?)", candidates.size()) + ")";
+        try (PreparedStatement ps = con.prepareStatement(sel)) {
+            int p = 1;
+            for (int i : candidates) {
+                ps.setInt(p++, batch.get(i).id);
+                ps.setString(p++, batch.get(i).user);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) existing.add(rs.getInt(1) + "\u0000" + rs.getString(2));
+            }
+        }
+        List<Integer> fresh = new ArrayList<>();
+        for (int i : candidates) {
+            if (!existing.contains(batch.get(i).id + "\u0000" + batch.get(i).user)) fresh.add(i);
+        }
+        if (fresh.isEmpty()) return;
+
+        // 3) 새 좋아요를 다중 행 INSERT 한 번으로
+        String ins = "INSERT IGNORE INTO " + likeTable + "(" + idCol + ", liker_id) VALUES "
+                + placeholders("(?,?)", fresh.size());
+        try (PreparedStatement ps = con.prepareStatement(ins)) {
+            int p = 1;
+            for (int i : fresh) {
+                ps.setInt(p++, batch.get(i).id);
+                ps.setString(p++, batch.get(i).user);
+            }
+            int inserted = ps.executeUpdate();
+            if (inserted != fresh.size()) {
+                // 동시 입력/존재하지 않는 대상 등 → 어떤 행인지 구분할 수 없으므로 개별 재실행으로 넘긴다
+                throw new SQLException("group insert into " + likeTable + " affected " + inserted + "/" + fresh.size());
+            }
+        }
+        for (int i : fresh) results[i] = true;
+
+        // 4) 대상별 좋아요 수 컬럼(num_of_likes) += 건수, id 순서로 잠금
+        Map<Integer, Integer> countById = new TreeMap<>();
+        for (int i : fresh) countById.merge(batch.get(i).id, 1, Integer::sum);
+        try (PreparedStatement ps = con.prepareStatement(
+                "UPDATE " + parentTable + " SET num_of_likes = num_of_likes + ? WHERE " + parentIdCol + " = ?")) {
+            for (Map.Entry<Integer, Integer> e : countById.entrySet()) {
+                ps.setInt(1, e.getValue());
+                ps.setInt(2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        // 5) 작성자별 경험치 합산 → 작성자당 한 번씩(user_id 순서로 잠금)
+        Map<String, Integer> expByWriter = new TreeMap<>();
+        String writers = "SELECT " + parentIdCol + ", writer_id FROM " + parentTable
+                + " WHERE " + parentIdCol + " IN (" + placeholders("?", countById.size()) + ")";
+        try (PreparedStatement ps = con.prepareStatement(writers)) {
+            int p = 1;
+            for (int id : countById.keySet()) ps.setInt(p++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    expByWriter.merge(rs.getString(2), exp * countById.get(rs.getInt(1)), Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> e : expByWriter.entrySet()) {
+            LevelAdmin.info(con, e.getKey(), e.getValue());
+        }
+    }
+
+    // 댓글 배치 반영: 다중 행 INSERT 한 번
+    private static void applyComments(Connection con, List<Op> batch, List<Integer> idx, boolean[] results)
+            throws SQLException {
+        if (idx == null) return;
+        String ins = "INSERT INTO comment(content, writer_id, post_id) VALUES " + placeholders("(?,?,?)", idx.size());
+        try (PreparedStatement ps = con.prepareStatement(ins)) {
+            int p = 1;
+            for (int i : idx) {
+                Op op = batch.get(i);
+                ps.setString(p++, op.arg);
+                ps.setString(p++, op.user);
+                ps.setInt(p++, op.id);
+            }
+            ps.executeUpdate();
+        }
+        // posts.comment_count: 글별로 모아 한 번씩(같은 배치 트랜잭션)
+        Map<Integer, Integer> perPost = new TreeMap<>(); // 글 순서로 잠가 배치끼리 교착 방지
+        for (int i : idx) perPost.merge(batch.get(i).id, 1, Integer::sum);
+        for (Map.Entry<Integer, Integer> e : perPost.entrySet()) Comment.addToCount(con, e.getKey(), e.getValue());
+        for (int i : idx) results[i] = true;
+    }
+
+    private static String placeholders(String one, int n) {
+        StringJoiner j = new StringJoiner(",");
+        for (int i = 0; i < n; i++) j.add(one);
+        return j.toString();
+    }
+}
@@ -7,14 +7,17 @@
  *
  * 핵심 구성:
  *  1) PostViewDTO 인터페이스
- *     - 화면/쿼리마다 DTO 구조가 조금씩 달라도, 아래 5개 필드만 가지면
+ *     - 화면/쿼리마다 DTO 구조가 조금씩 달라도, 아래 6개 필드만 가지면
  *       어디서 온 DTO든 카드 생성에 재사용할 수 있도록 하는 최소 공통 인터페이스입니다.
- *       (postId, writerId, content, likeCount, createdAt)
+ *       (postId, writerId, content, likeCount, createdAt, commentCount)
  *
- *  2) createPostCard(TwitterApp, PostViewDTO)
+ *  2) createPostCard(TwitterApp, PostViewDTO, liked)
  *     - 위 인터페이스를 만족하는 DTO를 받아서 Swing 컴포넌트로 카드(게시글 한 장)를 구성합니다.
+ *     - liked(현재 사용자가 이미 좋아요했는지)는 호출측이 페이지 단위로 PostLikeDAO.likedPostIds(...) 한 번으로
+ *       구해서 넘깁니다. createPostCard(app, post)는 글 1개만 따로 조회하는 편의용입니다.
  *     - 카드 상단 헤더(작성자 • 작성시각), 본문, 하단 액션(좋아요/댓글 토글)로 이루어집니다.
  *     - 작성자 라벨을 클릭하면 해당 사용자의 보드를 엽니다(app.openPersonalBoard).
+ *     - onLiked 콜백을 받는 4-인자 버전은 PostListView(가상화 목록)의 편집기처럼 카드가 잠깐만 살아 있는 곳에서 씁니다.
  *
  *  3) 좋아요 처리
  *     - UI 즉시 반영(낙관적 업데이트) 후, 백그라운드에서 PostLike.likePost(...) 호출.
@@ -25,6 +28,10 @@
  *
  *  4) 댓글 영역(CommentArea 내부 클래스)
  *     - 해당 게시글의 댓글 목록을 조회/표시하고, 댓글 작성 및 댓글 좋아요를 처리합니다.
+ *     - 조회는 CommentRepository.page(백그라운드, 쿼리 한 번에 댓글+좋아요 수+좋아요 여부)로 최신 PAGE_SIZE개만 읽고,
+ *       [이전 댓글 보기]를 누르면 키셋으로 그보다 오래된 페이지를 위에 붙입니다. 다시 조회하거나 화면에서 빠지면 이전 조회는 취소.
+ *     - [Comments (N)]: N은 posts.comment_count(카드 DTO의 getCommentCount). 댓글을 달면 바로 +1.
+ *     - [Comments]를 처음 누를 때 만들고 조회합니다(카드 생성 시에는 조회 없음). 펼쳤던 스레드의 첫 페이지는 LRU(COMMENT_CACHE)로 다시 펼치면 바로 그림.
  *     - 댓글 작성/댓글 좋아요 성공 시에도 app.refreshPersonalBoardHeader(...)를 통해
  *       작성자 헤더 갱신 훅을 제공합니다(레벨/경험치 반영 시 즉시 UI 업데이트).
  *
@@ -37,8 +44,8 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.sql.*;
 import java.sql.Timestamp;   // ← 명시 import
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 public class FeedCardFactory {
 
@@ -50,11 +57,28 @@ public class FeedCardFactory {
         String getContent();
         int getLikeCount();
         Timestamp getCreatedAt();
+        int getCommentCount();
     }
 
-    /* ========= 단일 엔트리: 인터페이스만 받음 ========= */
-    // 위 인터페이스만 만족하면 어디서 온 DTO든 동일한 카드 UI를 생성 가능
+    // [Comments] 버튼 문구(댓글 수가 있으면 "Comments (N)")
+    static String commentsLabel(int count) {
+        return count > 0 ? "Comments (" + count + ")" : "Comments";
+    }
+
+    /* ========= 엔트리: 인터페이스만 받음 ========= */
+    // 좋아요 상태를 이 글 하나만 조회해서 카드 생성(목록 화면은 아래 3-인자 버전 사용)
     public static JPanel createPostCard(TwitterApp app, PostViewDTO post) {
+        return createPostCard(app, post, isPostLikedByUser(post.getPostId(), app.getCurrentUserId()));
+    }
+
+    // 위 인터페이스만 만족하면 어디서 온 DTO든 동일한 카드 UI를 생성 가능
+    // liked: 현재 사용자가 이미 좋아요한 글인지(호출측에서 페이지 단위로 일괄 조회)
+    public static JPanel createPostCard(TwitterApp app, PostViewDTO post, boolean liked) {
+        return createPostCard(app, post, liked, null);
+    }
+
+    // onLiked: 좋아요가 커밋된 뒤 EDT에서 호출(목록 모델이 카드 밖에서 좋아요 상태를 기억할 때 사용, null 가능)
+    public static JPanel createPostCard(TwitterApp app, PostViewDTO post, boolean liked, Runnable onLiked) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(new Color(210,210,210)),
@@ -83,21 +107,19 @@ public class FeedCardFactory {
         // 하단: 좋아요 / 댓글 토글
         JLabel likeLabel = new JLabel("♥ " + post.getLikeCount());
         JButton likeBtn   = new JButton("Like");
-        JButton cmtToggle = new JButton("Comments");
+        JButton cmtToggle = new JButton(commentsLabel(post.getCommentCount()));
+        final int[] commentCount = { post.getCommentCount() }; // 이 카드에서 단 댓글만큼 +1
 
         // 현재 유저가 이미 좋아요한 글인지 여부(색으로 표시)
-        boolean initiallyLiked = isPostLikedByUser(post.getPostId(), app.getCurrentUserId());
-        if (initiallyLiked) likeLabel.setForeground(Color.RED);
+        if (liked) likeLabel.setForeground(Color.RED);
 
         JPanel actions = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
         actions.add(likeLabel);
         actions.add(likeBtn);
         actions.add(cmtToggle);
 
-        // 댓글 영역(초기에는 접어둠)
-        CommentArea cArea = new CommentArea(app, post.getPostId(), post.getWriterId());
+        // 댓글 영역(초기에는 접어둠): CommentArea는 처음 펼칠 때 만든다
         JPanel cWrap = new JPanel(new BorderLayout());
-        cWrap.add(cArea, BorderLayout.CENTER);
         cWrap.setVisible(false);
         cWrap.setBorder(BorderFactory.createMatteBorder(8, 0, 0, 0, new Color(245,245,245)));
 
@@ -118,31 +140,32 @@ public class FeedCardFactory {
             likeLabel.setText("♥ " + (prev+1));
             likeLabel.setForeground(Color.RED);
 
-            new Thread(() -> {
-                boolean ok=false; Exception err=null;
-                try { ok = PostLike.likePost(post.getPostId(), uid); } catch (Exception ex) { err=ex; }
-                final boolean okF = ok; final Exception errF = err;
-                SwingUtilities.invokeLater(() -> {
-                    if(!okF){
-                        // 실패 → 롤백
-                        likeLabel.setText("♥ " + prev);
-                        likeLabel.setForeground(UIManager.getColor("Label.foreground"));
-                        likeBtn.setEnabled(true);
-                        if(errF!=null){ errF.printStackTrace(); JOptionPane.showMessageDialog(card,"좋아요 실패","Error",JOptionPane.ERROR_MESSAGE); }
-                        else JOptionPane.showMessageDialog(card,"이미 좋아요한 글입니다.","알림",JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        likeBtn.setEnabled(true);
-                        // 성공 → 작성자 보드 상단(팔로워/레벨 등) 갱신 훅
-                        //  (레벨/EXP 시스템을 적용 중이면 이 호출로 즉시 UI에 반영 가능)
-                        app.refreshPersonalBoardHeader(post.getWriterId());
-                    }
-                });
-            }).start();
+            DbExecutor.submit(() -> PostLike.likePost(post.getPostId(), uid), (ok, errF) -> {
+                boolean okF = Boolean.TRUE.equals(ok);
+                if(!okF){
+                    // 실패 → 롤백
+                    likeLabel.setText("♥ " + prev);
+                    likeLabel.setForeground(UIManager.getColor("Label.foreground"));
+                    likeBtn.setEnabled(true);
+                    if(errF!=null){ errF.printStackTrace(); JOptionPane.showMessageDialog(card,"좋아요 실패","Error",JOptionPane.ERROR_MESSAGE); }
+                    else JOptionPane.showMessageDialog(card,"이미 좋아요한 글입니다.","알림",JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    likeBtn.setEnabled(true);
+                    if (onLiked != null) onLiked.run();
+                    // 성공 → 작성자 보드 상단(팔로워/레벨 등) 갱신 훅
+                    //  (레벨/EXP 시스템을 적용 중이면 이 호출로 즉시 UI에 반영 가능)
+                    app.refreshPersonalBoardHeader(post.getWriterId());
+                }
+            });
         });
 
         // 댓글 영역 토글(펼치기/접기)
         cmtToggle.addActionListener(e -> {
-            cWrap.setVisible(!cWrap.isVisible());
+            boolean vis = !cWrap.isVisible();
+            if (vis && cWrap.getComponentCount() == 0)
+                cWrap.add(new CommentArea(app, post.getPostId(), post.getWriterId(),
+                        () -> cmtToggle.setText(commentsLabel(++commentCount[0]))), BorderLayout.CENTER);
+            cWrap.setVisible(vis);
             card.revalidate(); card.repaint();
         });
 
@@ -155,32 +178,39 @@ public class FeedCardFactory {
         catch (Exception e) { return 0; }
     }
 
-    // 현재 사용자가 특정 글에 좋아요를 눌렀는지 여부 조회
+    // 현재 사용자가 특정 글에 좋아요를 눌렀는지 여부 조회(단건)
     private static boolean isPostLikedByUser(int postId, String userId) {
         if (userId == null || userId.isBlank()) return false;
-        String sql = "SELECT 1 FROM post_like WHERE post_id=? AND liker_id=? LIMIT 1";
-        try (Connection con = DBConn.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, postId);
-            ps.setString(2, userId);
-            try (ResultSet rs = ps.executeQuery()) { return rs.next(); }
+        try (Connection con = DBConn.getReadConnection()) {
+            return PostLikeDAO.likedPostIds(con, userId, List.of(postId)).contains(postId);
         } catch (SQLException e) { return false; }
     }
 
     /* ========= 댓글 영역 ========= */
+    // 최근에 펼친 댓글 스레드의 첫 페이지("postId:보는 사용자" → 댓글 페이지, -Dtwitter.comments.cacheSize 기본 32)
+    private static final LruCache<String, CommentRepository.Page> COMMENT_CACHE =
+            new LruCache<>("card-comments", Integer.getInteger("twitter.comments.cacheSize", 32));
+
+    static String commentCacheStats() { return COMMENT_CACHE.stats(); }
+
     // 단일 게시글의 댓글 목록/작성/댓글 좋아요를 담당하는 내부 패널
     private static class CommentArea extends JPanel {
         private final TwitterApp app;
         private final int postId;
         private final JPanel list = new JPanel();
+        private final JButton olderBtn = new JButton("이전 댓글 보기");
         private final JTextArea inputArea = new JTextArea(3, 20);
         private final JButton addBtn = new JButton("Comment");
         private final String postWriterId; // 댓글 등록/좋아요 성공 시 보드 헤더 갱신을 위한 대상 작성자
+        private final Runnable onCommented; // 댓글 등록 성공 시(카드의 댓글 수 +1)
+        private Future<?> pendingLoad;     // 진행 중 댓글 조회(EDT에서만 접근)
+        private int oldestId;              // 화면에 붙은 가장 오래된 댓글(다음 [이전 댓글]의 before)
 
-        CommentArea(TwitterApp app, int postId, String postWriterId) {
+        CommentArea(TwitterApp app, int postId, String postWriterId, Runnable onCommented) {
             this.app = app;
             this.postId = postId;
             this.postWriterId = postWriterId;
+            this.onCommented = onCommented;
 
             setLayout(new BorderLayout());
 
@@ -190,6 +220,10 @@ public class FeedCardFactory {
                     ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
             add(sp, BorderLayout.CENTER);
 
+            olderBtn.setVisible(false);
+            olderBtn.addActionListener(e -> loadOlder());
+            add(olderBtn, BorderLayout.NORTH);
+
             inputArea.setLineWrap(true); inputArea.setWrapStyleWord(true);
             JPanel input = new JPanel(new BorderLayout(6,6));
             input.add(new JScrollPane(inputArea), BorderLayout.CENTER);
@@ -206,7 +240,7 @@ public class FeedCardFactory {
             am.put("submit", new AbstractAction(){ @Override public void actionPerformed(java.awt.event.ActionEvent e){ submit(); }});
             am.put("newline", new AbstractAction(){ @Override public void actionPerformed(java.awt.event.ActionEvent e){ inputArea.insert("\n", inputArea.getCaretPosition()); }});
 
-            loadComments();
+            loadComments(true);
         }
 
         // 댓글 등록 처리(낙관적 UI는 사용하지 않고 등록 후 재조회)
@@ -219,42 +253,103 @@ public class FeedCardFactory {
                 return;
             }
             addBtn.setEnabled(false);
-            new Thread(() -> {
-                Exception err=null;
-                try { Comment.write(postId, uid, text); }
-                catch (Exception ex){ err=ex; }
-                final Exception ef = err;
-                SwingUtilities.invokeLater(() -> {
-                    addBtn.setEnabled(true);
-                    if(ef!=null){
-                        ef.printStackTrace();
-                        JOptionPane.showMessageDialog(this, "댓글 등록 실패", "Error", JOptionPane.ERROR_MESSAGE);
-                    } else {
-                        inputArea.setText("");
-                        loadComments();
-                        // 댓글을 받은 '게시글 작성자' 보드 상단 갱신(레벨/EXP 반영용 훅)
-                        app.refreshPersonalBoardHeader(postWriterId);
-                    }
-                });
-            }).start();
+            DbExecutor.submit(() -> { Comment.write(postId, uid, text); return null; }, (r, ef) -> {
+                addBtn.setEnabled(true);
+                if(ef!=null){
+                    ef.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "댓글 등록 실패", "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    inputArea.setText("");
+                    if (onCommented != null) onCommented.run();
+                    loadComments(false); // 새 댓글 포함해 다시 조회(캐시 갱신)
+                    // 댓글을 받은 '게시글 작성자' 보드 상단 갱신(레벨/EXP 반영용 훅)
+                    app.refreshPersonalBoardHeader(postWriterId);
+                }
+            });
         }
 
-        // 댓글 목록 재조회
-        private void loadComments() {
+        // 최신 댓글 한 페이지 재조회(댓글+좋아요 수+좋아요 여부를 백그라운드에서 쿼리 한 번, 이전 조회는 취소)
+        // useCache면 최근에 펼쳤던 스레드의 첫 페이지(COMMENT_CACHE)를 조회 없이 바로 그림
+        private void loadComments(boolean useCache) {
+            if (pendingLoad != null) pendingLoad.cancel(true);
             list.removeAll();
-            try (Connection con = DBConn.getConnection()) {
-                for (CommentRow r : selectComments(con, postId)) {
+            olderBtn.setVisible(false);
+            final String uid = app.getCurrentUserId();
+            final String key = postId + ":" + uid;
+            CommentRepository.Page cached = useCache ? COMMENT_CACHE.get(key) : null;
+            if (cached != null) {
+                showPage(cached, false);
+                return;
+            }
+            JLabel placeholder = new JLabel("댓글 불러오는 중…");
+            list.add(placeholder);
+            list.revalidate(); list.repaint();
+            pendingLoad = DbExecutor.submit(() -> {
+                try (Connection con = DBConn.getReadConnection()) {
+                    return CommentRepository.page(con, postId, uid, 0, CommentRepository.PAGE_SIZE);
+                }
+            }, (page, err) -> {
+                pendingLoad = null;
+                list.remove(placeholder);
+                if (err != null) {
+                    list.add(new JLabel("댓글을 불러오지 못했습니다."));
+                    list.revalidate(); list.repaint();
+                    return;
+                }
+                COMMENT_CACHE.put(key, page);
+                showPage(page, false);
+            });
+        }
+
+        // [이전 댓글 보기]: 화면의 가장 오래된 댓글보다 오래된 한 페이지를 맨 위에 붙임
+        private void loadOlder() {
+            if (pendingLoad != null) return;
+            olderBtn.setEnabled(false);
+            final String uid = app.getCurrentUserId();
+            final int before = oldestId;
+            pendingLoad = DbExecutor.submit(() -> {
+                try (Connection con = DBConn.getReadConnection()) {
+                    return CommentRepository.page(con, postId, uid, before, CommentRepository.PAGE_SIZE);
+                }
+            }, (page, err) -> {
+                pendingLoad = null;
+                olderBtn.setEnabled(true);
+                if (err != null) {
+                    err.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "이전 댓글을 불러오지 못했습니다.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showPage(page, true);
+            });
+        }
+
+        // 페이지의 행을 목록 끝(첫 페이지) 또는 맨 위(이전 페이지)에 붙임
+        private void showPage(CommentRepository.Page page, boolean prepend) {
+            int at = 0;
+            for (CommentRepository.CommentRow r : page.rows) {
+                if (prepend) {
+                    list.add(buildRow(r), at++);
+                    list.add(new JSeparator(), at++);
+                } else {
                     list.add(buildRow(r));
                     list.add(new JSeparator());
                 }
-            } catch (Exception e) {
-                list.add(new JLabel("댓글을 불러오지 못했습니다."));
             }
+            if (!page.rows.isEmpty() || !prepend) oldestId = page.oldestId();
+            olderBtn.setVisible(page.hasOlder);
             list.revalidate(); list.repaint();
+            revalidate();
+        }
+
+        // 화면에서 빠지면(보드/검색 화면 전환 등) 진행 중 조회 취소
+        @Override public void removeNotify() {
+            super.removeNotify();
+            if (pendingLoad != null) pendingLoad.cancel(true);
+            pendingLoad = null;
         }
 
         // 단일 댓글 행 UI + 좋아요 처리
-        private JPanel buildRow(CommentRow c) {
+        private JPanel buildRow(CommentRepository.CommentRow c) {
             JPanel row = new JPanel(new BorderLayout());
             row.setBorder(new EmptyBorder(4,4,4,4));
             JLabel left = new JLabel("<html><b>" + c.writerId + "</b> : " +
@@ -264,8 +359,7 @@ public class FeedCardFactory {
             JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
             JLabel like = new JLabel("♥ " + c.likes);
             JButton likeBtn = new JButton("Like");
-            if (isCommentLikedByUser(c.commentId, app.getCurrentUserId()))
-                like.setForeground(Color.RED);
+            if (c.liked) like.setForeground(Color.RED); // 여부는 페이지 조회에서 함께 채움
             right.add(like); right.add(likeBtn);
             row.add(right, BorderLayout.EAST);
 
@@ -279,88 +373,36 @@ public class FeedCardFactory {
                 likeBtn.setEnabled(false);
                 int prev = c.likes; like.setText("♥ " + (prev+1)); like.setForeground(Color.RED);
 
-                new Thread(() -> {
-                    boolean ok=false; Exception err=null;
-                    try { ok = CommentLike.likeComment(c.commentId, uid); } catch (Exception ex){ err=ex; }
-                    final boolean okF=ok; final Exception errF=err;
-                    SwingUtilities.invokeLater(() -> {
-                        if(!okF){
-                            like.setText("♥ " + prev);
-                            like.setForeground(UIManager.getColor("Label.foreground"));
-                            likeBtn.setEnabled(true);
-                            if(errF!=null){
-                                errF.printStackTrace();
-                                JOptionPane.showMessageDialog(this, "댓글 좋아요 실패", "Error", JOptionPane.ERROR_MESSAGE);
-                            } else {
-                                JOptionPane.showMessageDialog(this, "이미 좋아요한 댓글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
-                            }
+                DbExecutor.submit(() -> CommentLike.likeComment(c.commentId, uid), (ok, errF) -> {
+                    boolean okF = Boolean.TRUE.equals(ok);
+                    if(!okF){
+                        like.setText("♥ " + prev);
+                        like.setForeground(UIManager.getColor("Label.foreground"));
+                        likeBtn.setEnabled(true);
+                        if(errF!=null){
+                            errF.printStackTrace();
+                            JOptionPane.showMessageDialog(this, "댓글 좋아요 실패", "Error", JOptionPane.ERROR_MESSAGE);
                         } else {
-                            likeBtn.setEnabled(true);
-                            // 댓글 작성자 보드 상단 갱신(레벨/EXP 반영 시 즉시 보이도록)
-                            app.refreshPersonalBoardHeader(c.writerId);
+                            JOptionPane.showMessageDialog(this, "이미 좋아요한 댓글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
                         }
-                    });
-                }).start();
+                    } else {
+                        likeBtn.setEnabled(true);
+                        c.likes = prev + 1; // 캐시된 페이지도 같은 행이라 다시 펼쳐도 유지
+                        c.liked = true;
+                        // 댓글 작성자 보드 상단 갱신(레벨/EXP 반영 시 즉시 보이도록)
+                        app.refreshPersonalBoardHeader(c.writerId);
+                    }
+                });
             });
 
             return row;
         }
 
-        /* ---- DB helpers ---- */
-        // 댓글 목록 조회(좋아요 수 포함)
-        private static List<CommentRow> selectComments(Connection con, int postId) throws SQLException {
-            String sql = """
-                SELECT c.comment_id,
-                       c.writer_id,
-                       c.content,
-                       (SELECT COUNT(*) FROM comment_like cl WHERE cl.comment_id=c.comment_id) AS like_cnt,
-                       c.created_at
-                FROM comment c
-                WHERE c.post_id=?
-                ORDER BY c.comment_id ASC
-            """;
-            List<CommentRow> list = new ArrayList<>();
-            try (PreparedStatement ps = con.prepareStatement(sql)) {
-                ps.setInt(1, postId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        list.add(new CommentRow(
-                                rs.getInt("comment_id"),
-                                rs.getString("writer_id"),
-                                rs.getString("content"),
-                                rs.getInt("like_cnt"),
-                                rs.getTimestamp("created_at")
-                        ));
-                    }
-                }
-            }
-            return list;
-        }
-
-        // 현재 사용자가 특정 댓글을 좋아요했는지 여부
-        private static boolean isCommentLikedByUser(int cId, String userId) {
-            if (userId == null || userId.isBlank()) return false;
-            String sql = "SELECT 1 FROM comment_like WHERE comment_id=? AND liker_id=? LIMIT 1";
-            try (Connection con = DBConn.getConnection();
-                 PreparedStatement ps = con.prepareStatement(sql)) {
-                ps.setInt(1, cId); ps.setString(2, userId);
-                try (ResultSet rs = ps.executeQuery()) { return rs.next(); }
-            } catch (SQLException e) { return false; }
-        }
-
         // HTML 이스케이프(간단)
         private static String escape(String s){
             return s==null? "" : s.replace("&","&amp;")
                                   .replace("<","&lt;")
                                   .replace(">","&gt;");
         }
-
-        // 댓글 1개 데이터 보관용 로컬 DTO
-        private static class CommentRow {
-            final int commentId; final String writerId; final String content; final int likes; final Timestamp createdAt;
-            CommentRow(int id, String w, String c, int l, Timestamp t){
-                commentId=id; writerId=w; content=c; likes=l; createdAt=t;
-            }
-        }
     }
 }
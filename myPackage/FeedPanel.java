@@ -3,31 +3,74 @@
  * 목적: 메인 타임라인(피드) 화면을 담당하는 Swing 패널.
  *
  * 개요
- * - 로그인한 사용자가 보는 "최근 게시글 목록"을 스크롤로 표시합니다.
+ * - 로그인한 사용자의 홈 타임라인(팔로우한 사용자들의 글 + 내 글)을 최신순으로 스크롤 표시합니다.
+ *   타임라인은 글 게시 시 TimelineFanout이 home_timeline에 미리 넣어 두고, 여기서는 읽기만 합니다.
+ *   로그인 전(사용자 없음)에는 전체 글을 최신순으로 보여 줍니다.
  * - 각 게시글 카드는 작성자/본문/좋아요/댓글 토글 UI로 구성됩니다.
  * - 댓글 영역은 접힌 상태로 시작하며, 버튼으로 펼쳐서 조회·작성·좋아요를 수행할 수 있습니다.
  *
  * 주요 흐름
- *  1) 생성자에서 스크롤 가능한 리스트 패널(listPanel)을 세팅하고 reload()로 최근 글을 초기 로드합니다.
- *  2) reload():
- *     - DB에서 최근 N개(기본 10개) 게시글을 조회(selectRecentPosts).
- *     - 각 행을 createPostCard(...)로 카드 컴포넌트로 만들어 listPanel에 추가합니다.
+ *  1) 생성자에서 스크롤 가능한 리스트 패널(listPanel)만 세팅합니다(DB 조회 없음).
+ *     첫 페이지는 처음 표시될 때(MainPagePanel → reloadIfUserChanged) reload()로 로드합니다.
+ *  1-1) 시작 스냅숏(FeedSnapshot):
+ *     - reload() 때 그 사용자가 마지막으로 본 첫 페이지를 디스크에서 읽어 DB를 기다리지 않고 바로 카드로 그립니다.
+ *     - 첫 페이지를 백그라운드에서 받으면 카드를 새로 그리지 않고 맞춥니다(reconcileSnapshot):
+ *       같은 글은 카드를 그대로 두고 숫자/좋아요 표시만 고치고, 없어진 글은 빼고, 새 글만 카드를 만듭니다.
+ *     - 첫 페이지를 받았을 때/새 글을 위에 붙였을 때 화면 위쪽 PAGE_SIZE개를 다시 저장합니다(최신순 모드만).
+ *  2) 페이지 로드(무한 스크롤, 키셋 페이지네이션):
+ *     - selectPostsBefore(con, uid, cursor, PAGE_SIZE):
+ *       "home_timeline WHERE user_id = ? AND post_id < 마지막으로 받은 post_id ORDER BY post_id DESC LIMIT n" → posts PK 조회
+ *       (팔로워가 많아 팬아웃하지 않는 작성자의 글은 TimelineFanout.pageIds가 같은 순서로 합쳐 준다)
+ *       → OFFSET 없이 PK (user_id, post_id) 범위 하나만 역순으로 읽어 몇 페이지를 내려가도 비용이 같고,
+ *         팔로우 수와 무관하며, 새 글이 끼어도 중복/누락이 없습니다.
+ *     - 조회·매핑·좋아요 여부는 DbExecutor.stream에서, 카드는 CHUNK_SIZE개씩 도착하는 대로 EDT에서 붙입니다(footer가 로딩 표시).
+ *     - 뷰포트 아래쪽 남은 높이가 한 화면 이하가 되면 다음 페이지를 미리 요청합니다(동시에 한 건만).
+ *     - reload()는 세대 번호를 올리고 진행 중 로드를 취소 → 늦게 도착한 이전 응답은 버립니다.
+ *     - reloadIfUserChanged(): 로그인 사용자가 바뀌었을 때만 처음부터 다시(MainPagePanel 표시 시 호출).
+ *  2-2) 새 글 알림(전체 다시 그리기 대신):
+ *     - probeTimer가 "화면의 가장 최신 post_id(newest)보다 새 글"의 id만 조회합니다(selectNewerIds, 최대 NEW_MAX개).
+ *       간격은 적응형: 새 글이 늘면 PROBE_MIN_MS로 되돌리고, 없으면 두 배씩 PROBE_MAX_MS까지 늘립니다(화면에 안 보이면 조회 생략).
+ *     - 찾으면 상단 배너 "N new posts"를 띄우고, 누르면 그 글들만 가져와 목록 맨 위에 붙입니다(showNewPosts).
+ *       붙인 높이만큼 스크롤을 내려 보던 글이 그대로 있게 합니다(맨 위를 보고 있었으면 새 글이 보이도록 그대로 둠).
+ *     - NEW_MAX개를 넘으면 중간이 비므로 그때만 reload()로 처음부터 다시 받습니다.
+ *     - 글쓰기 창을 닫을 때(MainPagePanel)도 reload() 대신 showNewPosts()로 내 새 글만 붙입니다.
+ *  2-3) 인기순 모드(setRanked(true), MainPagePanel의 [최신순/인기순] 토글):
+ *     - 첫 페이지를 읽을 때 FeedRanker.rankedIds(메모리의 상위 TOP_K, 이벤트로 갱신)로 순서를 한 번 받아 두고(rankIds),
+ *       그 순서를 PAGE_SIZE씩 잘라 byIds로 카드를 읽습니다(cursor = 받은 글 수). 새로고침 전까지 순서가 흔들리지 않습니다.
+ *     - 범위는 전체 글(팔로우와 무관), 새 글 배너는 쓰지 않습니다(글쓰기 후에는 다시 읽음).
+ *  2-1) 화면 밖 카드 해제:
+ *     - 뷰포트에서 KEEP_SCREENS 화면보다 멀어진 카드(주로 위로 지나간 카드)는 같은 높이의 빈 자리(rigid area)로 바꿔 컴포넌트를 놓아 줍니다.
+ *     - 다시 가까워지면 보관해 둔 PostRow로 카드를 새로 만들고, 높이가 달라졌으면 그만큼 스크롤 위치를 보정합니다.
  *  3) 게시글 좋아요:
  *     - 낙관적 업데이트(즉시 ♥ 수와 색상을 반영) → 백그라운드 DB 처리 → 실패 시 롤백.
+ *  3-1) 살아 있는 숫자(LiveCountRefresher):
+ *     - 화면에 표시되는 동안 뷰포트에 걸친 카드의 post_id를 알려 주고(collectVisible),
+ *       갱신기가 한 번에 읽어 온 좋아요/댓글 수가 카드와 다르면 그 카드의 ♥ 라벨과 [Comments (N)]만 고칩니다.
+ *       좋아요 처리 중인 카드(버튼 비활성)는 낙관적 값을 유지합니다.
  *  4) 댓글(CommentArea 내부 클래스):
- *     - 특정 postId의 댓글 목록을 조회(selectComments)하고, 댓글 작성/댓글 좋아요를 처리합니다.
+ *     - 카드에는 빈 자리만 두고, [Comments]를 처음 누를 때 CommentArea를 만들어 조회합니다(피드 로드 비용이 댓글 수와 무관).
+ *     - 펼쳤던 스레드의 첫 페이지는 COMMENT_CACHE(LRU, -Dtwitter.comments.cacheSize 기본 32)에 두어 다시 펼치면 조회 없이 바로 그립니다.
+ *     - CommentRepository.page로 최신 댓글 한 페이지만 읽고, [이전 댓글 보기]로 키셋으로 더 오래된 페이지를 위에 붙입니다.
+ *       댓글 작성/댓글 좋아요도 여기서 처리합니다. [Comments (N)]의 N은 posts.comment_count(댓글을 달면 +1).
  *     - 댓글 좋아요 역시 낙관적 업데이트 → 실패 시 롤백 정책을 따릅니다.
  *
  * DB 의존
- * - posts, post_like, comment, comment_like 테이블을 조회/사용합니다.
- * - 현재 사용자가 해당 글/댓글에 이미 좋아요를 눌렀는지는 isPostLikedByUser / isCommentLikedByUser 로 조회합니다.
+ * - home_timeline, posts, post_like, comment, comment_like 테이블을 조회/사용합니다.
+ * - 글 조회는 모두 PostRepository(공용 SELECT/행 매퍼, CARD 프로젝션)를 거칩니다.
+ * - 현재 사용자가 글에 이미 좋아요를 눌렀는지는 묶음마다 PostRepository.fillLiked(...) 한 번으로,
+ *   댓글은 CommentRepository.page가 댓글 목록과 같은 쿼리(LEFT JOIN comment_like)로 채웁니다(둘 다 백그라운드에서).
  *
  * 스레드/UX
- * - DB 갱신(좋아요/댓글 작성 등)은 새 스레드에서 실행하고, UI 갱신은 EDT(SwingUtilities.invokeLater)로 수행합니다.
+ * - DB 갱신(좋아요/댓글 작성 등)은 DbExecutor(공용 실행기, 동시 실행 상한/타임아웃)에서 실행하고,
+ *   완료 콜백으로 EDT에서 UI를 갱신합니다.
  * - 낙관적 업데이트로 사용자 체감 성능을 높이고, 실패 시 이전 상태로 복원합니다.
  *
  * 변경 가이드(확장 포인트)
- * - 타임라인 범위(팔로우한 사용자 글만, 특정 조건 필터 등)를 바꾸려면 selectRecentPosts 쿼리를 수정하면 됩니다.
+ * - 타임라인 범위(특정 조건 필터 등)를 바꾸려면 selectPostsBefore 쿼리를, 무엇이 타임라인에 들어가는지는 TimelineFanout을 수정하면 됩니다.
+ *
+ * 설정
+ * - -Dtwitter.feed.pageSize (기본 20), -Dtwitter.feed.keepScreens (기본 3)
+ * - -Dtwitter.feed.probeMinMs (기본 5000), -Dtwitter.feed.probeMaxMs (기본 120000): 새 글 확인 간격 범위
  * - 카드 UI를 통합해 재사용하려면 FeedCardFactory를 사용하도록 교체하는 것도 가능합니다(현재는 로컬 구현).
  * - 경험치/레벨 UI를 피드에서도 갱신하려면 좋아요/댓글 처리 성공 시 상단 헤더 갱신 훅(app.refreshPersonalBoardHeader 등)을 호출하세요.
  *
@@ -37,18 +80,106 @@ package myPackage;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.text.DefaultCaret;
 import java.awt.*;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import myPackage.PostRepository.PostRow;
+import myPackage.PostRepository.Projection;
 
 public class FeedPanel extends JPanel {
 
     private final TwitterApp app;
     private String currentUserId() { return app.getCurrentUserId(); }
 
-    // 메인 피드의 게시글 카드들을 세로로 쌓아놓는 컨테이너
+    static final int PAGE_SIZE    = Math.max(1, Integer.getInteger("twitter.feed.pageSize", 20));
+    static final int KEEP_SCREENS = Math.max(1, Integer.getInteger("twitter.feed.keepScreens", 3));
+    static final int PROBE_MIN_MS = Math.max(500, Integer.getInteger("twitter.feed.probeMinMs", 5_000));
+    static final int PROBE_MAX_MS = Math.max(PROBE_MIN_MS, Integer.getInteger("twitter.feed.probeMaxMs", 120_000));
+    static final int NEW_MAX      = 50; // 배너로 붙일 수 있는 새 글 수(넘으면 reload)
+
+    // 최근에 펼친 댓글 스레드의 첫 페이지("postId:보는 사용자" → 댓글 페이지). 카드를 다시 만들어도 다시 펼치면 바로 그린다
+    private static final LruCache<String, CommentRepository.Page> COMMENT_CACHE =
+            new LruCache<>("feed-comments", Integer.getInteger("twitter.comments.cacheSize", 32));
+
+    static String commentCacheStats() { return COMMENT_CACHE.stats(); }
+
+    // 메인 피드의 게시글 카드들을 세로로 쌓아놓는 컨테이너(카드, 간격, 카드, 간격, ..., footer)
     private final JPanel listPanel = new JPanel();
+    private final JScrollPane scroll;
+    private final JLabel footer = new JLabel(" ", SwingConstants.CENTER);
+    private final JButton banner = new JButton();
+    private final Timer probeTimer;
+
+    /* ========= 페이지 상태(EDT에서만 접근) ========= */
+    private final List<Slot> slots = new ArrayList<>(); // 받은 글 순서대로, listPanel의 2*i 번째가 slot i의 컴포넌트
+    private int cursor = 0;          // 마지막으로 받은 post_id (0 = 첫 페이지)
+    private boolean loading, exhausted, adjusting;
+    private int generation;          // reload()마다 증가
+    private Future<?> pendingLoad;
+    private String loadedFor;        // 현재 목록을 불러온 사용자(타임라인 주인)
+    private boolean ranked;          // 인기순 모드(cursor = 받은 글 수)
+    private AtomicReference<List<Integer>> rankIds = new AtomicReference<>(); // 인기순: 이번 세대의 순위(첫 페이지 작업이 채움)
+    private boolean started;         // 첫 reload() 했는지(생성자에서는 조회하지 않음)
+    private boolean fromSnapshot;    // 목록이 아직 디스크 스냅숏(첫 페이지를 받아 맞추기 전)
+
+    /* ========= 새 글 확인(EDT에서만 접근) ========= */
+    private int newest;              // 목록에 있는 가장 최신 post_id (0 = 아직 없음)
+    private List<Integer> newIds = new ArrayList<>(); // 마지막 확인에서 찾은 더 새 글 id(내림차순, 최대 NEW_MAX + 1개)
+    private int probeDelay = PROBE_MIN_MS;
+    private boolean probing, prepending;
+
+    // 글 1개의 자리: 카드가 해제되면 view가 같은 높이의 빈 자리로 바뀐다
+    private static final class Slot {
+        final PostRow post;
+        Component view;
+        boolean loaded = true;
+        Slot(PostRow post, Component view) { this.post = post; this.view = view; }
+    }
+
+    // 카드에서 숫자가 바뀔 수 있는 컴포넌트(card의 client property로 붙여 둔다)
+    private static final class CountViews {
+        final JLabel likes;
+        final JButton likeBtn, comments;
+        CountViews(JLabel likes, JButton likeBtn, JButton comments) {
+            this.likes = likes; this.likeBtn = likeBtn; this.comments = comments;
+        }
+    }
+
+    // 보이는 카드의 좋아요/댓글 수를 주기적으로(또는 좋아요/댓글 이벤트 직후) 받아 바뀐 라벨만 고친다
+    private final LiveCountRefresher.Source liveCounts = new LiveCountRefresher.Source() {
+        @Override public void collectVisible(Set<Integer> out) {
+            if (!isShowing()) return;
+            Rectangle view = scroll.getViewport().getViewRect();
+            for (Slot s : slots) {
+                if (!s.loaded) continue;
+                Rectangle b = s.view.getBounds();
+                if (b.height > 0 && b.y < view.y + view.height && b.y + b.height > view.y) out.add(s.post.postId);
+            }
+        }
+
+        @Override public boolean apply(int postId, int likes, int comments) {
+            for (Slot s : slots) {
+                if (s.post.postId != postId) continue;
+                if (s.post.likes == likes && s.post.comments == comments) return false;
+                CountViews v = s.loaded ? (CountViews) ((JComponent) s.view).getClientProperty(CountViews.class) : null;
+                if (v != null && !v.likeBtn.isEnabled()) return false; // 좋아요 처리 중: 낙관적 값 유지(커밋 이벤트로 다시 읽음)
+                s.post.likes = likes;     // 카드를 다시 만들 때도 반영
+                s.post.comments = comments;
+                if (v == null) return false;
+                v.likes.setText("♥ " + likes);
+                v.comments.setText(FeedCardFactory.commentsLabel(comments));
+                return true;
+            }
+            return false;
+        }
+    };
 
     public FeedPanel(TwitterApp app) {
         this.app = app;
@@ -56,130 +187,455 @@ public class FeedPanel extends JPanel {
 
         // 스크롤 가능한 리스트 영역 구성
         listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-        JScrollPane scroll = new JScrollPane(
+        scroll = new JScrollPane(
                 listPanel,
                 ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
                 ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER
         );
+        scroll.getVerticalScrollBar().setUnitIncrement(16);
         add(scroll, BorderLayout.CENTER);
+        footer.setAlignmentX(Component.CENTER_ALIGNMENT);
+        footer.setBorder(new EmptyBorder(8, 0, 8, 0));
+
+        // 새 글 배너(누르면 새 글만 위에 붙임)
+        banner.setVisible(false);
+        banner.setFocusable(false);
+        banner.addActionListener(e -> showNewPosts());
+        add(banner, BorderLayout.NORTH);
+
+        probeTimer = new Timer(PROBE_MIN_MS, e -> probe());
+        probeTimer.setRepeats(false);
+        probeTimer.start();
+
+        // 스크롤/크기 변경 때마다 프리페치·카드 해제 검사
+        scroll.getVerticalScrollBar().addAdjustmentListener(e -> onViewportChanged());
+        scroll.getViewport().addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override public void componentResized(java.awt.event.ComponentEvent e) { onViewportChanged(); }
+        });
+        // 첫 로드는 처음 표시될 때(reloadIfUserChanged): 앱 시작이 DB를 기다리지 않도록
+    }
 
-        // 초기 로드
-        reload();
+    @Override public void addNotify() {
+        super.addNotify();
+        LiveCountRefresher.register(liveCounts);
+    }
+
+    @Override public void removeNotify() {
+        super.removeNotify();
+        LiveCountRefresher.unregister(liveCounts);
     }
 
-    /** 최근 10개 글 다시 그리기 */
+    /** 처음부터 다시: 목록을 비우고 첫 페이지 로드 */
     public final void reload() {
+        generation++;
+        started = true;
+        loadedFor = currentUserId();
+        if (pendingLoad != null) pendingLoad.cancel(true);
+        pendingLoad = null;
+        loading = false;
+        exhausted = false;
+        cursor = 0;
+        rankIds = new AtomicReference<>(); // 취소된 이전 세대 작업은 예전 것에 쓴다
+        newest = 0;
+        newIds = new ArrayList<>();
+        banner.setVisible(false);
+        probeDelay = PROBE_MIN_MS;
+        slots.clear();
         listPanel.removeAll();
-        try (Connection con = DBConn.getConnection()) {
-            List<PostDTO> posts = selectRecentPosts(con, 10);
-            for (PostDTO p : posts) {
-                listPanel.add(createPostCard(p));      // 게시글 카드 1장 추가
-                listPanel.add(Box.createVerticalStrut(8)); // 카드 간 간격
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            listPanel.add(new JLabel("피드를 불러오지 못했습니다."));
-        }
+        listPanel.add(footer);
         listPanel.revalidate();
         listPanel.repaint();
+        scroll.getVerticalScrollBar().setValue(0);
+        fromSnapshot = false;
+        if (!ranked) {
+            // 지난번 첫 페이지를 먼저 그린다 → 아래 첫 페이지 조회가 끝나면 reconcileSnapshot으로 맞춤
+            List<PostRow> snap = FeedSnapshot.load(loadedFor);
+            if (!snap.isEmpty()) {
+                appendCards(snap);
+                cursor = 0;
+                fromSnapshot = true;
+            }
+        }
+        loadNextPage();
+    }
+
+    /** 최신순 ↔ 인기순 전환(바뀌었으면 처음부터 다시) */
+    public void setRanked(boolean ranked) {
+        if (this.ranked == ranked) return;
+        this.ranked = ranked;
+        reload();
+    }
+
+    public boolean isRanked() { return ranked; }
+
+    /** 로그인 사용자가 바뀌었으면(로그아웃 후 다른 계정 등) 그 사람의 타임라인으로 다시 로드 */
+    public void reloadIfUserChanged() {
+        String uid = currentUserId();
+        if (!started || (uid == null ? loadedFor != null : !uid.equals(loadedFor))) reload();
     }
 
-    /** DB: 최근 게시글 조회 (post_like COUNT 포함) */
-    private List<PostDTO> selectRecentPosts(Connection con, int limit) throws SQLException {
-        String sql = """
-            SELECT p.post_id,
-                   p.writer_id,
-                   p.content,
-                   (SELECT COUNT(*) FROM post_like pl WHERE pl.post_id = p.post_id) AS like_cnt,
-                   p.created_at
-            FROM posts p
-            ORDER BY p.post_id DESC
-            LIMIT ?
-        """;
-        List<PostDTO> list = new ArrayList<>();
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, limit);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(new PostDTO(
-                            rs.getInt("post_id"),
-                            rs.getString("writer_id"),
-                            rs.getString("content"),
-                            rs.getInt("like_cnt"),
-                            rs.getTimestamp("created_at")
-                    ));
+    /** 다음 페이지를 백그라운드에서 조회(이미 진행 중이거나 끝까지 받았으면 무시) */
+    private void loadNextPage() {
+        if (!started || loading || exhausted) return; // 표시 전(숨은 카드의 레이아웃/크기 변경)에는 조회하지 않음
+        loading = true;
+        footer.setText("불러오는 중…");
+        final int gen = generation;
+        final int before = cursor;
+        final boolean byRank = ranked;
+        final AtomicReference<List<Integer>> rank = rankIds;
+        final String uid = currentUserId();
+        final int[] received = {0};
+        final List<PostRow> fresh = fromSnapshot && before == 0 ? new ArrayList<>() : null; // 스냅숏과 맞출 첫 페이지
+        // 조회/매핑/좋아요 여부는 백그라운드, 카드는 CHUNK_SIZE개씩 받는 대로 EDT에서 붙인다
+        pendingLoad = DbExecutor.<PostRow>stream(out -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                List<PostRow> page = byRank ? selectRankedPage(con, rank, before, PAGE_SIZE)
+                                            : selectPostsBefore(con, uid, before, PAGE_SIZE);
+                for (int from = 0; from < page.size(); from += DbExecutor.CHUNK_SIZE) {
+                    List<PostRow> chunk = page.subList(from, Math.min(from + DbExecutor.CHUNK_SIZE, page.size()));
+                    PostRepository.fillLiked(con, uid, chunk);
+                    for (PostRow p : chunk) out.publish(p);
                 }
             }
+        }, DbExecutor.CHUNK_SIZE, chunk -> {
+            if (gen != generation) return; // reload() 이전 세대의 묶음
+            received[0] += chunk.size();
+            if (fresh != null) fresh.addAll(chunk); // 스냅숏이 그려져 있음 → 다 받은 뒤 한 번에 맞춘다
+            else appendCards(chunk);
+        }, (r, err) -> {
+            if (gen != generation) return; // reload() 이전 세대의 응답
+            loading = false;
+            pendingLoad = null;
+            if (err != null) {
+                err.printStackTrace();
+                footer.setText("피드를 불러오지 못했습니다."); // 스냅숏은 그대로 두고 다음 요청 때 다시 맞춘다
+                return;
+            }
+            if (fresh != null) reconcileSnapshot(fresh);
+            finishPage(received[0]);
+            if (before == 0 && !byRank) saveSnapshot();
+        });
+    }
+
+    // 받은 카드 묶음을 footer 앞에 붙인다
+    private void appendCards(List<PostRow> chunk) {
+        for (PostRow p : chunk) {
+            JPanel card = createPostCard(p);
+            int at = listPanel.getComponentCount() - 1; // footer 앞
+            listPanel.add(card, at);                       // 게시글 카드 1장 추가
+            listPanel.add(Box.createVerticalStrut(8), at + 1); // 카드 간 간격
+            slots.add(new Slot(p, card));
+            cursor = ranked ? cursor + 1 : p.postId;
+            newest = Math.max(newest, p.postId);
         }
-        return list;
+        listPanel.revalidate();
+        listPanel.repaint();
     }
 
-    /** DB: 특정 글의 댓글 목록 (comment_like COUNT 포함) */
-    private List<CommentDTO> selectComments(Connection con, int postId) throws SQLException {
-        String sql = """
-            SELECT c.comment_id,
-                   c.writer_id,
-                   c.content,
-                   (SELECT COUNT(*) FROM comment_like cl WHERE cl.comment_id = c.comment_id) AS like_cnt,
-                   c.created_at
-            FROM comment c
-            WHERE c.post_id = ?
-            ORDER BY c.comment_id ASC
-        """;
-        List<CommentDTO> list = new ArrayList<>();
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, postId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(new CommentDTO(
-                            rs.getInt("comment_id"),
-                            rs.getString("writer_id"),
-                            rs.getString("content"),
-                            rs.getInt("like_cnt"),
-                            rs.getTimestamp("created_at")
-                    ));
-                }
+    /**
+     * 디스크 스냅숏으로 그린 카드를 DB 첫 페이지(fresh)에 맞춘다.
+     * 같은 글은 카드를 그대로 두고 바뀐 숫자/좋아요 표시만 고치고, fresh에 없는 글은 빼고, 새 글만 카드를 만든다.
+     */
+    private void reconcileSnapshot(List<PostRow> fresh) {
+        fromSnapshot = false;
+        Map<Integer, Slot> old = new HashMap<>();
+        for (Slot s : slots) old.put(s.post.postId, s);
+        List<Slot> next = new ArrayList<>(fresh.size());
+        int patched = 0, added = 0;
+        for (PostRow p : fresh) {
+            Slot s = old.remove(p.postId);
+            if (s != null && s.loaded) {
+                if (patchCard(s, p)) patched++;
+                next.add(s);
+            } else {
+                next.add(new Slot(p, createPostCard(p)));
+                added++;
+            }
+        }
+        int removed = old.size();
+        if (!next.equals(slots)) { // 글이 빠지거나 끼었을 때만 목록을 다시 엮는다(카드는 재사용)
+            slots.clear();
+            listPanel.removeAll();
+            for (Slot s : next) {
+                slots.add(s);
+                listPanel.add(s.view);
+                listPanel.add(Box.createVerticalStrut(8));
             }
+            listPanel.add(footer);
         }
-        return list;
+        cursor = 0;
+        newest = 0;
+        for (Slot s : slots) {
+            cursor = s.post.postId; // 마지막(가장 오래된) 글에서 이어서
+            newest = Math.max(newest, s.post.postId);
+        }
+        FeedSnapshot.reconciled(next.size() - added - patched, patched, added, removed);
+        listPanel.revalidate();
+        listPanel.repaint();
+    }
+
+    // 같은 글의 카드에 DB 값(좋아요 수/댓글 수/좋아요 여부)을 반영. 바뀐 게 있으면 true
+    private boolean patchCard(Slot s, PostRow p) {
+        PostRow cur = s.post;
+        if (cur.likes == p.likes && cur.comments == p.comments && cur.liked == p.liked) return false;
+        CountViews v = (CountViews) ((JComponent) s.view).getClientProperty(CountViews.class);
+        if (v != null && !v.likeBtn.isEnabled()) return false; // 좋아요 처리 중: 낙관적 값 유지
+        cur.likes = p.likes;
+        cur.comments = p.comments;
+        cur.liked = p.liked;
+        if (v != null) {
+            v.likes.setText("♥ " + cur.likes);
+            v.likes.setForeground(cur.liked ? Color.RED : UIManager.getColor("Label.foreground"));
+            v.comments.setText(FeedCardFactory.commentsLabel(cur.comments));
+        }
+        return true;
+    }
+
+    // 화면 위쪽 첫 페이지를 다음 시작용 스냅숏으로(최신순만, 파일 쓰기는 백그라운드)
+    private void saveSnapshot() {
+        if (ranked || fromSnapshot) return;
+        List<PostRow> top = new ArrayList<>(Math.min(slots.size(), FeedSnapshot.MAX_ROWS));
+        for (int i = 0; i < slots.size() && top.size() < FeedSnapshot.MAX_ROWS; i++) top.add(slots.get(i).post);
+        FeedSnapshot.save(loadedFor, top);
+    }
+
+    // 한 페이지를 다 받았을 때: 끝인지 표시하고, 화면이 아직 안 찼으면 이어서 요청
+    private void finishPage(int received) {
+        if (received < PAGE_SIZE) {
+            exhausted = true;
+            footer.setText(slots.isEmpty() ? "게시글이 없습니다." : "마지막 글입니다.");
+        } else {
+            footer.setText(" ");
+        }
+        SwingUtilities.invokeLater(this::onViewportChanged); // 배치 후 높이로 다시 판단
     }
 
-    /** 현재 유저가 포스트를 좋아요했는지(중복 방지용) */
-    private boolean isPostLikedByUser(int postId, String userId) {
-        if (userId == null || userId.isBlank()) return false;
-        String sql = "SELECT 1 FROM post_like WHERE post_id=? AND liker_id=? LIMIT 1";
-        try (Connection con = DBConn.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, postId);
-            ps.setString(2, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+    /* ========= 새 글 확인 / 위에 붙이기 ========= */
+
+    private void scheduleProbe() {
+        probeTimer.setInitialDelay(probeDelay);
+        probeTimer.restart();
+    }
+
+    /** newest보다 새 글 id만 조회 → 배너 갱신, 간격 조정 */
+    private void probe() {
+        if (probing || prepending || loading || ranked || !isShowing()) { scheduleProbe(); return; }
+        probing = true;
+        final int gen = generation;
+        final int after = newest;
+        final String uid = currentUserId();
+        DbExecutor.submit(() -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                return selectNewerIds(con, uid, after, NEW_MAX + 1);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+        }, (ids, err) -> {
+            probing = false;
+            if (err != null) {
+                probeDelay = PROBE_MAX_MS; // DB가 바쁘거나 끊김 → 가장 길게 쉬었다가
+            } else if (gen == generation && after == newest) {
+                boolean grew = ids.size() > newIds.size();
+                newIds = ids;
+                updateBanner();
+                probeDelay = grew ? PROBE_MIN_MS : Math.min(probeDelay * 2, PROBE_MAX_MS);
+            }
+            scheduleProbe();
+        });
+    }
+
+    private void updateBanner() {
+        int n = newIds.size();
+        banner.setText((n > NEW_MAX ? NEW_MAX + "+" : String.valueOf(n)) + " new post" + (n == 1 ? "" : "s") + "  ↑");
+        banner.setVisible(n > 0);
+        revalidate();
+    }
+
+    /** 새 글만 받아 목록 맨 위에 붙인다(배너 클릭, 글쓰기 후). 너무 많으면 처음부터 다시 */
+    public void showNewPosts() {
+        if (prepending || (loading && (slots.isEmpty() || fromSnapshot))) return; // 첫 페이지가 오는 중이면 그 안에 포함된다
+        if (newIds.size() > NEW_MAX || ranked) { reload(); return; } // 인기순은 새 글 자리가 순위로 정해짐
+        prepending = true;
+        banner.setVisible(false);
+        final int gen = generation;
+        final int after = newest;
+        final String uid = currentUserId();
+        DbExecutor.submit(() -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                List<Integer> ids = selectNewerIds(con, uid, after, NEW_MAX + 1);
+                if (ids.size() > NEW_MAX) return null; // 확인 뒤 더 쌓임 → reload
+                List<PostRow> posts = new ArrayList<>();
+                PostRepository.byIds(con, Projection.CARD, ids, posts::add);
+                PostRepository.fillLiked(con, uid, posts);
+                return posts;
+            }
+        }, (posts, err) -> {
+            prepending = false;
+            if (gen != generation) return;
+            if (err != null) {
+                err.printStackTrace();
+                updateBanner();
+                return;
+            }
+            if (posts == null) { reload(); return; }
+            prependCards(posts);
+            saveSnapshot();
+            newIds = new ArrayList<>();
+            probeDelay = PROBE_MIN_MS;
+            scheduleProbe();
+        });
+    }
+
+    // 최신순 posts를 맨 위에 붙이고, 보던 글(뷰포트 맨 위 컴포넌트)이 같은 자리에 있도록 스크롤을 옮긴다
+    private void prependCards(List<PostRow> posts) {
+        if (posts.isEmpty()) return;
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        int value = bar.getValue();
+        Component anchor = value > 0 ? listPanel.getComponentAt(0, value) : null;
+        int offset = anchor != null ? anchor.getY() - value : 0;
+        for (int i = posts.size() - 1; i >= 0; i--) {
+            PostRow p = posts.get(i);
+            JPanel card = createPostCard(p);
+            listPanel.add(Box.createVerticalStrut(8), 0);
+            listPanel.add(card, 0);
+            slots.add(0, new Slot(p, card));
+            newest = Math.max(newest, p.postId);
         }
+        if (cursor == 0) cursor = posts.get(posts.size() - 1).postId; // 빈 피드였으면 여기서부터 이어서
+        adjusting = true; // 높이 보정이 끝나기 전 카드 해제 검사 방지
+        try {
+            listPanel.revalidate();
+            scroll.validate();
+            if (anchor != null && anchor != listPanel) {
+                // 새 카드의 줄바꿈 높이는 폭이 정해진 뒤에야 맞으므로 한 번 더 배치
+                listPanel.invalidate();
+                scroll.validate();
+                bar.setValue(anchor.getY() - offset);
+            }
+        } finally {
+            adjusting = false;
+        }
+        if (footer.getText().equals("게시글이 없습니다.")) footer.setText("마지막 글입니다.");
+        listPanel.repaint();
     }
 
-    /** 현재 유저가 댓글을 좋아요했는지(중복 방지용) */
-    private boolean isCommentLikedByUser(int commentId, String userId) {
-        if (userId == null || userId.isBlank()) return false;
-        String sql = "SELECT 1 FROM comment_like WHERE comment_id=? AND liker_id=? LIMIT 1";
-        try (Connection con = DBConn.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setInt(1, commentId);
-            ps.setString(2, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
+    /** 스크롤 위치 기준: 바닥 근처면 프리페치, 위로 멀어진 카드는 해제/가까워지면 복원 */
+    private void onViewportChanged() {
+        if (adjusting) return;
+        adjusting = true;
+        try {
+            Rectangle view = scroll.getViewport().getViewRect();
+            if (view.height <= 0) return;
+
+            // 1) 남은 아래쪽 높이가 한 화면 이하 → 다음 페이지
+            if (view.y + view.height >= listPanel.getHeight() - view.height) loadNextPage();
+
+            // 2) 뷰포트에서 위아래로 KEEP_SCREENS 화면 밖 카드 해제 / 범위 안으로 들어온 자리 복원
+            int keepTop = view.y - view.height * KEEP_SCREENS;
+            int keepBottom = view.y + view.height * (KEEP_SCREENS + 1);
+            int shift = 0;
+            boolean changed = false;
+            for (int i = 0; i < slots.size(); i++) {
+                Slot s = slots.get(i);
+                Rectangle b = s.view.getBounds();
+                if (s.loaded && b.height == 0) continue; // 아직 배치 전(방금 추가된 카드)
+                boolean far = b.y + b.height < keepTop || b.y > keepBottom;
+                if (far && s.loaded) {
+                    replaceView(i, Box.createRigidArea(new Dimension(0, b.height)));
+                    s.loaded = false;
+                    changed = true;
+                } else if (!far && !s.loaded) {
+                    JPanel card = createPostCard(s.post);
+                    if (b.y < view.y) shift += card.getPreferredSize().height - b.height; // 위쪽 높이 변화만 보정
+                    replaceView(i, card);
+                    s.loaded = true;
+                    changed = true;
+                }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+            if (changed) {
+                listPanel.revalidate();
+                if (shift != 0) {
+                    // 뷰포트 위쪽 높이가 바뀐 만큼 스크롤 위치를 옮겨 보던 글이 튀지 않게
+                    scroll.validate();
+                    JScrollBar bar = scroll.getVerticalScrollBar();
+                    bar.setValue(bar.getValue() + shift);
+                }
+                listPanel.repaint();
+            }
+        } finally {
+            adjusting = false;
+        }
+    }
+
+    private void replaceView(int slot, Component view) {
+        listPanel.remove(2 * slot);
+        listPanel.add(view, 2 * slot);
+        slots.get(slot).view = view;
+    }
+
+    /**
+     * DB: uid의 홈 타임라인에서 before보다 오래된 글 limit개
+     * (before == 0이면 최신부터, uid가 없으면 전체 글, 좋아요 수는 posts.num_of_likes)
+     * - 타임라인 글 id는 TimelineFanout.pageIds가 정한다(팬아웃된 글 + 팔로워 많은 작성자의 글을 읽을 때 병합)
+     *   -Dtwitter.timeline.engine=pull 이면 PullTimeline.pageIds(작성자별 최근 글 링을 k-way 병합)
+     */
+    private List<PostRow> selectPostsBefore(Connection con, String uid, int before, int limit) throws SQLException {
+        List<PostRow> page = new ArrayList<>();
+        if (uid == null || uid.isEmpty()) {
+            PostRepository.recent(con, Projection.CARD, PostRepository.Cursor.before(before, limit), page::add);
+            return page;
+        }
+
+        List<Integer> ids = PullTimeline.ENABLED
+                ? PullTimeline.pageIds(con, uid, before, limit)     // 작성자별 링을 메모리에서 병합
+                : TimelineFanout.pageIds(con, uid, before, limit);  // home_timeline(+ 팔로워 많은 작성자 병합)
+        PostRepository.byIds(con, Projection.CARD, ids, page::add);
+        return page;
+    }
+
+    /**
+     * 인기순: offset번째부터 limit개. 첫 페이지(offset 0)에서 FeedRanker 순위를 받아 두고 이후 페이지는 그 순서를 따른다.
+     * byIds는 post_id 순으로 돌려주므로 순위 순으로 다시 놓는다(그 사이 지워진 글은 빠짐).
+     */
+    private static List<PostRow> selectRankedPage(Connection con, AtomicReference<List<Integer>> rank,
+                                                  int offset, int limit) throws SQLException {
+        List<Integer> order = rank.get();
+        if (order == null || offset == 0) {
+            order = FeedRanker.rankedIds(con, FeedRanker.TOP_K);
+            rank.set(order);
+        }
+        if (offset >= order.size()) return new ArrayList<>();
+        List<Integer> ids = order.subList(offset, Math.min(offset + limit, order.size()));
+        Map<Integer, PostRow> byId = new HashMap<>();
+        PostRepository.byIds(con, Projection.CARD, ids, r -> byId.put(r.postId, r));
+        List<PostRow> page = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            PostRow r = byId.get(id);
+            if (r != null) page.add(r);
+        }
+        return page;
+    }
+
+    /**
+     * DB: 화면의 최신 글(after)보다 새 글 id를 최신순으로 최대 limit개(새 글 확인용, 본문은 읽지 않음)
+     * - 로그인 사용자는 타임라인 첫 페이지 id에서 after보다 큰 것만(같은 엔진을 쓰므로 보이는 글과 범위가 같다)
+     */
+    private static List<Integer> selectNewerIds(Connection con, String uid, int after, int limit) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        if (uid == null || uid.isEmpty()) {
+            PostRepository.recent(con, Projection.ID, PostRepository.Cursor.after(after, limit), r -> ids.add(r.postId));
+            return ids;
+        }
+        List<Integer> top = PullTimeline.ENABLED
+                ? PullTimeline.pageIds(con, uid, 0, limit)
+                : TimelineFanout.pageIds(con, uid, 0, limit);
+        for (int id : top) {
+            if (id <= after) break; // 내림차순
+            ids.add(id);
         }
+        return ids;
     }
 
     /** 포스트 카드: 한 개의 게시글을 화면에 표현하는 UI 컴포넌트 생성 */
-    private JPanel createPostCard(PostDTO post) {
+    private JPanel createPostCard(PostRow post) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(new Color(210,210,210)),
@@ -191,7 +647,10 @@ public class FeedPanel extends JPanel {
         card.add(header, BorderLayout.NORTH);
 
         // 본문(읽기 전용, 줄바꿈)
-        JTextArea body = new JTextArea(post.content);
+        // 캐럿이 따라가지 않게(새 카드가 스스로 scrollRectToVisible 해서 보던 위치가 튀지 않도록) 한 뒤 본문 설정
+        JTextArea body = new JTextArea();
+        ((DefaultCaret) body.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        body.setText(post.content);
         body.setEditable(false);
         body.setLineWrap(true);
         body.setWrapStyleWord(true);
@@ -201,21 +660,18 @@ public class FeedPanel extends JPanel {
         // 하단 액션(좋아요/댓글 토글)
         JLabel likeLabel = new JLabel("♥ " + post.likes);
         JButton likeBtn = new JButton("Like");
-        JButton cmtToggle = new JButton("Comments");
+        JButton cmtToggle = new JButton(FeedCardFactory.commentsLabel(post.comments));
 
         // 이미 좋아요한 글이면 빨간색으로 표시
-        boolean initiallyLiked = isPostLikedByUser(post.postId, currentUserId());
-        if (initiallyLiked) likeLabel.setForeground(Color.RED);
+        if (post.liked) likeLabel.setForeground(Color.RED);
 
         JPanel actions = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
         actions.add(likeLabel);
         actions.add(likeBtn);
         actions.add(cmtToggle);
 
-        // 댓글 영역(기본 접힘)
-        CommentArea cArea = new CommentArea(post.postId);
+        // 댓글 영역(기본 접힘): CommentArea는 처음 펼칠 때 만든다(피드 로드 비용이 댓글 수와 무관하도록)
         JPanel cWrap = new JPanel(new BorderLayout());
-        cWrap.add(cArea, BorderLayout.CENTER);
         cWrap.setVisible(false);
         cWrap.setBorder(BorderFactory.createMatteBorder(8, 0, 0, 0, new Color(245,245,245)));
 
@@ -223,6 +679,7 @@ public class FeedPanel extends JPanel {
         bottom.add(actions, BorderLayout.NORTH);
         bottom.add(cWrap,  BorderLayout.CENTER);
         card.add(bottom, BorderLayout.SOUTH);
+        card.putClientProperty(CountViews.class, new CountViews(likeLabel, likeBtn, cmtToggle));
 
         // 포스트 좋아요(낙관적 업데이트 → 실패 시 롤백)
         likeBtn.addActionListener(e -> {
@@ -241,36 +698,38 @@ public class FeedPanel extends JPanel {
             likeLabel.setText("♥ " + post.likes);
             likeLabel.setForeground(Color.RED);
 
-            new Thread(() -> {
-                boolean ok = false; Exception err = null;
-                try { ok = PostLike.likePost(post.postId, uid); } catch (Exception ex) { err = ex; }
-                final boolean okFinal = ok; final Exception errFinal = err;
-
-                SwingUtilities.invokeLater(() -> {
-                    if (!okFinal) {
-                        // 실패 → 원상 복귀
-                        post.likes = prevLikes;
-                        likeLabel.setText(prevText);
-                        likeLabel.setForeground(prevColor);
-                        likeBtn.setEnabled(true);
-                        if (errFinal != null) {
-                            errFinal.printStackTrace();
-                            JOptionPane.showMessageDialog(this, "좋아요 처리 중 오류", "Error", JOptionPane.ERROR_MESSAGE);
-                        } else {
-                            JOptionPane.showMessageDialog(this, "이미 좋아요를 누른 게시글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
-                        }
+            DbExecutor.submit(() -> PostLike.likePost(post.postId, uid), (ok, errFinal) -> {
+                boolean okFinal = Boolean.TRUE.equals(ok);
+                if (!okFinal) {
+                    // 실패 → 원상 복귀
+                    post.likes = prevLikes;
+                    likeLabel.setText(prevText);
+                    likeLabel.setForeground(prevColor);
+                    likeBtn.setEnabled(true);
+                    if (errFinal != null) {
+                        errFinal.printStackTrace();
+                        JOptionPane.showMessageDialog(this, "좋아요 처리 중 오류", "Error", JOptionPane.ERROR_MESSAGE);
                     } else {
-                        // 성공 → 빨간색 유지
-                        likeLabel.setForeground(Color.RED);
-                        likeBtn.setEnabled(true);
+                        JOptionPane.showMessageDialog(this, "이미 좋아요를 누른 게시글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
                     }
-                });
-            }).start();
+                } else {
+                    // 성공 → 빨간색 유지(카드를 다시 만들 때도 반영)
+                    post.liked = true;
+                    likeLabel.setForeground(Color.RED);
+                    likeBtn.setEnabled(true);
+                }
+            });
         });
 
         // 댓글 영역 토글
         cmtToggle.addActionListener(e -> {
             boolean vis = !cWrap.isVisible();
+            if (vis && cWrap.getComponentCount() == 0) {
+                cWrap.add(new CommentArea(post.postId, () -> {
+                    post.comments++; // 카드를 다시 만들 때도 반영
+                    cmtToggle.setText(FeedCardFactory.commentsLabel(post.comments));
+                }), BorderLayout.CENTER);
+            }
             cWrap.setVisible(vis);
             card.revalidate();
             card.repaint();
@@ -282,13 +741,18 @@ public class FeedPanel extends JPanel {
     /** ======================= 댓글 영역 ======================= */
     private class CommentArea extends JPanel {
         private final int postId;
+        private final Runnable onCommented; // 댓글 등록 성공 시(카드의 댓글 수 +1)
         private final JPanel list = new JPanel();
+        private final JButton olderBtn = new JButton("이전 댓글 보기");
 
         private final JTextArea inputArea = new JTextArea(3, 20);
         private final JButton addBtn = new JButton("Comment");
+        private Future<?> pendingLoad;   // 진행 중 댓글 조회(EDT에서만 접근)
+        private int oldestId;            // 화면에 붙은 가장 오래된 댓글(다음 [이전 댓글]의 before)
 
-        CommentArea(int postId) {
+        CommentArea(int postId, Runnable onCommented) {
             this.postId = postId;
+            this.onCommented = onCommented;
             setLayout(new BorderLayout());
             list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
 
@@ -300,6 +764,11 @@ public class FeedPanel extends JPanel {
             );
             add(sp, BorderLayout.CENTER);
 
+            // 이전(더 오래된) 댓글 페이지
+            olderBtn.setVisible(false);
+            olderBtn.addActionListener(e -> loadOlder());
+            add(olderBtn, BorderLayout.NORTH);
+
             // 입력창(멀티라인)
             inputArea.setLineWrap(true);
             inputArea.setWrapStyleWord(true);
@@ -310,7 +779,7 @@ public class FeedPanel extends JPanel {
             input.add(addBtn,   BorderLayout.EAST);
             add(input, BorderLayout.SOUTH);
 
-            loadComments();
+            loadComments(true);
 
             // 버튼 클릭 → 제출
             addBtn.addActionListener(e -> submitComment());
@@ -350,106 +819,172 @@ public class FeedPanel extends JPanel {
             addBtn.setEnabled(false);
             final String toSave = text;
 
-            new Thread(() -> {
-                Exception err = null;
-                try { Comment.write(postId, uid, toSave); } catch (Exception ex) { err = ex; }
-                final Exception errFinal = err;
-                SwingUtilities.invokeLater(() -> {
-                    addBtn.setEnabled(true);
-                    if (errFinal != null) {
-                        errFinal.printStackTrace();
-                        JOptionPane.showMessageDialog(this, "댓글 등록 실패", "Error", JOptionPane.ERROR_MESSAGE);
-                    } else {
-                        inputArea.setText("");
-                        loadComments(); // 등록 후 새로고침
-                    }
-                });
-            }).start();
+            DbExecutor.submit(() -> { Comment.write(postId, uid, toSave); return null; }, (r, errFinal) -> {
+                addBtn.setEnabled(true);
+                if (errFinal != null) {
+                    errFinal.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "댓글 등록 실패", "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    inputArea.setText("");
+                    onCommented.run();
+                    loadComments(false); // 등록 후 새로고침(캐시 무시)
+                }
+            });
         }
 
-        /** 댓글 목록 + 댓글 좋아요 버튼/상태(낙관적 업데이트 방식) */
-        private void loadComments() {
+        /**
+         * 최신 댓글 한 페이지(댓글 + 좋아요 수 + 좋아요 여부, 쿼리 한 번)를 백그라운드에서 읽어 EDT에서 그린다.
+         * useCache면 최근에 펼쳤던 스레드의 첫 페이지(COMMENT_CACHE)를 조회 없이 바로 그린다.
+         */
+        private void loadComments(boolean useCache) {
+            if (pendingLoad != null) pendingLoad.cancel(true); // 이전 조회의 늦은 응답은 버린다
             list.removeAll();
-            try (Connection con = DBConn.getConnection()) {
-                for (CommentDTO c : selectComments(con, postId)) {
-                    JPanel row = new JPanel(new BorderLayout());
-                    row.setBorder(new EmptyBorder(4,4,4,4));
-
-                    JLabel left = new JLabel("<html><b>" + c.writerId + "</b> : " +
-                            escapeHtml(c.content) +
-                            "<br/><span style='color:gray'>" + c.createdAt + "</span></html>");
-                    row.add(left, BorderLayout.CENTER);
-
-                    JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
-                    JLabel like = new JLabel("♥ " + c.likes);
-                    JButton likeBtn = new JButton("Like");
-
-                    // 이미 좋아요한 댓글이면 표시/차단
-                    boolean initiallyLiked = isCommentLikedByUser(c.commentId, currentUserId());
-                    if (initiallyLiked) {
-                        like.setForeground(Color.RED);
-                        likeBtn.setText("Liked");
-                        likeBtn.setEnabled(false); // 정책: 이미 눌렀으면 비활성화
-                    }
-
-                    right.add(like);
-                    right.add(likeBtn);
-                    row.add(right, BorderLayout.EAST);
-
-                    // 댓글 좋아요(낙관적 업데이트 → 실패 시 롤백)
-                    likeBtn.addActionListener(e -> {
-                        String uid = currentUserId();
-                        if (uid == null || uid.isBlank()) {
-                            JOptionPane.showMessageDialog(this, "로그인이 필요합니다.", "알림", JOptionPane.WARNING_MESSAGE);
-                            return;
-                        }
-
-                        final int prevLikes = c.likes;
-                        final String prevText = like.getText();
-                        final Color prevColor = like.getForeground();
-                        likeBtn.setEnabled(false);
+            olderBtn.setVisible(false);
+            final String uid = currentUserId();
+            final String key = postId + ":" + uid;
+            CommentRepository.Page cached = useCache ? COMMENT_CACHE.get(key) : null;
+            if (cached != null) {
+                showPage(cached, false);
+                return;
+            }
+            JLabel placeholder = new JLabel("댓글 불러오는 중…");
+            list.add(placeholder);
+            list.revalidate();
+            list.repaint();
+            pendingLoad = DbExecutor.submit(() -> {
+                try (Connection con = DBConn.getReadConnection()) {
+                    return CommentRepository.page(con, postId, uid, 0, CommentRepository.PAGE_SIZE);
+                }
+            }, (page, err) -> {
+                pendingLoad = null;
+                list.remove(placeholder);
+                if (err != null) {
+                    err.printStackTrace();
+                    list.add(new JLabel("댓글을 불러오지 못했습니다."));
+                    list.revalidate();
+                    list.repaint();
+                    return;
+                }
+                COMMENT_CACHE.put(key, page); // 행의 좋아요 처리가 같은 DTO를 고치므로 캐시도 같이 최신
+                showPage(page, false);
+            });
+        }
 
-                        // 낙관적 증가
-                        c.likes = prevLikes + 1;
-                        like.setText("♥ " + c.likes);
-                        like.setForeground(Color.RED);
+        /** [이전 댓글 보기]: 화면의 가장 오래된 댓글보다 오래된 한 페이지를 맨 위에 붙인다 */
+        private void loadOlder() {
+            if (pendingLoad != null) return;
+            olderBtn.setEnabled(false);
+            final String uid = currentUserId();
+            final int before = oldestId;
+            pendingLoad = DbExecutor.submit(() -> {
+                try (Connection con = DBConn.getReadConnection()) {
+                    return CommentRepository.page(con, postId, uid, before, CommentRepository.PAGE_SIZE);
+                }
+            }, (page, err) -> {
+                pendingLoad = null;
+                olderBtn.setEnabled(true);
+                if (err != null) {
+                    err.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "이전 댓글을 불러오지 못했습니다.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showPage(page, true);
+            });
+        }
 
-                        new Thread(() -> {
-                            boolean ok = false; Exception err = null;
-                            try { ok = CommentLike.likeComment(c.commentId, uid); } catch (Exception ex) { err = ex; }
-                            final boolean okFinal = ok; final Exception errFinal = err;
-
-                            SwingUtilities.invokeLater(() -> {
-                                if (!okFinal) {
-                                    // 실패 → 복원
-                                    c.likes = prevLikes;
-                                    like.setText(prevText);
-                                    like.setForeground(prevColor);
-                                    likeBtn.setEnabled(true);
-                                    if (errFinal != null) {
-                                        errFinal.printStackTrace();
-                                        JOptionPane.showMessageDialog(this, "댓글 좋아요 실패", "Error", JOptionPane.ERROR_MESSAGE);
-                                    } else {
-                                        JOptionPane.showMessageDialog(this, "이미 좋아요를 누른 댓글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
-                                    }
-                                } else {
-                                    like.setForeground(Color.RED);
-                                    likeBtn.setText("Liked");
-                                    likeBtn.setEnabled(false); // 성공 후 비활성화 유지
-                                }
-                            });
-                        }).start();
-                    });
-
-                    list.add(row);
+        /** 페이지의 행을 목록 끝(첫 페이지) 또는 맨 위(이전 페이지)에 붙인다 */
+        private void showPage(CommentRepository.Page page, boolean prepend) {
+            int at = 0;
+            for (CommentRepository.CommentRow c : page.rows) {
+                if (prepend) {
+                    list.add(buildRow(c), at++);
+                    list.add(new JSeparator(), at++);
+                } else {
+                    list.add(buildRow(c));
                     list.add(new JSeparator());
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
-                list.add(new JLabel("댓글을 불러오지 못했습니다."));
             }
+            if (!page.rows.isEmpty() || !prepend) oldestId = page.oldestId();
+            olderBtn.setVisible(page.hasOlder);
             list.revalidate();
             list.repaint();
+            revalidate();
+        }
+
+        // 화면에서 빠지면(카드 해제/화면 전환) 진행 중 조회 취소
+        @Override public void removeNotify() {
+            super.removeNotify();
+            if (pendingLoad != null) pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+
+        /** 댓글 1개 행 + 댓글 좋아요 버튼/상태(낙관적 업데이트 방식) */
+        private JPanel buildRow(CommentRepository.CommentRow c) {
+            JPanel row = new JPanel(new BorderLayout());
+            row.setBorder(new EmptyBorder(4,4,4,4));
+
+            JLabel left = new JLabel("<html><b>" + c.writerId + "</b> : " +
+                    escapeHtml(c.content) +
+                    "<br/><span style='color:gray'>" + c.createdAt + "</span></html>");
+            row.add(left, BorderLayout.CENTER);
+
+            JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 0));
+            JLabel like = new JLabel("♥ " + c.likes);
+            JButton likeBtn = new JButton("Like");
+
+            // 이미 좋아요한 댓글이면 표시/차단(여부는 백그라운드 조회에서 채움)
+            if (c.liked) {
+                like.setForeground(Color.RED);
+                likeBtn.setText("Liked");
+                likeBtn.setEnabled(false); // 정책: 이미 눌렀으면 비활성화
+            }
+
+            right.add(like);
+            right.add(likeBtn);
+            row.add(right, BorderLayout.EAST);
+
+            // 댓글 좋아요(낙관적 업데이트 → 실패 시 롤백)
+            likeBtn.addActionListener(e -> {
+                String uid = currentUserId();
+                if (uid == null || uid.isBlank()) {
+                    JOptionPane.showMessageDialog(this, "로그인이 필요합니다.", "알림", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+
+                final int prevLikes = c.likes;
+                final String prevText = like.getText();
+                final Color prevColor = like.getForeground();
+                likeBtn.setEnabled(false);
+
+                // 낙관적 증가
+                c.likes = prevLikes + 1;
+                like.setText("♥ " + c.likes);
+                like.setForeground(Color.RED);
+
+                DbExecutor.submit(() -> CommentLike.likeComment(c.commentId, uid), (ok, errFinal) -> {
+                    boolean okFinal = Boolean.TRUE.equals(ok);
+                    if (!okFinal) {
+                        // 실패 → 복원
+                        c.likes = prevLikes;
+                        like.setText(prevText);
+                        like.setForeground(prevColor);
+                        likeBtn.setEnabled(true);
+                        if (errFinal != null) {
+                            errFinal.printStackTrace();
+                            JOptionPane.showMessageDialog(this, "댓글 좋아요 실패", "Error", JOptionPane.ERROR_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(this, "이미 좋아요를 누른 댓글입니다.", "알림", JOptionPane.INFORMATION_MESSAGE);
+                        }
+                    } else {
+                        c.liked = true; // 캐시된 페이지로 다시 그려도 유지
+                        like.setForeground(Color.RED);
+                        likeBtn.setText("Liked");
+                        likeBtn.setEnabled(false); // 성공 후 비활성화 유지
+                    }
+                });
+            });
+
+            return row;
         }
     }
 
@@ -460,30 +995,4 @@ public class FeedPanel extends JPanel {
         if (s == null) return "";
         return s.replace("&","&amp;").replace("<","&lt;").replace(">","&gt;");
     }
-
-    // 게시글 1개를 메모리에 담아두는 DTO(좋아요 수는 가변)
-    private static class PostDTO {
-        final int postId;
-        final String writerId;
-        final String content;
-        int likes; // COUNT로 채움(가변)
-        final Timestamp createdAt;
-        PostDTO(int postId, String writerId, String content, int likes, Timestamp createdAt) {
-            this.postId = postId; this.writerId = writerId;
-            this.content = content; this.likes = likes; this.createdAt = createdAt;
-        }
-    }
-
-    // 댓글 1개를 메모리에 담아두는 DTO(좋아요 수는 가변)
-    private static class CommentDTO {
-        final int commentId;
-        final String writerId;
-        final String content;
-        int likes; // COUNT로 채움(가변)
-        final Timestamp createdAt;
-        CommentDTO(int commentId, String writerId, String content, int likes, Timestamp createdAt) {
-            this.commentId = commentId; this.writerId = writerId;
-            this.content = content; this.likes = likes; this.createdAt = createdAt;
-        }
-    }
 }
@@ -0,0 +1,268 @@
+/*
+ * 파일명: FeedRanker.java
+ * 목적: 인기순 피드(FeedPanel 인기순 모드)의 순위를 메모리에서 유지하는 랭커.
+ *       읽을 때마다 posts 전체를 점수로 ORDER BY 하지 않고, 상위 TOP_K개만 정렬된 채로 두고 이벤트로 조금씩 고친다.
+ *
+ * 점수(로그 공간)
+ *   score = ln(1 + W_LIKE * 좋아요 + W_COMMENT * 댓글) + W_LEVEL * 작성자 레벨 + 작성시각(초) / DECAY_SEC
+ * - 참여도에 exp(-나이 / DECAY_SEC)를 곱하는 시간 감쇠를 로그로 옮기면 "- 지금 / DECAY_SEC" 항이 모든 글에 같으므로
+ *   빼도 순위가 같다. 그래서 점수는 시간이 지나도 변하지 않고, 좋아요/댓글/레벨이 바뀐 글만 다시 계산하면 된다.
+ *   DECAY_SEC마다 참여도가 e배여야 같은 순위(새 글이 자연스럽게 위로).
+ *
+ * 자료구조
+ * - TreeSet<Entry>(점수 내림차순, 같으면 post_id 내림차순) + post_id → Entry 인덱스. TOP_K개를 넘으면 가장 낮은 것을 버린다.
+ * - 처음 읽을 때(warm) 최신 WINDOW개 글(PK 역순 범위 하나, LIMIT)과 작성자 레벨을 읽어 채운다.
+ *
+ * 갱신(EngagementEvents 구독, 커밋 후 발행 스레드에서)
+ * - POST_LIKED / COMMENTED: 상위 집합에 있는 글이면 수를 +1 하고 그 항목만 다시 넣는다(O(log K)).
+ *   작성자 레벨이 바뀌었을 수 있으므로 작성자를 dirtyAuthors에 표시.
+ *   상위 집합에 없는 글이면 touched에 모아 둔다.
+ * - PUBLISHED: touched에 넣는다.
+ * - 다음 읽기(rankedIds)에서 touched 글을 byIds 한 번으로, dirtyAuthors의 레벨을 LevelAdmin.levels 한 번으로 읽어 반영.
+ *   → 읽기 비용은 "그 사이 들어온 이벤트 수"에 비례하고 posts 크기와 무관하다.
+ * - DB 읽기 도중 이벤트를 받은 글(raced)은 그 읽기 결과로 덮지 않고 touched에 남겨 다음 읽기에서 다시 읽는다
+ *   (읽기 전에 본 수로 덮으면 그 사이 +1이 사라지므로).
+ *
+ * 다른 클라이언트/프로세스의 변경(EngagementEvents는 같은 프로세스 안에서만 발행된다)
+ * - 새 글: 읽을 때마다 DB에서 본 가장 큰 post_id(maxSeen)보다 새 글을 PK 범위 하나로 읽어 넣는다(Cursor.after).
+ * - 좋아요/댓글/레벨: SWEEP_MS마다 한 번 최신 WINDOW개와 그 밖의 상위 항목을 다시 읽고 모든 작성자 레벨을 다시 맞춘다(sweep).
+ *
+ * 읽기
+ * - rankedIds(con, limit): 점수 순 post_id(최대 limit개). FeedPanel은 새로고침마다 한 번 받아 두고 그 순서로 페이지를 나눈다.
+ *
+ * 설정
+ * - -Dtwitter.feed.rank.topK (기본 1000), -Dtwitter.feed.rank.window (기본 5000)
+ * - -Dtwitter.feed.rank.sweepMs (기본 30000, 0이면 읽을 때마다): 다른 클라이언트의 좋아요/댓글을 다시 읽는 간격
+ * - -Dtwitter.feed.rank.decayHours (기본 12), -Dtwitter.feed.rank.sloMs (기본 50): 읽기 지연 목표(넘은 횟수를 센다)
+ *
+ * 통계
+ * - stats(): 항목 수, 이벤트 반영 수, sweep 수, 읽기 도중 이벤트로 건너뛴 행 수,
+ *   읽기 횟수와 지연(p50/p99/max), SLO 초과 수, 이벤트 반영 지연(p99)
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import myPackage.PostRepository.PostRow;
+
+public class FeedRanker {
+
+    public static final int TOP_K = Math.max(1, Integer.getInteger("twitter.feed.rank.topK", 1000));
+    private static final int WINDOW = Math.max(TOP_K, Integer.getInteger("twitter.feed.rank.window", 5000));
+    private static final double DECAY_SEC = 3600.0 * Math.max(1, Integer.getInteger("twitter.feed.rank.decayHours", 12));
+    private static final long SLO_MICROS = 1000L * Math.max(1, Integer.getInteger("twitter.feed.rank.sloMs", 50));
+    private static final double W_LIKE = 1.0, W_COMMENT = 2.0, W_LEVEL = 0.1;
+    private static final int IN_CHUNK = 500;
+    private static final long SWEEP_NANOS = Math.max(0L, Long.getLong("twitter.feed.rank.sweepMs", 30_000L)) * 1_000_000L;
+
+    // 점수 내림차순, 같으면 최신 글 먼저
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int c = Double.compare(b.score, a.score);
+        return c != 0 ? c : Integer.compare(b.postId, a.postId);
+    };
+
+    private static final Object lock = new Object();
+    private static final TreeSet<Entry> top = new TreeSet<>(ORDER);          // lock
+    private static final HashMap<Integer, Entry> byId = new HashMap<>();     // lock
+    private static final Set<Integer> touched = new HashSet<>();             // lock: 상위 집합 밖에서 이벤트를 받은 글
+    private static final Set<String> dirtyAuthors = new HashSet<>();         // lock: 레벨을 다시 읽을 작성자
+    private static final Set<Integer> raced = new HashSet<>();               // lock: DB 읽기 도중 이벤트를 받은 글
+    private static int readsInFlight;                                        // lock
+    private static int maxSeen;                                              // lock: DB에서 읽은 가장 큰 post_id
+    private static long lastSweepNanos;                                      // lock
+    private static boolean warm;                                             // lock
+
+    private static final LongAdder reads = new LongAdder(), events = new LongAdder(),
+                                   sloMisses = new LongAdder(), evicted = new LongAdder(),
+                                   sweeps = new LongAdder(), racedSkips = new LongAdder();
+    private static final LatencyHistogram readLatency = new LatencyHistogram();
+    private static final LatencyHistogram eventLatency = new LatencyHistogram();
+
+    static {
+        EngagementEvents.subscribe(FeedRanker::onEvent);
+    }
+
+    // 상위 집합의 글 하나. 점수에 쓰는 필드는 집합에서 뺀 뒤에만 바꾼다
+    private static final class Entry {
+        final int postId;
+        final String writerId;
+        final long createdSec;
+        int likes, comments, level;
+        double score;
+
+        Entry(int postId, String writerId, long createdSec) {
+            this.postId = postId; this.writerId = writerId; this.createdSec = createdSec;
+        }
+
+        void rescore() {
+            score = Math.log1p(W_LIKE * likes + W_COMMENT * comments) + W_LEVEL * level + createdSec / DECAY_SEC;
+        }
+    }
+
+    /* ========= 이벤트 ========= */
+
+    private static void onEvent(EngagementEvents.Kind kind, int postId, String userId) {
+        long t0 = System.nanoTime();
+        synchronized (lock) {
+            if (readsInFlight > 0) raced.add(postId); // 진행 중인 읽기 결과가 이 이벤트 이전 값일 수 있음
+            if (!warm) return; // 채울 때 DB에서 최신 값을 읽는다
+            Entry e = byId.get(postId);
+            if (e == null || kind == EngagementEvents.Kind.PUBLISHED) {
+                touched.add(postId);
+            } else {
+                top.remove(e);
+                if (kind == EngagementEvents.Kind.POST_LIKED) e.likes++; else e.comments++;
+                e.rescore();
+                top.add(e);
+                dirtyAuthors.add(e.writerId); // 좋아요/댓글로 경험치가 올라 레벨이 바뀌었을 수 있음
+            }
+        }
+        events.increment();
+        eventLatency.recordNanos(System.nanoTime() - t0);
+    }
+
+    /* ========= 읽기 ========= */
+
+    /**
+     * 인기순 post_id(최대 limit개). 처음이면 최신 WINDOW개로 채우고, 그 사이 이벤트를 받은 글/작성자와 maxSeen 이후 새 글만
+     * DB에서 다시 읽는다. SWEEP_MS가 지났으면 최신 WINDOW개와 상위 항목 전체를 다시 읽는다
+     */
+    public static List<Integer> rankedIds(Connection con, int limit) throws SQLException {
+        long t0 = System.nanoTime();
+        boolean needWarm, sweep;
+        int after;
+        List<Integer> ids;
+        List<Integer> ranked;
+        List<String> authors;
+        synchronized (lock) {
+            needWarm = !warm;
+            sweep = needWarm || t0 - lastSweepNanos >= SWEEP_NANOS;
+            after = maxSeen;
+            ids = new ArrayList<>(touched);
+            ranked = sweep ? new ArrayList<>(byId.keySet()) : Collections.emptyList();
+            authors = new ArrayList<>(dirtyAuthors);
+            touched.clear();
+            dirtyAuthors.clear();
+            readsInFlight++;
+        }
+
+        List<PostRow> rows = new ArrayList<>();
+        Map<String, Integer> levels;
+        try {
+            if (sweep) {
+                // 최신 WINDOW개(PK 범위 하나) + 그보다 오래된 상위 항목/이벤트 글
+                PostRepository.recent(con, PostRepository.Projection.CARD, PostRepository.Cursor.first(WINDOW), rows::add);
+                Set<Integer> rest = new HashSet<>(ranked);
+                rest.addAll(ids);
+                for (PostRow r : rows) rest.remove(r.postId);
+                PostRepository.byIds(con, PostRepository.Projection.CARD, new ArrayList<>(rest), rows::add);
+            } else {
+                PostRepository.recent(con, PostRepository.Projection.CARD, PostRepository.Cursor.after(after, WINDOW), rows::add);
+                Set<Integer> fresh = new HashSet<>();
+                for (PostRow r : rows) fresh.add(r.postId);
+                ids.removeIf(fresh::contains);
+                PostRepository.byIds(con, PostRepository.Projection.CARD, ids, rows::add);
+            }
+            Set<String> writers = new HashSet<>(authors);
+            for (PostRow r : rows) writers.add(r.writerId);
+            levels = readLevels(con, writers);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (lock) {
+                touched.addAll(ids); // 다음 읽기에서 다시
+                dirtyAuthors.addAll(authors);
+                if (--readsInFlight == 0) raced.clear();
+            }
+            throw e;
+        }
+
+        List<Integer> out = new ArrayList<>(Math.min(limit, TOP_K));
+        synchronized (lock) {
+            for (PostRow r : rows) {
+                maxSeen = Math.max(maxSeen, r.postId);
+                if (raced.contains(r.postId)) { // 읽은 값이 그 사이 이벤트보다 오래됐을 수 있음 → 다음 읽기에서 다시
+                    touched.add(r.postId);
+                    racedSkips.increment();
+                    continue;
+                }
+                offer(r, levels.getOrDefault(r.writerId, 1));
+            }
+            if (sweep) {
+                relevel(levels, levels.keySet());
+                lastSweepNanos = t0;
+                sweeps.increment();
+            } else if (!authors.isEmpty()) {
+                relevel(levels, new HashSet<>(authors));
+            }
+            if (needWarm) warm = true;
+            if (--readsInFlight == 0) raced.clear();
+            for (Entry e : top) {
+                if (out.size() >= limit) break;
+                out.add(e.postId);
+            }
+        }
+
+        long micros = (System.nanoTime() - t0) / 1_000;
+        readLatency.record(micros);
+        reads.increment();
+        if (micros > SLO_MICROS) sloMisses.increment();
+        return out;
+    }
+
+    // 글 하나를 DB 값으로 넣거나 고친다(lock 안). TOP_K를 넘으면 가장 낮은 항목을 버린다
+    private static void offer(PostRow r, int level) {
+        Entry e = byId.get(r.postId);
+        if (e != null) {
+            top.remove(e);
+        } else {
+            e = new Entry(r.postId, r.writerId, r.createdAt != null ? r.createdAt.getTime() / 1000 : 0);
+        }
+        e.likes = r.likes;
+        e.comments = r.comments;
+        e.level = level;
+        e.rescore();
+        if (top.size() >= TOP_K && ORDER.compare(e, top.last()) > 0) { // 맨 끝보다 낮음 → 들이지 않음
+            byId.remove(e.postId);
+            return;
+        }
+        top.add(e);
+        byId.put(e.postId, e);
+        while (top.size() > TOP_K) {
+            byId.remove(top.pollLast().postId);
+            evicted.increment();
+        }
+    }
+
+    // 레벨이 바뀐 작성자의 항목만 다시 점수 계산(lock 안)
+    private static void relevel(Map<String, Integer> levels, Set<String> authors) {
+        List<Entry> changed = new ArrayList<>();
+        for (Entry e : byId.values()) {
+            Integer lv = levels.get(e.writerId);
+            if (lv != null && lv != e.level && authors.contains(e.writerId)) changed.add(e);
+        }
+        for (Entry e : changed) {
+            top.remove(e);
+            e.level = levels.get(e.writerId);
+            e.rescore();
+            top.add(e);
+        }
+    }
+
+    private static Map<String, Integer> readLevels(Connection con, Set<String> writers) throws SQLException {
+        Map<String, Integer> levels = new HashMap<>();
+        List<String> all = new ArrayList<>(writers);
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            levels.putAll(LevelAdmin.levels(con, all.subList(from, Math.min(from + IN_CHUNK, all.size()))));
+        }
+        return levels;
+    }
+
+    public static String stats() {
+        int size;
+        synchronized (lock) { size = top.size(); }
+        return String.format("[feed-rank] entries=%d/%d events=%d evicted=%d sweeps=%d racedSkips=%d | read n=%d p50=%dus p99=%dus max=%dus over %dms SLO=%d | event p99=%dus",
+                size, TOP_K, events.sum(), evicted.sum(), sweeps.sum(), racedSkips.sum(), reads.sum(), readLatency.percentile(50), readLatency.percentile(99),
+                readLatency.max(), SLO_MICROS / 1000, sloMisses.sum(), eventLatency.percentile(99));
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * 파일명: FeedSnapshot.java
+ * 목적: 사용자별로 마지막에 그린 피드 첫 페이지를 작은 바이너리 파일로 남겨, 다음 실행 때 DB를 기다리지 않고 바로 그리게 한다.
+ *
+ * 동작 개요
+ * - save(userId, rows): 피드 첫 페이지(최대 MAX_ROWS개)를 한 버퍼로 인코딩(EDT, 수 KB)한 뒤
+ *   전용 데몬 스레드(feed-snapshot-writer)에서 FileChannel로 임시 파일에 쓰고 force → 원래 이름으로 원자적 교체.
+ *   → 쓰는 도중 종료돼도 이전 스냅숏이 남거나 새 스냅숏이 온전히 남는다(반쯤 쓴 파일을 읽지 않음).
+ * - load(userId): 파일 전체를 FileChannel로 한 번에 읽어 PostRow 목록으로 푼다(EDT, DB 접근 없음, 수 KB).
+ *   (mmap은 Windows에서 매핑이 GC될 때까지 파일을 잠가 다음 저장의 교체가 실패하므로 쓰지 않는다)
+ *   형식/버전이 다르거나 잘린 파일, 길이 필드가 상한을 넘는 파일이면 할당 전에 거절하고 지운 뒤 빈 목록(다음 저장 때 다시 생김).
+ * - FeedPanel이 reload() 때 스냅숏을 먼저 그리고, 백그라운드로 받은 첫 페이지와 맞춰(reconcile) 바뀐 카드만 고친다.
+ *
+ * 파일 형식(빅엔디언)
+ *   int MAGIC, short VERSION, long 저장시각(ms), int 행 수,
+ *   행마다: int post_id, int 좋아요 수, int 댓글 수, byte 좋아요 여부, long 작성시각(ms, 없으면 -1),
+ *           short 작성자 길이 + UTF-8, int 본문 길이(≤ MAX_CONTENT_BYTES) + UTF-8
+ *
+ * 설정
+ * - -Dtwitter.feed.snapshot (기본 true): 끄면 저장/읽기를 모두 건너뜀
+ * - -Dtwitter.feed.snapshotDir (기본 ${user.home}/.twitter-term/snapshots): 파일 위치(feed-<사용자 id hex>.bin)
+ *
+ * 통계
+ * - stats(): 읽기 적중/없음/손상 수, 마지막 읽기 지연(us), 저장 수/실패 수/바이트,
+ *   맞추기 결과(그대로 둔/고친/새로 만든/뺀 카드 수)
+ */
+
+package myPackage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import myPackage.PostRepository.PostRow;
+
+public class FeedSnapshot {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("twitter.feed.snapshot", "true"));
+    static final int MAX_ROWS = FeedPanel.PAGE_SIZE;
+    private static final Path DIR = Paths.get(System.getProperty("twitter.feed.snapshotDir",
+            Paths.get(System.getProperty("user.home"), ".twitter-term", "snapshots").toString()));
+
+    private static final int MAGIC = 0x54574653; // "TWFS"
+    private static final short VERSION = 1;
+
+    // 읽기 상한: 손상된 길이 필드로 큰 배열을 잡지 않도록(posts.content는 TEXT = 64KB, 넉넉히 잡음)
+    private static final int MAX_CONTENT_BYTES = 256 * 1024;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 4;
+    private static final int MAX_ROW_BYTES = 4 + 4 + 4 + 1 + 8 + 2 + 0xFFFF + 4 + MAX_CONTENT_BYTES;
+    private static final long MAX_FILE_BYTES = HEADER_BYTES + (long) MAX_ROWS * MAX_ROW_BYTES;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "feed-snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final LongAdder hits = new LongAdder(), misses = new LongAdder(), corrupt = new LongAdder(),
+                                   saves = new LongAdder(), saveFailures = new LongAdder();
+    private static final LongAdder kept = new LongAdder(), patched = new LongAdder(),
+                                   added = new LongAdder(), removed = new LongAdder();
+    private static final AtomicLong lastLoadMicros = new AtomicLong(), bytesWritten = new AtomicLong();
+
+    private static Path fileFor(String userId) {
+        StringBuilder hex = new StringBuilder("feed-");
+        for (byte b : userId.getBytes(StandardCharsets.UTF_8)) hex.append(String.format("%02x", b)); // 파일명에 못 쓰는 문자 방지
+        return DIR.resolve(hex.append(".bin").toString());
+    }
+
+    /** userId의 마지막 스냅숏(없거나 읽을 수 없으면 빈 목록) */
+    public static List<PostRow> load(String userId) {
+        List<PostRow> rows = new ArrayList<>();
+        if (!ENABLED || userId == null || userId.isEmpty()) return rows;
+        long t0 = System.nanoTime();
+        Path file = fileFor(userId);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > MAX_FILE_BYTES) throw new IllegalStateException("file too large: " + size);
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+            buf.flip();
+            if (buf.getInt() != MAGIC || buf.getShort() != VERSION) throw new IllegalStateException("unknown format");
+            buf.getLong(); // 저장 시각(진단용)
+            int n = buf.getInt();
+            if (n < 0 || n > MAX_ROWS) throw new IllegalStateException("bad row count: " + n);
+            for (int i = 0; i < n; i++) {
+                int postId = buf.getInt(), likes = buf.getInt(), comments = buf.getInt();
+                boolean liked = buf.get() != 0;
+                long created = buf.getLong();
+                String writerId = readString(buf, buf.getShort() & 0xFFFF);
+                int contentLen = buf.getInt();
+                if (contentLen > MAX_CONTENT_BYTES) throw new IllegalStateException("content too long: " + contentLen);
+                String content = readString(buf, contentLen);
+                PostRow r = new PostRow(postId, writerId, content, likes, created < 0 ? null : new Timestamp(created));
+                r.comments = comments;
+                r.liked = liked;
+                rows.add(r);
+            }
+            hits.increment();
+        } catch (NoSuchFileException e) {
+            misses.increment();
+        } catch (IOException | RuntimeException e) { // 잘림(BufferUnderflow), 형식 불일치 등
+            corrupt.increment();
+            rows.clear();
+            System.out.println("[feed-snapshot] discard " + file + ": " + e);
+            try { Files.deleteIfExists(file); } catch (IOException ignore) { }
+        }
+        lastLoadMicros.set((System.nanoTime() - t0) / 1_000);
+        return rows;
+    }
+
+    /** rows(화면 순서, 앞에서 MAX_ROWS개)를 userId의 스냅숏으로 저장(인코딩은 호출 스레드, 파일 쓰기는 백그라운드) */
+    public static void save(String userId, List<PostRow> rows) {
+        if (!ENABLED || userId == null || userId.isEmpty()) return;
+        ByteBuffer buf = encode(rows.subList(0, Math.min(rows.size(), MAX_ROWS)));
+        Path file = fileFor(userId);
+        writer.execute(() -> {
+            try {
+                write(file, buf);
+                saves.increment();
+                bytesWritten.addAndGet(buf.limit());
+            } catch (IOException e) {
+                saveFailures.increment();
+                System.out.println("[feed-snapshot] save failed " + file + ": " + e);
+            }
+        });
+    }
+
+    /** FeedPanel이 스냅숏 카드를 DB 첫 페이지에 맞춘 결과(통계용) */
+    static void reconciled(int keptCards, int patchedCards, int addedCards, int removedCards) {
+        kept.add(keptCards);
+        patched.add(patchedCards);
+        added.add(addedCards);
+        removed.add(removedCards);
+    }
+
+    private static ByteBuffer encode(List<PostRow> rows) {
+        List<PostRow> out = new ArrayList<>(rows.size());
+        List<byte[]> writers = new ArrayList<>(rows.size()), contents = new ArrayList<>(rows.size());
+        int size = HEADER_BYTES;
+        for (PostRow r : rows) {
+            byte[] w = utf8(r.writerId), c = utf8(r.content);
+            if (w.length > 0xFFFF) w = new byte[0];
+            if (c.length > MAX_CONTENT_BYTES) continue; // 읽기 상한을 넘는 글은 빼 둔다(맞추기 때 새 카드로 그려짐)
+            out.add(r);
+            writers.add(w);
+            contents.add(c);
+            size += 4 + 4 + 4 + 1 + 8 + 2 + w.length + 4 + c.length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC).putShort(VERSION).putLong(System.currentTimeMillis()).putInt(out.size());
+        for (int i = 0; i < out.size(); i++) {
+            PostRow r = out.get(i);
+            buf.putInt(r.postId).putInt(r.likes).putInt(r.comments).put((byte) (r.liked ? 1 : 0))
+               .putLong(r.createdAt == null ? -1 : r.createdAt.getTime());
+            buf.putShort((short) writers.get(i).length).put(writers.get(i));
+            buf.putInt(contents.get(i).length).put(contents.get(i));
+        }
+        buf.flip();
+        return buf;
+    }
+
+    // 임시 파일에 다 쓰고 디스크에 내린 뒤 원래 이름으로 교체
+    private static void write(Path file, ByteBuffer buf) throws IOException {
+        Files.createDirectories(DIR);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = buf.duplicate();
+            while (b.hasRemaining()) ch.write(b);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 길이는 남은 바이트 안이어야 한다(아니면 RuntimeException → load()가 파일을 버림)
+    private static String readString(ByteBuffer buf, int len) {
+        if (len < 0 || len > buf.remaining()) throw new IllegalStateException("bad string length: " + len);
+        byte[] b = new byte[len];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    public static String stats() {
+        return String.format("[feed-snapshot] %s loads hit=%d miss=%d corrupt=%d last=%dus | saves=%d failed=%d bytes=%d"
+                        + " | reconcile kept=%d patched=%d added=%d removed=%d",
+                ENABLED ? DIR : "off", hits.sum(), misses.sum(), corrupt.sum(), lastLoadMicros.get(),
+                saves.sum(), saveFailures.sum(), bytesWritten.get(),
+                kept.sum(), patched.sum(), added.sum(), removed.sum());
+    }
+}
@@ -6,10 +6,13 @@
  * - 팔로우 여부 확인(isFollowing)
  * - 팔로우(follow): 관계 생성, 양측 카운트 갱신, 대상 사용자 경험치(+50) 부여
  * - 언팔로우(unfollow): 관계 삭제, 양측 카운트 감소
+ * - 커밋 후 홈 타임라인 갱신을 TimelineFanout에 맡긴다(팔로우: 대상의 최근 글 채움 / 언팔로우: 대상의 글 제거, 비동기)
  *
  * 트랜잭션 처리
- * - follow/unfollow는 자동커밋을 끄고(setAutoCommit(false)) 다단계 변경을 하나의 트랜잭션으로 처리
- * - 중간 실패 시 rollback, 성공 시 commit 후 원래 자동커밋 상태 복구
+ * - follow/unfollow는 TxExecutor.inTransaction으로 다단계 변경을 하나의 트랜잭션으로 처리
+ *   (중간 실패 시 rollback, 데드락/락 대기 타임아웃이면 자동 재시도)
+ * - 중복 검사는 별도 SELECT 없이 INSERT IGNORE 결과(0건)로 판단, user 행은 user_id 순서로 잠근다
+ * - -Dtwitter.engagement.mode=group 이면 EngagementWriter가 다른 쓰기들과 묶어 한 트랜잭션으로 커밋한다
  *
  * 무결성/중복 방지
  * - following(user_id, follower_id)에 대한 UNIQUE 제약(uq_follow) 전제
@@ -19,8 +22,8 @@
  * - 팔로우 성공 시: 팔로우를 받은 사용자(target)에게 +50 EXP (LevelAdmin.info)
  *
  * 예외 처리
- * - SQLIntegrityConstraintViolationException: 중복 팔로우 시 false 반환
- * - 기타 예외: 롤백 후 SQLException으로 래핑/전파
+ * - SQLIntegrityConstraintViolationException: 제약 위반 시 false 반환
+ * - 기타 예외: 롤백 후 SQLException 전파
  */
 
 package myPackage;
@@ -36,7 +39,7 @@ public class Follow {
 
         // me(팔로워)가 target(피팔로우)을 팔로우 하고 있는지 단순 조회
         String sql = "SELECT 1 FROM following WHERE user_id=? AND follower_id=? LIMIT 1";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, target);   // target: 팔로우 당하는 사람
             ps.setString(2, me);       // me: 팔로우 하는 사람
@@ -52,63 +55,44 @@ public class Follow {
         if (follower == null || target == null || follower.isBlank() || target.isBlank()) return false;
         if (follower.equals(target)) return false;
 
-        Connection con = DBConn.getConnection();
-        boolean oldAuto = con.getAutoCommit();
-        con.setAutoCommit(false); // 트랜잭션 시작
+        boolean done;
         try {
-            // 1) 중복 관계 검사
-            String check = "SELECT 1 FROM following WHERE user_id=? AND follower_id=? LIMIT 1";
-            try (PreparedStatement ps = con.prepareStatement(check)) {
-                ps.setString(1, target);
-                ps.setString(2, follower);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        // 이미 팔로우 중 → 롤백 후 false
-                        con.rollback();
-                        con.setAutoCommit(oldAuto);
-                        return false;
-                    }
-                }
+            if (EngagementWriter.ENABLED) {
+                // 그룹 커밋 모드: 다른 사용자들의 쓰기와 한 트랜잭션으로 묶여 커밋될 때까지 대기
+                done = EngagementWriter.await(EngagementWriter.follow(follower, target));
+            } else {
+                // 데드락/락 대기 타임아웃이면 TxExecutor가 처음부터 재시도
+                done = TxExecutor.inTransaction("follow", con -> applyFollow(con, follower, target));
             }
-
-            // 2) following 관계 입력
-            String insert = "INSERT INTO following(user_id, follower_id) VALUES(?, ?)";
-            try (PreparedStatement ps = con.prepareStatement(insert)) {
-                ps.setString(1, target);
-                ps.setString(2, follower);
-                ps.executeUpdate();
-            }
-
-            // 3) 카운트 갱신: target의 followers +1, follower의 followings +1
-            try (PreparedStatement ps1 = con.prepareStatement(
-                         "UPDATE user SET followers = followers + 1 WHERE user_id=?");
-                 PreparedStatement ps2 = con.prepareStatement(
-                         "UPDATE user SET followings = followings + 1 WHERE user_id=?")) {
-                ps1.setString(1, target);
-                ps1.executeUpdate();
-                ps2.setString(1, follower);
-                ps2.executeUpdate();
-            }
-
-            // 4) 경험치 부여: 팔로우 받은 사용자(target)에게 +50
-            LevelAdmin.info(con, target, 50);
-
-            // 커밋 및 자동커밋 복원
-            con.commit();
-            con.setAutoCommit(oldAuto);
-            System.out.println("Follow successfully");
-            return true;
         } catch (SQLIntegrityConstraintViolationException dup) {
-            // UNIQUE 제약으로 인한 중복 삽입 등
-            con.rollback();
-            con.setAutoCommit(oldAuto);
+            // UNIQUE/FK 제약 위반(존재하지 않는 사용자 등)
             return false;
-        } catch (Exception e) {
-            // 기타 예외: 롤백 후 SQLException으로 래핑
-            con.rollback();
-            con.setAutoCommit(oldAuto);
-            throw e instanceof SQLException ? (SQLException)e : new SQLException(e);
         }
+        if (done) {
+            DBConn.noteWrite(follower); // 직후 보드/추천 조회는 primary에서(read-your-writes)
+            TimelineFanout.followed(follower, target);
+            System.out.println("Follow successfully");
+        }
+        return done;
+    }
+
+    /** 주어진 트랜잭션 안에서 팔로우 반영(관계 + 카운트 + 경험치). 변화 없으면 false */
+    static boolean applyFollow(Connection con, String follower, String target) throws SQLException {
+        // 1) 관계 입력: 중복이면 UNIQUE(uq_follow)에 막혀 0건 → 변화 없음
+        //    (조회 후 INSERT하면 두 트랜잭션이 같은 갭 락을 잡고 서로를 기다리는 데드락이 생긴다)
+        String insert = "INSERT IGNORE INTO following(user_id, follower_id) VALUES(?, ?)";
+        try (PreparedStatement ps = con.prepareStatement(insert)) {
+            ps.setString(1, target);
+            ps.setString(2, follower);
+            if (ps.executeUpdate() == 0) return false; // 이미 팔로우 중
+        }
+
+        // 2) 카운트 갱신: 항상 user_id 순서로 잠가 맞팔로우 동시 요청 간 교착을 피한다
+        updateCounts(con, target, follower, "+ 1");
+
+        // 3) 경험치 부여: 팔로우 받은 사용자(target)에게 +50
+        LevelAdmin.info(con, target, 50);
+        return true;
     }
 
     /** 언팔로우: 성공 시 true, (관계가 없던 경우 등) 변화 없으면 false */
@@ -117,45 +101,43 @@ public class Follow {
         if (follower == null || target == null || follower.isBlank() || target.isBlank()) return false;
         if (follower.equals(target)) return false;
 
-        Connection con = DBConn.getConnection();
-        boolean oldAuto = con.getAutoCommit();
-        con.setAutoCommit(false); // 트랜잭션 시작
-        try {
-            // 1) 관계 삭제
-            int affected;
-            String del = "DELETE FROM following WHERE user_id=? AND follower_id=?";
-            try (PreparedStatement ps = con.prepareStatement(del)) {
-                ps.setString(1, target);
-                ps.setString(2, follower);
-                affected = ps.executeUpdate();
-            }
-            if (affected == 0) {
-                // 원래 팔로우가 아니었음 → 롤백 후 false
-                con.rollback();
-                con.setAutoCommit(oldAuto);
-                return false;
-            }
+        boolean done = EngagementWriter.ENABLED
+                ? EngagementWriter.await(EngagementWriter.unfollow(follower, target))
+                : TxExecutor.inTransaction("unfollow", con -> applyUnfollow(con, follower, target));
+        if (done) {
+            DBConn.noteWrite(follower);
+            TimelineFanout.unfollowed(follower, target);
+            System.out.println("Unfollow successfully");
+        }
+        return done;
+    }
 
-            // 2) 카운트 감소 (최소 0 보장)
-            try (PreparedStatement ps1 = con.prepareStatement(
-                         "UPDATE user SET followers = GREATEST(0, followers - 1) WHERE user_id=?");
-                 PreparedStatement ps2 = con.prepareStatement(
-                         "UPDATE user SET followings = GREATEST(0, followings - 1) WHERE user_id=?")) {
-                ps1.setString(1, target);
-                ps1.executeUpdate();
-                ps2.setString(1, follower);
-                ps2.executeUpdate();
-            }
+    /** 주어진 트랜잭션 안에서 언팔로우 반영(관계 삭제 + 카운트 감소). 관계가 없었으면 false */
+    static boolean applyUnfollow(Connection con, String follower, String target) throws SQLException {
+        // 1) 관계 삭제
+        String del = "DELETE FROM following WHERE user_id=? AND follower_id=?";
+        try (PreparedStatement ps = con.prepareStatement(del)) {
+            ps.setString(1, target);
+            ps.setString(2, follower);
+            if (ps.executeUpdate() == 0) return false; // 원래 팔로우가 아니었음
+        }
 
-            // 커밋 및 자동커밋 복원
-            con.commit();
-            con.setAutoCommit(oldAuto);
-            System.out.println("Unfollow successfully");
-            return true;
-        } catch (Exception e) {
-            con.rollback();
-            con.setAutoCommit(oldAuto);
-            throw e instanceof SQLException ? (SQLException)e : new SQLException(e);
+        // 2) 카운트 감소 (최소 0 보장)
+        updateCounts(con, target, follower, "- 1");
+        return true;
+    }
+
+    // target.followers / follower.followings 갱신. 잠금 순서를 user_id 오름차순으로 고정한다.
+    private static void updateCounts(Connection con, String target, String follower, String delta) throws SQLException {
+        String followersSql  = "UPDATE user SET followers = GREATEST(0, followers " + delta + ") WHERE user_id=?";
+        String followingsSql = "UPDATE user SET followings = GREATEST(0, followings " + delta + ") WHERE user_id=?";
+        boolean targetFirst = target.compareTo(follower) < 0;
+        try (PreparedStatement ps1 = con.prepareStatement(targetFirst ? followersSql : followingsSql);
+             PreparedStatement ps2 = con.prepareStatement(targetFirst ? followingsSql : followersSql)) {
+            ps1.setString(1, targetFirst ? target : follower);
+            ps1.executeUpdate();
+            ps2.setString(1, targetFirst ? follower : target);
+            ps2.executeUpdate();
         }
     }
 }
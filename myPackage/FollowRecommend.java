@@ -6,8 +6,6 @@ public class FollowRecommend {
 
     public static void showRecommend(String userId) throws SQLException {
 
-        Connection con = DBConn.getConnection();
-
         String recommend =
             "select distinct f2.user_id as recommend " +
             "from following f1 " +
@@ -15,26 +13,25 @@ public class FollowRecommend {
             "where f1.follower_id=? and f2.user_id<>? and " +
             "f2.user_id not in (select user_id from following where follower_id=?)";
 
-        PreparedStatement ps = con.prepareStatement(recommend);
-        ps.setString(1, userId);
-        ps.setString(2, userId);
-        ps.setString(3, userId);
-
-        ResultSet rs = ps.executeQuery();
-
-        System.out.println("=== Follow Recommendations ===");
-        boolean exist = false;
-
-        while (rs.next()) {
-            System.out.println("- " + rs.getString("recommend"));
-            exist = true;
+        try (Connection con = DBConn.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(recommend)) {
+            ps.setString(1, userId);
+            ps.setString(2, userId);
+            ps.setString(3, userId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                System.out.println("=== Follow Recommendations ===");
+                boolean exist = false;
+
+                while (rs.next()) {
+                    System.out.println("- " + rs.getString("recommend"));
+                    exist = true;
+                }
+
+                if (!exist) {
+                    System.out.println("No user to recommend.");
+                }
+            }
         }
-
-        if (!exist) {
-            System.out.println("No user to recommend.");
-        }
-
-        rs.close();
-        ps.close();
     }
 }
@@ -15,7 +15,7 @@
  *
  * 3) 상호작용
  *    - [Open]: TwitterApp.openPersonalBoard(targetId) 호출로 해당 유저의 보드 전환
- *    - [Follow]/[Unfollow]:
+ *    - [Follow]/[Unfollow]: (DbExecutor 백그라운드 실행, 결과는 EDT 콜백에서 반영)
  *         · Follow.isFollowing(...)로 현재 관계 확인
  *         · Follow.follow(...) 또는 Follow.unfollow(...) 실행
  *         · 성공 시: 내 보드/상대 보드의 상단 헤더(팔로워/팔로잉, 레벨 등) 즉시 갱신
@@ -132,7 +132,7 @@ public class FollowRecommendPanel extends JPanel {
             "  AND f2.user_id <> ? " +
             "  AND f2.user_id NOT IN (SELECT user_id FROM following WHERE follower_id = ?) " +
             "LIMIT ?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             ps.setString(2, userId);
@@ -157,7 +157,7 @@ public class FollowRecommendPanel extends JPanel {
             "  AND u.user_id NOT IN (SELECT user_id FROM following WHERE follower_id = ?) " +
             "ORDER BY u.followers DESC " +
             "LIMIT ?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             ps.setString(2, userId);
@@ -181,7 +181,7 @@ public class FollowRecommendPanel extends JPanel {
             "  AND u.user_id NOT IN (SELECT user_id FROM following WHERE follower_id = ?) " +
             "ORDER BY RAND() " +
             "LIMIT ?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             ps.setString(2, userId);
@@ -237,32 +237,33 @@ public class FollowRecommendPanel extends JPanel {
                 return;
             }
 
-            // 현재 상태 조회
-            boolean nowFollowing = false;
-            try { nowFollowing = Follow.isFollowing(cur, targetId); } catch (Exception ignored) {}
+            // 상태 조회 + 팔로우/언팔로우는 DbExecutor에서(EDT 블로킹 방지), 결과 반영은 콜백(EDT)에서
+            followBtn.setEnabled(false);
+            final boolean[] wasFollowing = new boolean[1];
+            DbExecutor.submit(() -> {
+                wasFollowing[0] = Follow.isFollowing(cur, targetId);
+                return wasFollowing[0] ? Follow.unfollow(cur, targetId)
+                                       : Follow.follow(cur, targetId);
+            }, (ok, err) -> {
+                followBtn.setEnabled(true);
+                boolean nowFollowing = wasFollowing[0];
+                if (err != null) err.printStackTrace();
+                if (!Boolean.TRUE.equals(ok)) {
+                    JOptionPane.showMessageDialog(this,
+                            nowFollowing ? "언팔로우 실패" : "팔로우 실패",
+                            "오류", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            boolean ok = false;
-            try {
-                ok = nowFollowing ? Follow.unfollow(cur, targetId)
-                                  : Follow.follow(cur, targetId);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
-            if (!ok) {
-                JOptionPane.showMessageDialog(this,
-                        nowFollowing ? "언팔로우 실패" : "팔로우 실패",
-                        "오류", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // 성공 시: 내 보드/상대 보드 숫자·레벨 등 상단 헤더 즉시 갱신
-            app.refreshPersonalBoardHeader(cur);       // 내 보드(팔로잉 수)
-            app.refreshPersonalBoardHeader(targetId);  // 상대 보드(팔로워 수)
+                // 성공 시: 내 보드/상대 보드 숫자·레벨 등 상단 헤더 즉시 갱신
+                app.refreshPersonalBoardHeader(cur);       // 내 보드(팔로잉 수)
+                app.refreshPersonalBoardHeader(targetId);  // 상대 보드(팔로워 수)
 
-            // 버튼 라벨 토글
-            followBtn.setText(nowFollowing ? "Follow" : "Unfollow");
-            // 추천 목록 재구성(변경 반영)
-            reload();
+                // 버튼 라벨 토글
+                followBtn.setText(nowFollowing ? "Follow" : "Unfollow");
+                // 추천 목록 재구성(변경 반영)
+                reload();
+            });
         });
 
         return row;
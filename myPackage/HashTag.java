@@ -5,35 +5,19 @@ import java.sql.*;
 public class HashTag{
 
     public static void search(String tag) throws SQLException {
-        Connection con = DBConn.getConnection();
-
-        String tagQuery =
-            "select p.post_id, p.writer_id, p.content " +
-            "from posts p join post_tag t on p.post_id = t.post_id " +
-            "where t.tag=?";
-
-        PreparedStatement ps = con.prepareStatement(tagQuery);
-        ps.setString(1, tag);
-
-        ResultSet rs = ps.executeQuery();
-
-        System.out.println("=== Posts with hashtag #" + tag + " ===");
-        boolean exist = false;
-
-        while (rs.next()) {
-            int id = rs.getInt("post_id");
-            String writer = rs.getString("writer_id");
-            String content = rs.getString("content");
-
-            System.out.println("[" + id + "] " + writer + ": " + content);
-            exist = true;
-        }
-
-        if (!exist) {
-            System.out.println("No posts found for this hashtag.");
+        try (Connection con = DBConn.getReadConnection()) {
+            System.out.println("=== Posts with hashtag #" + tag + " ===");
+            boolean[] exist = {false};
+
+            // 번호/작성자/본문만 필요 → TEXT 프로젝션, 행마다 바로 출력
+            PostRepository.byTag(con, PostRepository.Projection.TEXT, tag, PostRepository.Cursor.ALL, row -> {
+                System.out.println("[" + row.postId + "] " + row.writerId + ": " + row.content);
+                exist[0] = true;
+            });
+
+            if (!exist[0]) {
+                System.out.println("No posts found for this hashtag.");
+            }
         }
-
-        rs.close();
-        ps.close();
     }
 }
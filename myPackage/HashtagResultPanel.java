@@ -8,11 +8,15 @@
  *
  * 2) UI 구성
  *    - 상단 헤더: [← Back] 버튼(메인으로 복귀), "Results for #tag" 타이틀, ESC 키로 뒤로가기 단축키
- *    - 본문 리스트: BoxLayout + JScrollPane. 각 행은 FeedCardFactory.createPostCard(...)를 사용해 공통 카드 UI 재사용
+ *    - 본문 리스트: PostListView(가상화 목록). 보이는 행만 그리고, 누른 행만 FeedCardFactory.createPostCard(...) 카드로 바뀜
+ *      → 결과가 수만 개여도 컴포넌트 수/레이아웃 비용은 화면 크기만큼
  *
  * 3) 데이터 로딩
- *    - posts, post_tag 조인으로 해당 태그의 게시글을 최신(post_id DESC) 순으로 조회
- *    - 좋아요 수는 서브쿼리( post_like COUNT )로 계산
+ *    - PostRepository.byTag(posts, post_tag 조인)로 해당 태그의 게시글을 최신(post_id DESC) 순으로 조회
+ *    - 좋아요 수는 posts.num_of_likes 컬럼(좋아요 쓰기 경로가 같은 트랜잭션에서 유지, LikeCounterReconciler가 보정)
+ *    - 조회/매핑은 DbExecutor.stream(백그라운드)에서, 행은 PostListView.APPEND_CHUNK개씩 도착하는 대로 EDT에서 붙임('검색 중…' 표시)
+ *    - 현재 사용자의 좋아요 여부는 묶음마다 PostRepository.streamLiked가 한 번에 채워 목록에 넘김
+ *    - 다시 검색하거나 화면을 떠나면 진행 중 조회를 취소(떠난 동안 취소됐으면 다시 보일 때 재조회)
  *    - 결과가 없으면 'No posts found for #tag' 문구 표시
  *
  * 4) 상호작용
@@ -27,13 +31,15 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.sql.*;
-import java.sql.Timestamp; // ← 명시 import
+import java.util.concurrent.Future;
 
 public class HashtagResultPanel extends JPanel {
 
     private final TwitterApp app;
     private final String tag; // '#' 없이 저장
-    private final JPanel listPanel = new JPanel();
+    private final PostListView posts;
+    private Future<?> pendingLoad;   // 진행 중 조회(EDT에서만 접근)
+    private boolean stale;           // 조회 도중 화면을 떠나 취소됨 → 다시 보일 때 재조회
 
     public HashtagResultPanel(TwitterApp app, String tag) {
         this.app = app;
@@ -42,13 +48,21 @@ public class HashtagResultPanel extends JPanel {
 
         add(buildHeader(), BorderLayout.NORTH);
 
-        listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-        JScrollPane scroll = new JScrollPane(
-                listPanel,
-                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
-                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER
-        );
-        add(scroll, BorderLayout.CENTER);
+        posts = new PostListView(app);
+        add(posts, BorderLayout.CENTER);
+
+        // 다른 화면으로 전환되면(CardLayout에서 숨김) 진행 중 조회 취소, 다시 보이면 재조회
+        addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override public void componentHidden(java.awt.event.ComponentEvent e) {
+                if (pendingLoad == null) return;
+                pendingLoad.cancel(true);
+                pendingLoad = null;
+                stale = true;
+            }
+            @Override public void componentShown(java.awt.event.ComponentEvent e) {
+                if (stale) reload();
+            }
+        });
 
         reload();
     }
@@ -79,75 +93,29 @@ public class HashtagResultPanel extends JPanel {
         return header;
     }
 
+    /** 결과 다시 조회: 조회/매핑/좋아요 여부는 백그라운드, 행은 APPEND_CHUNK개씩 EDT에서 목록에 붙임(이전 조회는 취소) */
     public void reload() {
-        listPanel.removeAll();
-        String sql = """
-                SELECT p.post_id,
-                       p.writer_id,
-                       p.content,
-                       (SELECT COUNT(*) FROM post_like pl WHERE pl.post_id = p.post_id) AS like_cnt,
-                       p.created_at
-                FROM posts p
-                JOIN post_tag t ON p.post_id = t.post_id
-                WHERE t.tag = ?
-                ORDER BY p.post_id DESC
-                """;
-        try (Connection con = DBConn.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setString(1, tag);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                boolean any = false;
-                while (rs.next()) {
-                    any = true;
-
-                    // 이 패널 전용 DTO 생성 (공통 인터페이스 구현)
-                    PostDTO p = new PostDTO(
-                            rs.getInt("post_id"),
-                            rs.getString("writer_id"),
-                            rs.getString("content"),
-                            rs.getInt("like_cnt"),
-                            rs.getTimestamp("created_at")
-                    );
-
-                    // 공통 카드 UI 재사용
-                    listPanel.add(FeedCardFactory.createPostCard(app, p));
-                    listPanel.add(Box.createVerticalStrut(8));
-                }
-                if (!any) {
-                    listPanel.add(new JLabel("No posts found for #" + tag));
-                }
+        if (pendingLoad != null) pendingLoad.cancel(true);
+        stale = false;
+        posts.clear();
+        posts.setStatus("검색 중…");
+        final String uid = app.getCurrentUserId();
+        pendingLoad = DbExecutor.<PostRepository.PostRow>stream(out -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                // 태그 결과를 매핑하는 대로 APPEND_CHUNK개마다 좋아요 여부를 한 번에 채워 내보낸다
+                PostRepository.streamLiked(con, uid, PostListView.APPEND_CHUNK,
+                        h -> PostRepository.byTag(con, PostRepository.Projection.CARD, tag, PostRepository.Cursor.ALL, h), out);
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            listPanel.add(new JLabel("검색 중 오류가 발생했습니다."));
-        }
-
-        listPanel.revalidate();
-        listPanel.repaint();
-    }
-
-    /** 이 패널 전용 DTO: 공통 인터페이스 구현 */
-    public static class PostDTO implements FeedCardFactory.PostViewDTO {
-        public final int postId;
-        public final String writerId;
-        public final String content;
-        public final int likeCount;
-        public final Timestamp createdAt;
-
-        public PostDTO(int postId, String writerId, String content, int likeCount, Timestamp createdAt) {
-            this.postId = postId;
-            this.writerId = writerId;
-            this.content = content;
-            this.likeCount = likeCount;
-            this.createdAt = createdAt;
-        }
-
-        @Override public int getPostId() { return postId; }
-        @Override public String getWriterId() { return writerId; }
-        @Override public String getContent() { return content; }
-        @Override public int getLikeCount() { return likeCount; }
-        @Override public Timestamp getCreatedAt() { return createdAt; }
+        }, PostListView.APPEND_CHUNK, chunk -> posts.append(chunk, p -> p.liked), (r, err) -> {
+            pendingLoad = null;
+            if (err != null) {
+                err.printStackTrace();
+                posts.setStatus("검색 중 오류가 발생했습니다.");
+            } else if (posts.getRowCount() == 0) {
+                posts.setStatus("No posts found for #" + tag);
+            } else {
+                posts.setStatus(posts.getRowCount() + " posts");
+            }
+        });
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * 파일명: Hashtags.java
+ * 목적: 게시글 본문에서 해시태그를 뽑아 post_tag에 저장하는 공용 로직.
+ *       (PostWriterMain 즉시 게시, ReservedPostWorker 예약 게시가 같은 규칙을 쓰도록 한 곳에 모음)
+ *
+ * 규칙
+ * - '#' 뒤의 영문/숫자/밑줄/한글 연속 문자열을 태그로 본다.
+ * - 소문자로 정규화하고 최대 50자(post_tag.tag 길이)로 자른다.
+ * - 한 본문 안의 중복 태그는 한 번만 저장한다(등장 순서 유지).
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class Hashtags {
+
+    // 해시태그 추출 정규식: 영문/숫자/밑줄/한글
+    public static final Pattern TAG = Pattern.compile("#([\\p{IsAlphabetic}\\p{IsDigit}_가-힣]+)");
+
+    private static final int MAX_LEN = 50;
+
+    /** 본문에서 정규화된 태그 목록(중복 제거, 등장 순서) */
+    public static List<String> extract(String content) {
+        if (content == null || content.isEmpty() || content.indexOf('#') < 0) return new ArrayList<>();
+
+        Set<String> out = new LinkedHashSet<>();
+        Matcher m = TAG.matcher(content);
+        while (m.find()) {
+            String raw = m.group(1);
+            if (raw == null || raw.isBlank()) continue;
+
+            // 정규화: 소문자, 길이 제한
+            String norm = raw.trim().toLowerCase();
+            if (norm.length() > MAX_LEN) norm = norm.substring(0, MAX_LEN);
+            out.add(norm);
+        }
+        return new ArrayList<>(out);
+    }
+
+    /**
+     * 본문의 태그를 post_tag에 저장한다(호출측 트랜잭션 안에서).
+     * - INSERT IGNORE: 이미 있는 (post_id, tag)는 무시(UNIQUE(post_id, tag) 전제).
+     */
+    public static void save(Connection con, int postId, String content) throws SQLException {
+        List<String> tags = extract(content);
+        if (tags.isEmpty()) return;
+
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT IGNORE INTO post_tag(post_id, tag) VALUES(?, ?)")) {
+            for (String tag : tags) {
+                ps.setInt(1, postId);
+                ps.setString(2, tag);
+                ps.addBatch();
+            }
+            ps.executeBatch(); // 배치로 한 번에 INSERT
+        }
+    }
+}
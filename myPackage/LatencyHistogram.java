@@ -0,0 +1,84 @@
+/*
+ * 파일명: LatencyHistogram.java
+ * 목적: 지연시간(마이크로초) 분포를 잠금 없이 누적하고 p50/p99/max 등을 계산하는 경량 히스토그램.
+ *
+ * 구조
+ * - 로그-선형 버킷: 0~15us는 1us 단위, 그 이상은 2의 거듭제곱 구간마다 16개 버킷으로 나눈다.
+ *   → 상대 오차 약 6% 이내, 버킷 수 고정(메모리 일정).
+ * - AtomicLongArray로 버킷을 세므로 여러 스레드가 동시에 record() 해도 안전하다.
+ *
+ * 사용 예
+ *  LatencyHistogram h = new LatencyHistogram();
+ *  h.recordNanos(System.nanoTime() - t0);
+ *  long p99 = h.percentile(99.0);
+ */
+
+package myPackage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;               // 구간당 16개 버킷
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000);
+    }
+
+    /** 한 건 기록(단위: 마이크로초) */
+    public void record(long micros) {
+        if (micros < 0) micros = 0;
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() { return count.get(); }
+    public long max()   { return max.get(); }
+    public long totalMicros() { return sum.get(); }
+    public long mean()  { long n = count.get(); return n == 0 ? 0 : sum.get() / n; }
+
+    /** p(0~100) 백분위 값(버킷 상한, 마이크로초). 기록이 없으면 0 */
+    public long percentile(double p) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(n * Math.min(100.0, Math.max(0.0, p)) / 100.0);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        count.set(0); sum.set(0); max.set(0);
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);          // v의 최상위 비트 위치(>= SUB_BITS)
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1)); // 그 아래 4비트
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int idx) {
+        if (idx < SUB) return idx;
+        int exp = idx / SUB + SUB_BITS - 1;
+        long sub = idx % SUB;
+        long base = 1L << exp;
+        long step = 1L << (exp - SUB_BITS);
+        return base + (sub + 1) * step - 1;
+    }
+}
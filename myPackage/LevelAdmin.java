@@ -6,6 +6,7 @@
  * - info(Connection, String, int): 특정 사용자(userId)에게 경험치(userExp)를 부여하고,
  *   누적치가 레벨업 기준을 넘으면 레벨을 증가시키고 DB에 반영.
  * - 만렙(기본 20레벨) 도달 시 배지(badge) 자동 지급.
+ * - levels(Connection, 사용자들): 여러 사용자의 현재 레벨을 IN 조회 한 번으로(인기순 피드 점수용, FeedRanker).
  *
  * 동작 개요
  * 1) 현재 사용자 레벨/경험치 조회 (user 테이블의 level, exp 컬럼)
@@ -36,6 +37,10 @@
 package myPackage;
 
 import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
 
 public class LevelAdmin {
 
@@ -70,28 +75,11 @@ public class LevelAdmin {
             }
         }
 
-        // 2) 경험치 가산(음수 방지)
-        if (userExp > 0) {
-            exp += userExp;
-        }
-
-        // 3) 레벨업 루프
-        boolean leveledUp = false;
-        int required = requiredExp(level); // 현재 레벨에서 다음 레벨로 가기 위한 필요치
-        while (exp >= required) {
-            exp   -= required; // 필요치 차감
-            level += 1;        // 레벨 상승
-            leveledUp = true;
-
-            // 상한 도달 시 정책에 따라 exp는 0으로, 루프 종료
-            if (level >= MAX_LEVEL) {
-                level = MAX_LEVEL;
-                exp   = 0;
-                break;
-            }
-            // 다음 레벨에 필요한 경험치를 재계산
-            required = requiredExp(level);
-        }
+        // 2)~3) 경험치 가산 + 레벨업 계산
+        int[] next = progress(level, exp, userExp);
+        boolean leveledUp = next[0] > level;
+        level = next[0];
+        exp   = next[1];
 
         // 4) 만렙 배지 지급(이미 배지 있으면 쿼리는 영향 없음)
         if (level == MAX_LEVEL) {
@@ -117,6 +105,35 @@ public class LevelAdmin {
         System.out.println("Now Level: " + level + ", Exp: " + exp);
     }
 
+    /**
+     * 경험치 가산 후의 {레벨, 경험치}를 계산한다(DB 접근 없음).
+     * - userExp가 0 이하이면 가산하지 않음.
+     * - 필요치를 넘는 동안 레벨업을 반복하고, MAX_LEVEL에 닿으면 exp=0으로 고정(정책).
+     */
+    public static int[] progress(int level, int exp, int userExp) {
+        // 경험치 가산(음수 방지)
+        if (userExp > 0) {
+            exp += userExp;
+        }
+
+        // 레벨업 루프
+        int required = requiredExp(level); // 현재 레벨에서 다음 레벨로 가기 위한 필요치
+        while (exp >= required) {
+            exp   -= required; // 필요치 차감
+            level += 1;        // 레벨 상승
+
+            // 상한 도달 시 정책에 따라 exp는 0으로, 루프 종료
+            if (level >= MAX_LEVEL) {
+                level = MAX_LEVEL;
+                exp   = 0;
+                break;
+            }
+            // 다음 레벨에 필요한 경험치를 재계산
+            required = requiredExp(level);
+        }
+        return new int[]{ level, exp };
+    }
+
     /**
      * 현재 level에서 다음 레벨로 가기 위한 필요 경험치 계산식.
      * 필요 경험치 = floor(level * BASE_EXP * MULT)
@@ -126,4 +143,20 @@ public class LevelAdmin {
     private static int requiredExp(int level) {
         return (int) (level * BASE_EXP * MULT);
     }
+
+    /** userIds의 현재 레벨(user.level). 없는 사용자는 빠진다 */
+    public static Map<String, Integer> levels(Connection con, Collection<String> userIds) throws SQLException {
+        Map<String, Integer> out = new HashMap<>();
+        if (userIds.isEmpty()) return out;
+        StringJoiner in = new StringJoiner(",", "(", ")");
+        for (int i = 0; i < userIds.size(); i++) in.add("?");
+        try (PreparedStatement ps = con.prepareStatement("SELECT user_id, level FROM user WHERE user_id IN " + in)) {
+            int i = 1;
+            for (String u : userIds) ps.setString(i++, u);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return out;
+    }
 }
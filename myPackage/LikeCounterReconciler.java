@@ -0,0 +1,136 @@
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LikeCounterReconciler
+ * -----------------------------------------------------------------------------
+ * 목적
+ *  - posts.num_of_likes / comment.num_of_likes(좋아요 수 비정규화 컬럼)가 실제 post_like / comment_like 행 수와,
+ *    posts.comment_count(댓글 수)가 실제 comment 행 수와
+ *    어긋난 경우(수동 DML, 예전 버전 데이터, 중간 실패 등) 찾아서 바로잡는다.
+ *  - 화면 조회 쿼리는 이 컬럼만 읽으므로(행마다 COUNT(*) 서브쿼리 없음) 어긋남은 여기서 주기적으로 복구한다.
+ *
+ * 동작 개요
+ *  1) 부모 테이블을 id 구간(CHUNK개)씩 훑으며 "저장된 수 <> 실제 COUNT" 인 id만 골라낸다(잠금 없는 읽기).
+ *  2) 골라낸 id마다 짧은 트랜잭션(TxExecutor)에서
+ *       부모 행 SELECT ... FOR UPDATE → COUNT(*) 재계산 → 다르면 UPDATE
+ *     좋아요 쓰기 경로는 같은 트랜잭션에서 부모 행을 UPDATE(+1)하므로 행 잠금으로 직렬화되고,
+ *     잠금 획득 후 다시 센 값이라 진행 중인 좋아요와 엇갈려 새 오차를 만들지 않는다(READ COMMITTED 전제).
+ *  3) 빈 구간이 나오면 max(id)까지 확인 후 종료.
+ *
+ * 사용 방법
+ *  - TwitterApp 타이머가 -Dtwitter.likes.reconcileMinutes(기본 10, 0이면 끔) 간격으로 runOnce()를 호출한다.
+ *  - 대량 적재/이전 데이터 정리 후 한 번에 맞추려면: java myPackage.LikeCounterReconciler
+ *
+ * 통계
+ *  - stats(): 누적 실행 횟수, 검사한 행 수, 수정한 행 수, 마지막 실행 소요시간
+ */
+public class LikeCounterReconciler {
+    // 한 번에 검사할 id 구간 크기
+    private static final int CHUNK = Integer.getInteger("twitter.likes.reconcileChunk", 1_000);
+
+    private static final LongAdder runs = new LongAdder(), scanned = new LongAdder(), repaired = new LongAdder();
+    private static volatile long lastRunMillis = -1;
+
+    public static void main(String[] args) {
+        runOnce();
+        System.out.println(stats());
+        System.exit(0);
+    }
+
+    /** posts와 comment의 좋아요 수, posts의 댓글 수를 한 바퀴 검사/복구한다. 수정한 행 수 반환 */
+    public static int runOnce() {
+        long t0 = System.currentTimeMillis();
+        int fixed = 0;
+        try {
+            fixed += reconcile("posts", "post_id", "num_of_likes", "post_like");
+            fixed += reconcile("comment", "comment_id", "num_of_likes", "comment_like");
+            fixed += reconcile("posts", "post_id", "comment_count", "comment");
+            if (fixed > 0) System.out.println("Like/comment counters repaired: " + fixed);
+        } catch (SQLException e) {
+            // 다음 주기에 다시 시도
+            e.printStackTrace();
+        } finally {
+            runs.increment();
+            lastRunMillis = System.currentTimeMillis() - t0;
+        }
+        return fixed;
+    }
+
+    public static String stats() {
+        return String.format("[like-reconciler] runs=%d scanned=%d repaired=%d lastRun=%dms",
+                runs.sum(), scanned.sum(), repaired.sum(), lastRunMillis);
+    }
+
+    // parent(idCol)의 counter 컬럼을 likeTable(자식 테이블) 행 수와 맞춘다
+    private static int reconcile(String parent, String idCol, String counter, String likeTable) throws SQLException {
+        int maxId;
+        try (Connection con = DBConn.getConnection();
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + idCol + "), 0) FROM " + parent)) {
+            rs.next();
+            maxId = rs.getInt(1);
+        }
+
+        String findDrift = "SELECT p." + idCol + " FROM " + parent + " p "
+                + "LEFT JOIN " + likeTable + " l ON l." + idCol + " = p." + idCol + " "
+                + "WHERE p." + idCol + " > ? AND p." + idCol + " <= ? "
+                + "GROUP BY p." + idCol + ", p." + counter + " "
+                + "HAVING COALESCE(p." + counter + ", -1) <> COUNT(l." + idCol + ")";
+        int fixed = 0;
+        for (int lo = 0; lo < maxId; lo += CHUNK) {
+            List<Integer> drifted = new ArrayList<>();
+            // 구간 검사는 primary에서(방금 커밋된 좋아요를 복제 지연 때문에 오차로 오인하지 않도록)
+            try (Connection con = DBConn.getConnection();
+                 PreparedStatement ps = con.prepareStatement(findDrift)) {
+                ps.setInt(1, lo);
+                ps.setInt(2, lo + CHUNK);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) drifted.add(rs.getInt(1));
+                }
+            }
+            scanned.add(Math.min(CHUNK, maxId - lo));
+            for (int id : drifted) {
+                if (repair(parent, idCol, counter, likeTable, id)) fixed++;
+            }
+        }
+        repaired.add(fixed);
+        return fixed;
+    }
+
+    // 부모 행을 잠근 뒤 다시 세어서 다르면 고친다
+    private static boolean repair(String parent, String idCol, String counter, String likeTable, int id) throws SQLException {
+        return TxExecutor.inTransaction("like_counter_reconcile", con -> {
+            Integer stored = null;
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT " + counter + " FROM " + parent + " WHERE " + idCol + " = ? FOR UPDATE")) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return false; // 그사이 삭제됨
+                    stored = (Integer) rs.getObject(1);
+                }
+            }
+            int actual;
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT COUNT(*) FROM " + likeTable + " WHERE " + idCol + " = ?")) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    actual = rs.getInt(1);
+                }
+            }
+            if (stored != null && stored == actual) return false;
+            try (PreparedStatement ps = con.prepareStatement(
+                    "UPDATE " + parent + " SET " + counter + " = ? WHERE " + idCol + " = ?")) {
+                ps.setInt(1, actual);
+                ps.setInt(2, id);
+                ps.executeUpdate();
+            }
+            return true;
+        });
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * 파일명: LiveCountRefresher.java
+ * 목적: 화면에 보이는 카드의 좋아요 수/댓글 수를 다시 불러오기(reload) 없이 살아 있게 고치는 갱신기.
+ *
+ * 동작 개요
+ * - 화면(Source: FeedPanel, PostListView = 개인 보드/해시태그 결과/PostTimelineMain)은 표시될 때 register,
+ *   빠질 때 unregister 한다. 화면은 collectVisible로 "지금 뷰포트에 보이는 글 id"만 알려 준다.
+ * - INTERVAL_MS마다(Swing Timer, EDT) 모든 화면의 보이는 id를 모아
+ *   PostRepository.counts(posts PK IN (...) 한 번)로 num_of_likes, comment_count만 읽는다(DbExecutor, 백그라운드).
+ *   → 보이는 카드 수(수십 개)만큼만 읽으므로 전체 다시 불러오기보다 훨씬 싸다. 보이는 글이 없으면 조회하지 않는다.
+ * - 결과는 EDT에서 화면마다 apply(postId, likes, comments)로 넘기고, 화면은 값이 달라진 카드의 라벨만 고친다
+ *   (좋아요 처리 중인 카드는 낙관적 값을 그대로 둔다).
+ * - 같은 프로세스의 좋아요/댓글(EngagementEvents)이 보이는 글에 들어오면 다음 주기를 기다리지 않고 곧바로 한 번 더 읽는다
+ *   (이벤트는 커밋 후 발행되므로 읽은 값에 이미 반영돼 있다. 몰려 오면 한 번으로 합친다).
+ * - 조회가 진행 중이면 새 조회를 겹쳐 띄우지 않고, 끝난 뒤 한 번만 이어서 읽는다.
+ *
+ * 설정
+ * - -Dtwitter.ui.liveCountsMs (기본 5000): 갱신 주기. 0 이하이면 끔
+ *
+ * 통계
+ * - stats(): 갱신 횟수, 읽은 id 수, 고친 카드 수, 보이는 글이 없어 건너뛴 횟수, 이벤트로 당긴 횟수, 실패 수, 조회 지연(p50/p99)
+ */
+
+package myPackage;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LiveCountRefresher {
+
+    public static final int INTERVAL_MS = Integer.getInteger("twitter.ui.liveCountsMs", 5_000);
+
+    /** 보이는 글을 알려 주고 바뀐 수를 받는 화면(모두 EDT에서 호출) */
+    public interface Source {
+        /** 지금 뷰포트에 보이는 글 id를 out에 넣는다(화면에 없으면 아무것도 넣지 않음) */
+        void collectVisible(Set<Integer> out);
+
+        /** postId의 현재 수. 라벨을 실제로 고쳤으면 true */
+        boolean apply(int postId, int likes, int comments);
+    }
+
+    private static final List<Source> sources = new ArrayList<>();          // EDT
+    private static Timer timer;                                              // EDT
+    private static boolean inFlight, again;                                  // EDT
+    private static volatile Set<Integer> visible = Collections.emptySet();   // 마지막 갱신의 id(이벤트 스레드가 읽음)
+    private static volatile boolean eventPending;
+
+    private static final LongAdder ticks = new LongAdder(), ids = new LongAdder(), changed = new LongAdder(),
+                                   idle = new LongAdder(), events = new LongAdder(), failures = new LongAdder();
+    private static final LatencyHistogram fetchLatency = new LatencyHistogram();
+
+    static {
+        EngagementEvents.subscribe(LiveCountRefresher::onEvent);
+    }
+
+    /** 화면이 표시될 때(addNotify) */
+    public static void register(Source s) {
+        if (INTERVAL_MS <= 0 || sources.contains(s)) return;
+        sources.add(s);
+        if (timer == null) timer = new Timer(INTERVAL_MS, e -> refresh());
+        if (!timer.isRunning()) timer.start();
+    }
+
+    /** 화면이 빠질 때(removeNotify). 남은 화면이 없으면 타이머도 멈춘다 */
+    public static void unregister(Source s) {
+        sources.remove(s);
+        if (sources.isEmpty() && timer != null) {
+            timer.stop();
+            visible = Collections.emptySet();
+        }
+    }
+
+    // 발행 스레드에서 호출: 보이는 글의 좋아요/댓글이면 곧바로 한 번 읽게 한다(몰려 오면 한 번으로)
+    private static void onEvent(EngagementEvents.Kind kind, int postId, String userId) {
+        if (kind == EngagementEvents.Kind.PUBLISHED || !visible.contains(postId)) return;
+        events.increment();
+        if (eventPending) return;
+        eventPending = true;
+        SwingUtilities.invokeLater(() -> {
+            eventPending = false;
+            refresh();
+        });
+    }
+
+    /** 보이는 id를 모아 한 번에 읽고 바뀐 카드만 고친다(EDT) */
+    private static void refresh() {
+        if (inFlight) { again = true; return; }
+        Map<Source, Set<Integer>> bySource = new LinkedHashMap<>();
+        Set<Integer> all = new HashSet<>();
+        for (Source s : sources) {
+            Set<Integer> mine = new HashSet<>();
+            s.collectVisible(mine);
+            if (mine.isEmpty()) continue;
+            bySource.put(s, mine);
+            all.addAll(mine);
+        }
+        visible = all;
+        if (all.isEmpty()) { idle.increment(); return; }
+
+        inFlight = true;
+        ticks.increment();
+        ids.add(all.size());
+        final long t0 = System.nanoTime();
+        DbExecutor.submit(() -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                return PostRepository.counts(con, all);
+            }
+        }, Math.max(1, INTERVAL_MS), (counts, err) -> {
+            inFlight = false;
+            fetchLatency.recordNanos(System.nanoTime() - t0);
+            if (err != null) {
+                failures.increment(); // 다음 주기에 다시 읽는다
+                System.out.println("[live-counts] refresh failed: " + err);
+            } else {
+                for (Map.Entry<Source, Set<Integer>> e : bySource.entrySet()) {
+                    Source s = e.getKey();
+                    if (!sources.contains(s)) continue; // 그 사이 화면에서 빠짐
+                    for (int id : e.getValue()) {
+                        int[] c = counts.get(id);
+                        if (c != null && s.apply(id, c[0], c[1])) changed.increment();
+                    }
+                }
+            }
+            if (again) {
+                again = false;
+                refresh();
+            }
+        });
+    }
+
+    public static String stats() {
+        return String.format("[live-counts] every %dms refreshes=%d ids=%d changed=%d idle=%d eventPulls=%d failed=%d | fetch p50=%dus p99=%dus",
+                INTERVAL_MS, ticks.sum(), ids.sum(), changed.sum(), idle.sum(), events.sum(), failures.sum(),
+                fetchLatency.percentile(50), fetchLatency.percentile(99));
+    }
+}
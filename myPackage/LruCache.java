@@ -0,0 +1,61 @@
+/*
+ * 파일명: LruCache.java
+ * 목적: 화면 쪽에서 쓰는 작은 LRU 캐시(최근에 쓴 항목 capacity개만 보관).
+ *
+ * 동작 개요
+ * - LinkedHashMap(accessOrder=true) + removeEldestEntry로 가장 오래 안 쓴 항목을 버린다.
+ * - 여러 스레드(EDT/DbExecutor 작업)에서 접근할 수 있으므로 메서드 단위로 동기화한다.
+ *
+ * 사용 예
+ * - 펼쳤던 댓글 스레드(FeedPanel, FeedCardFactory): 카드를 다시 만들거나 다시 펼칠 때 조회 없이 바로 그린다.
+ *
+ * 통계
+ * - stats(): 크기/용량, 적중/실패 수
+ */
+
+package myPackage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LruCache<K, V> {
+
+    private final String name;
+    private final int capacity;
+    private final LinkedHashMap<K, V> map;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    public LruCache(String name, int capacity) {
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.capacity;
+            }
+        };
+    }
+
+    /** 있으면 값(최근 사용으로 갱신), 없으면 null */
+    public synchronized V get(K key) {
+        V v = map.get(key);
+        if (v == null) misses.increment(); else hits.increment();
+        return v;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized String stats() {
+        return String.format("[lru %s] size=%d/%d hits=%d misses=%d", name, map.size(), capacity, hits.sum(), misses.sum());
+    }
+}
@@ -3,9 +3,9 @@
  * 목적: 로그인 이후 메인 화면의 레이아웃/상호작용을 담당하는 컨테이너 패널
  *
  * 화면 구성
- * - 상단: 검색 입력창 + [Search] + [My Board]
+ * - 상단: 검색 입력창 + [Search] + [My Board] + [인기순] 토글(피드 최신순 ↔ 인기순, FeedPanel.setRanked)
  * - 좌측: 팔로우 추천 패널(FollowRecommendPanel) — 스크롤 영역
- * - 중앙: 전체 피드(FeedPanel) — 스크롤 영역
+ * - 중앙: 홈 타임라인 피드(FeedPanel) — 스크롤 영역
  * - 좌하단: [Post] 버튼 — 글쓰기 창(PostWriterMain) 오픈
  *
  * 주요 동작
@@ -20,7 +20,7 @@
  * - 고정 좌표 배치(null layout). 패널 크기 변경 시 layoutAll()에서 위치/크기를 재계산
  *
  * 연동/의존
- * - TwitterApp: 페이지 전환, DB 커넥션 공유, 현재 사용자 ID 취득
+ * - TwitterApp: 페이지 전환, 현재 사용자 ID 취득 (DB 커넥션은 DBConn 풀에서 빌림)
  * - DB 스키마: user 테이블(user_id 존재 여부 확인)
  * - FollowRecommendPanel, FeedPanel, PostWriterMain과의 UI 협력
  */
@@ -41,6 +41,7 @@ public class MainPagePanel extends JPanel {
     private JTextField searchField;
     private JButton searchBtn;
     private JButton myBoardBtn;
+    private JToggleButton rankedToggle;
 
     // 좌측 추천 패널
     private FollowRecommendPanel recommendPanel;
@@ -65,6 +66,10 @@ public class MainPagePanel extends JPanel {
         myBoardBtn = new JButton("My Board");
         add(myBoardBtn);
 
+        rankedToggle = new JToggleButton("인기순");
+        rankedToggle.setToolTipText("피드를 좋아요·댓글·작성자 레벨·최신성 점수 순으로");
+        add(rankedToggle);
+
         // ===== 좌측 추천 패널 =====
         recommendPanel = new FollowRecommendPanel(app);
         add(recommendPanel);
@@ -98,12 +103,7 @@ public class MainPagePanel extends JPanel {
             }
 
             // 2) 사용자 검색: 개인 보드 열기 전 DB에서 존재 여부 확인
-            try {
-                Connection con = app.getConnection();
-                if (con == null) {
-                    JOptionPane.showMessageDialog(this, "DB 연결이 필요합니다.", "오류", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
+            try (Connection con = DBConn.getReadConnection()) {
                 try (PreparedStatement ps = con.prepareStatement(
                         "SELECT 1 FROM user WHERE user_id = ? LIMIT 1")) {
                     ps.setString(1, q);
@@ -130,6 +130,9 @@ public class MainPagePanel extends JPanel {
         // 내 보드로 이동
         myBoardBtn.addActionListener(e -> app.openMyBoard());
 
+        // 최신순 ↔ 인기순
+        rankedToggle.addActionListener(e -> feedPanel.setRanked(rankedToggle.isSelected()));
+
         // 글쓰기 버튼: 창 닫히면 피드/추천 목록 갱신
         postButton.addActionListener(e -> onPostButtonClicked());
 
@@ -138,6 +141,7 @@ public class MainPagePanel extends JPanel {
             @Override public void componentShown(java.awt.event.ComponentEvent e) {
                 layoutAll();
                 recommendPanel.reload(); // 표시될 때 추천 갱신
+                feedPanel.reloadIfUserChanged(); // 다른 계정으로 들어오면 그 사람의 타임라인
             }
             @Override public void componentResized(java.awt.event.ComponentEvent e) {
                 layoutAll(); // 크기 변경 시 재배치
@@ -152,13 +156,13 @@ public class MainPagePanel extends JPanel {
             JOptionPane.showMessageDialog(this, "로그인이 필요합니다.", "알림", JOptionPane.WARNING_MESSAGE);
             return;
         }
-        // PostWriterMain은 DB 커넥션과 작성자 ID를 인자로 받는다
-        PostWriterMain win = new PostWriterMain(app.getConnection(), userId);
+        // PostWriterMain은 작성자 ID를 인자로 받는다(커넥션은 작업마다 풀에서 빌림)
+        PostWriterMain win = new PostWriterMain(userId);
         win.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         win.addWindowListener(new java.awt.event.WindowAdapter() {
             @Override public void windowClosed(java.awt.event.WindowEvent e) {
-                // 창이 닫히면 최신 글이 보이도록 피드 리로드
-                feedPanel.reload();
+                // 창이 닫히면 새 글만 피드 맨 위에 붙임(전체 리로드 없이)
+                feedPanel.showNewPosts();
                 // 팔로우 변동 가능성이 있으면 추천도 갱신
                 recommendPanel.reload();
             }
@@ -192,6 +196,10 @@ public class MainPagePanel extends JPanel {
 
         // My Board 버튼
         myBoardBtn.setBounds(x, y + (topH - fieldH)/2, btnW, fieldH);
+        x += btnW + 8;
+
+        // 인기순 토글
+        rankedToggle.setBounds(x, y + (topH - fieldH)/2, btnW, fieldH);
 
         // 좌측 추천 패널
         int leftW = 260;                 // 추천 영역 너비
@@ -5,27 +5,31 @@ import java.sql.*;
 public class Message {
 
     public static void sendMessage(String sender, String receiver, String content) throws SQLException {
-        Connection con = DBConn.getConnection();
-        
-        //Check you're blocked
-        String block = "select * from block where block_id=? and by_block_id=?";
-        PreparedStatement ps = con.prepareStatement(block);
-        ps.setString(1, receiver);
-        ps.setString(2, sender);
-        ResultSet rs = ps.executeQuery();
+        try (Connection con = DBConn.getConnection()) {
 
-        if (rs.next()) {
-            System.out.println("You are blocked by this user. Message not sent.");
-            return;
-        }
+            //Check you're blocked
+            String block = "select * from block where block_id=? and by_block_id=?";
+            try (PreparedStatement ps = con.prepareStatement(block)) {
+                ps.setString(1, receiver);
+                ps.setString(2, sender);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        System.out.println("You are blocked by this user. Message not sent.");
+                        return;
+                    }
+                }
+            }
 
-        String sql = "insert into message(send_id, receive_id, content) values(?,?,?)";
-        ps = con.prepareStatement(sql);
-        ps.setString(1, sender);
-        ps.setString(2, receiver);
-        ps.setString(3, content);
-        ps.executeUpdate();
+            String sql = "insert into message(send_id, receive_id, content) values(?,?,?)";
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                ps.setString(1, sender);
+                ps.setString(2, receiver);
+                ps.setString(3, content);
+                ps.executeUpdate();
+            }
+        }
 
+        DBConn.noteWrite(sender);
         System.out.println("Message sent successfully.");
     }
 }
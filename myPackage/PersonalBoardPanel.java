@@ -8,14 +8,15 @@
  *   · 중앙: 아바타, 사용자명, 레벨/경험치(Label), 팔로워/팔로잉 수(Label), 목록 열기 버튼(팔로워/팔로잉)
  *   · 우측: 상태메시지(Bio) 편집 영역(프로필 주인 본인에게만 편집 허용)
  *   · (타 사용자 보드일 때) Follow/Unfollow 토글 버튼
- * - 중앙: 해당 사용자가 작성한 게시글 목록(스크롤) — FeedCardFactory를 재사용하여 카드 UI 표시
+ * - 중앙: 해당 사용자가 작성한 게시글 목록 — PostListView(가상화 목록, 누른 행만 FeedCardFactory 카드로 바뀜)
  *
  * 주요 기능
  * - 레벨/경험치 표시: user(level, exp)를 조회하여 "Lv. L • EXP e/r" 형식으로 표시 (requiredExp = level*100*1.5)
  * - 팔로워/팔로잉 표시 및 목록 다이얼로그: SeeFollow DAO(가정)로 count/목록 조회
  * - Follow/Unfollow: Follow DAO를 통해 팔로우 상태 토글, 성공 시 헤더 전체(레벨 포함) 갱신
  * - 상태 메시지(Bio) 저장: ProfileDAO.upsertBio 호출
- * - 게시글 목록: selectUserPosts() → FeedCardFactory.createPostCard()로 렌더링
+ * - 게시글 목록: PostRepository.byAuthor()(DbExecutor.stream, 백그라운드) → 묶음마다 EDT에서 PostListView.append()
+ *   (좋아요 여부는 묶음마다 PostRepository.streamLiked가 한 번에 조회, 로딩 중 문구 표시, 화면을 떠나면 조회 취소)
  *
  * 상호작용/연동
  * - TwitterApp: 페이지 전환, 현재 로그인 사용자ID, 다른 보드 열기, 커넥션 등 외부 협력
@@ -33,6 +34,7 @@ import java.awt.*;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 public class PersonalBoardPanel extends JPanel {
 
@@ -53,7 +55,9 @@ public class PersonalBoardPanel extends JPanel {
     private JButton followToggleBtn;    // 상대 보드에서 Follow/Unfollow
 
     // ---- 피드 ----
-    private final JPanel listPanel = new JPanel();
+    private final PostListView posts;
+    private Future<?> pendingLoad;    // 진행 중 게시글 조회(EDT에서만 접근)
+    private boolean stale;            // 조회 도중 화면을 떠나 취소됨 → 다시 보일 때 재조회
 
     public PersonalBoardPanel(TwitterApp app, String ownerId) {
         this.app = app;
@@ -64,13 +68,21 @@ public class PersonalBoardPanel extends JPanel {
         add(buildHeader(), BorderLayout.NORTH);
 
         // ===== User 전용 Feed =====
-        listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-        JScrollPane scroll = new JScrollPane(
-                listPanel,
-                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
-                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER
-        );
-        add(scroll, BorderLayout.CENTER);
+        posts = new PostListView(app);
+        add(posts, BorderLayout.CENTER);
+
+        // 다른 화면으로 전환되면(CardLayout에서 숨김) 진행 중 조회 취소, 다시 보이면 이어서 재조회
+        addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override public void componentHidden(java.awt.event.ComponentEvent e) {
+                if (pendingLoad == null) return;
+                pendingLoad.cancel(true);
+                pendingLoad = null;
+                stale = true;
+            }
+            @Override public void componentShown(java.awt.event.ComponentEvent e) {
+                if (stale) reloadPosts();
+            }
+        });
 
         reloadPosts();
     }
@@ -234,7 +246,7 @@ public class PersonalBoardPanel extends JPanel {
     private void refreshLevel() {
         String sql = "SELECT level, exp FROM user WHERE user_id=?";
         int level = 1, exp = 0;
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, ownerId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -312,69 +324,29 @@ public class PersonalBoardPanel extends JPanel {
         d.setVisible(true);
     }
 
-    /** ownerId가 작성한 최근 글만 */
+    /** ownerId가 작성한 최근 글만: 조회/매핑/좋아요 여부는 백그라운드, 행은 APPEND_CHUNK개씩 EDT에서 목록에 붙임 */
     private void reloadPosts() {
-        listPanel.removeAll();
-        try (Connection con = DBConn.getConnection()) {
-            for (PostDTO p : selectUserPosts(con, ownerId, 50)) {
-                listPanel.add(FeedCardFactory.createPostCard(app, p));
-                listPanel.add(Box.createVerticalStrut(8));
+        if (pendingLoad != null) pendingLoad.cancel(true); // 이전 조회의 늦은 묶음은 버린다
+        stale = false;
+        posts.clear();
+        posts.setStatus("불러오는 중…");
+        final String uid = app.getCurrentUserId();
+        pendingLoad = DbExecutor.<PostRepository.PostRow>stream(out -> {
+            try (Connection con = DBConn.getReadConnection()) {
+                // 작성자 필터, 최근 50개 – 매핑하는 대로 APPEND_CHUNK개마다 좋아요 여부를 채워 내보낸다
+                PostRepository.streamLiked(con, uid, PostListView.APPEND_CHUNK,
+                        h -> PostRepository.byAuthor(con, PostRepository.Projection.CARD, ownerId,
+                                                     PostRepository.Cursor.first(50), h), out);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            listPanel.add(new JLabel("피드를 불러오지 못했습니다."));
-        }
-        listPanel.revalidate();
-        listPanel.repaint();
-    }
-
-    // ====== 게시글 조회(작성자 필터) – likeCnt는 post_like COUNT 방식 ======
-    private List<PostDTO> selectUserPosts(Connection con, String userId, int limit) throws SQLException {
-        String sql = """
-            SELECT p.post_id,
-                   p.writer_id,
-                   p.content,
-                   (SELECT COUNT(*) FROM post_like pl WHERE pl.post_id = p.post_id) AS like_cnt,
-                   p.created_at
-            FROM posts p
-            WHERE p.writer_id = ?
-            ORDER BY p.post_id DESC
-            LIMIT ?
-        """;
-        List<PostDTO> list = new ArrayList<>();
-        try (PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setString(1, userId);
-            ps.setInt(2, limit);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(new PostDTO(
-                            rs.getInt("post_id"),
-                            rs.getString("writer_id"),
-                            rs.getString("content"),
-                            rs.getInt("like_cnt"),
-                            rs.getTimestamp("created_at")
-                    ));
-                }
+        }, PostListView.APPEND_CHUNK, chunk -> posts.append(chunk, p -> p.liked), (r, err) -> {
+            pendingLoad = null;
+            if (err != null) {
+                err.printStackTrace();
+                posts.setStatus("피드를 불러오지 못했습니다.");
+            } else {
+                posts.setStatus(null);
             }
-        }
-        return list;
-    }
-
-    // ====== DTO ======
-    public static class PostDTO implements FeedCardFactory.PostViewDTO {
-        public final int postId;
-        public final String writerId;
-        public final String content;
-        public final int likeCount;
-        public final Timestamp createdAt;
-        public PostDTO(int postId, String writerId, String content, int likeCount, Timestamp createdAt) {
-            this.postId = postId; this.writerId = writerId; this.content = content; this.likeCount = likeCount; this.createdAt = createdAt;
-        }
-        @Override public int getPostId()     { return postId; }
-        @Override public String getWriterId() { return writerId; }
-        @Override public String getContent()  { return content; }
-        @Override public int getLikeCount()   { return likeCount; }
-        @Override public Timestamp getCreatedAt() { return createdAt; }
+        });
     }
 
     // ====== 작은 유틸 ======
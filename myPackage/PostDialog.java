@@ -9,7 +9,7 @@
  *
  * 주요 책임
  * - 매우 단순한 포스트 작성 UX 제공(내용 필수 검사).
- * - DB 연동: INSERT INTO posts(content, writer_id) VALUES(?, ?)
+ * - DB 연동: INSERT INTO posts(content, writer_id) VALUES(?, ?) → 홈 타임라인 반영(TimelineFanout)
  * - 성공 시 posted 플래그를 true로 설정하여 호출측이 후처리(피드 리로드 등) 판단 가능.
  *
  * 협력/연동
@@ -28,6 +28,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 
 public class PostDialog extends JDialog {
     private boolean posted = false;   // 작성 성공 여부. 닫힌 뒤 isPosted()로 확인.
@@ -51,10 +53,17 @@ public class PostDialog extends JDialog {
                 return;
             }
             try (PreparedStatement ps = con.prepareStatement(
-                    "INSERT INTO posts(content, writer_id) VALUES(?, ?)")) {
+                    "INSERT INTO posts(content, writer_id) VALUES(?, ?)", Statement.RETURN_GENERATED_KEYS)) {
                 ps.setString(1, content);
                 ps.setString(2, userId);
                 ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        int postId = keys.getInt(1);
+                        TimelineFanout.addOwn(con, postId, userId);  // 내 타임라인
+                        TimelineFanout.published(postId, userId);    // 팔로워 타임라인(비동기)
+                    }
+                }
                 posted = true;       // 성공 플래그
                 dispose();           // 다이얼로그 종료
             } catch (Exception ex) {
@@ -6,38 +6,47 @@ public class PostLike {
 
     public static boolean likePost(int postId, String liker) throws SQLException {
 
-        Connection con = DBConn.getConnection();
-
-        //Check already like it
-        String check = "select * from post_like where post_id=? and liker_id=?";
-        PreparedStatement ps = con.prepareStatement(check);
-        ps.setInt(1, postId);
-        ps.setString(2, liker);
-        ResultSet rs = ps.executeQuery();
+        // 좋아요 등록 + 작성자 경험치를 한 트랜잭션으로(데드락 시 재시도).
+        // 그룹 커밋 모드면 다른 사용자들의 쓰기와 묶여 커밋될 때까지 대기
+        boolean liked = EngagementWriter.ENABLED
+                ? EngagementWriter.await(EngagementWriter.postLike(postId, liker))
+                : TxExecutor.inTransaction("post_like", con -> applyLike(con, postId, liker));
+        if (!liked) return false;
+
+        DBConn.noteWrite(liker); // 잠시 동안 liker의 읽기는 primary에서(read-your-writes)
+        EngagementEvents.postLiked(postId); // 인기순 점수 등 구독자에게(커밋 후)
+        System.out.println("Post Like successfully");
+        return true;
+    }
 
-        if (rs.next()) return false; //Already pressed "like"
+    /** 주어진 트랜잭션 안에서 좋아요 반영(등록 + 작성자 경험치). 이미 눌렀으면 false */
+    static boolean applyLike(Connection con, int postId, String liker) throws SQLException {
+        //Like, register (UNIQUE(post_id, liker_id) → already pressed "like" inserts 0 rows)
+        String insert = "insert ignore into post_like(post_id, liker_id) values(?,?)";
+        try (PreparedStatement ps = con.prepareStatement(insert)) {
+            ps.setInt(1, postId);
+            ps.setString(2, liker);
+            if (ps.executeUpdate() == 0) return false; //Already pressed "like"
+        }
 
-        //Like, register
-        String insert = "insert into post_like(post_id,liker_id) values(?,?)";
-        ps = con.prepareStatement(insert);
-        ps.setInt(1, postId);
-        ps.setString(2, liker);
-        ps.executeUpdate();
+        //Like counter (posts.num_of_likes) in the same transaction; feeds read this column
+        try (PreparedStatement ps = con.prepareStatement("update posts set num_of_likes = num_of_likes + 1 where post_id=?")) {
+            ps.setInt(1, postId);
+            ps.executeUpdate();
+        }
 
         //Find the author of the post you received like
         String writerQuery = "select writer_id from posts where post_id=?";
-        ps = con.prepareStatement(writerQuery);
-        ps.setInt(1, postId);
-        rs = ps.executeQuery();
-
-        if (rs.next()) {
-            String writerId = rs.getString("writer_id");
-
-            //Exp value +10
-            LevelAdmin.info(con, writerId, 10);
+        String writerId = null;
+        try (PreparedStatement ps = con.prepareStatement(writerQuery)) {
+            ps.setInt(1, postId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) writerId = rs.getString("writer_id");
+            }
         }
 
-        System.out.println("Post Like successfully");
+        //Exp value +10
+        if (writerId != null) LevelAdmin.info(con, writerId, 10);
         return true;
     }
 }
@@ -3,9 +3,15 @@
  * 목적: 게시글 좋아요/좋아요 취소를 DB에 반영하고, 필요 시 게시글 작성자에게 경험치를 부여.
  *
  * 동작 개요
+ * - likedPostIds(con, userId, postIds)
+ *   - 화면 한 페이지 분의 글 중 userId가 좋아요한 글 번호만 한 번의 IN (...) 쿼리로 돌려줍니다.
+ *   - 카드마다 "SELECT 1 ... LIMIT 1"을 날리던 방식(카드 수만큼 커넥션/왕복)을 대체합니다.
+ *   - 목록이 IN_CHUNK(500)개를 넘으면 그 단위로 나눠 조회합니다.
+ *
  * - like(con, likerId, postId)
  *   1) post_like 테이블에 (post_id, liker_id) 한 건을 INSERT하여 '좋아요' 상태로 만듭니다.
- *   2) 해당 게시글의 작성자(writer_id)를 조회합니다.
+ *   2) posts.num_of_likes를 +1 합니다(같은 트랜잭션, 화면은 이 컬럼만 읽음).
+ *   2-1) 해당 게시글의 작성자(writer_id)를 조회합니다.
  *   3) 좋아요를 누른 사람이 작성자 본인이 아닐 경우, 작성자에게 경험치(+10)를 지급합니다.
  *      (LevelAdmin.info 호출 — 레벨/경험치 계산 및 만렙 배지 반영은 해당 클래스 책임)
  *   4) 성공 시 true 반환. (중복 좋아요의 경우 DB 제약으로 예외 발생 가능)
@@ -33,8 +39,38 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class PostLikeDAO {
+
+    private static final int IN_CHUNK = 500;
+
+    // postIds 중 userId가 좋아요한 글 번호(로그인 전이거나 목록이 비면 빈 집합)
+    public static Set<Integer> likedPostIds(Connection con, String userId, Collection<Integer> postIds) throws SQLException {
+        Set<Integer> liked = new HashSet<>();
+        if (userId == null || userId.isBlank() || postIds == null || postIds.isEmpty()) return liked;
+
+        List<Integer> ids = new ArrayList<>(new HashSet<>(postIds));
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CHUNK));
+            StringBuilder sql = new StringBuilder("SELECT post_id FROM post_like WHERE liker_id = ? AND post_id IN (");
+            for (int i = 0; i < chunk.size(); i++) sql.append(i == 0 ? "?" : ",?");
+            sql.append(')');
+            try (PreparedStatement ps = con.prepareStatement(sql.toString())) {
+                ps.setString(1, userId);
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 2, chunk.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) liked.add(rs.getInt(1));
+                }
+            }
+        }
+        return liked;
+    }
+
     // 좋아요
     public static boolean like(Connection con, String likerId, int postId) throws SQLException {
         // 중복 방지: post_like에 UNIQUE(post_id, liker_id) 권장
@@ -45,6 +81,12 @@ public class PostLikeDAO {
             ps.executeUpdate();
         }
 
+        // 좋아요 수 컬럼 갱신
+        try (PreparedStatement ps = con.prepareStatement("UPDATE posts SET num_of_likes = num_of_likes + 1 WHERE post_id=?")) {
+            ps.setInt(1, postId);
+            ps.executeUpdate();
+        }
+
         // 작성자 조회
         String q = "SELECT writer_id FROM posts WHERE post_id=?";
         String writer = null;
@@ -0,0 +1,352 @@
+/*
+ * 파일명: PostListView.java
+ * 목적: 글이 수천~수십만 개인 목록(개인 보드, 해시태그 결과, PostTimelineMain)을 위한 가상화 게시글 목록.
+ *
+ * 동작 개요
+ * - 한 열짜리 JTable + 모델(Model): 행마다 PostViewDTO 하나와 좋아요 여부(BitSet)만 들고, 카드 컴포넌트는 만들지 않는다.
+ * - 그리기(CardRenderer): 카드 모양 패널 하나를 화면에 보이는 행마다 재사용해 찍는다(본문은 PREVIEW_LINES줄까지).
+ *   행 높이가 모두 같으므로 스크롤/레이아웃 비용이 행 수와 무관하다.
+ * - 상호작용(CardEditor): 행을 누르면 그 행만 FeedCardFactory.createPostCard(...) 진짜 카드로 바꾼다
+ *   (좋아요/댓글/작성자 클릭이 그대로 동작, 첫 클릭도 카드로 전달됨). 댓글을 펼치면 그 행 높이만 카드에 맞춰 늘리고,
+ *   다른 행을 누르거나 포커스가 목록 밖으로 나가면 카드는 버리고 모든 행 높이를 되돌린다.
+ *   편집 중 누른 좋아요는 onLiked 콜백으로 모델에 남겨 그리기에도 반영된다.
+ * - 살아 있는 숫자: 표시되는 동안 LiveCountRefresher에 보이는 행(편집 중인 행 제외)의 post_id를 알려 주고,
+ *   읽어 온 좋아요/댓글 수가 행과 다르면 그 행만 DTO를 수 덮어쓰기(Counts)로 바꿔 다시 그린다.
+ * - app == null이면 읽기 전용(편집기 없음, 좋아요/댓글 버튼 없이 숫자만 표시).
+ *
+ * 사용
+ * - clear() → append(묶음, 좋아요 여부) 반복. 조회 쪽은 APPEND_CHUNK개씩 묶어 보내면 된다.
+ * - setStatus(문구): 목록 위 안내 문구("검색 중…", 결과 없음 등). null이면 숨김.
+ * - setOnNearEnd(콜백): 남은 행이 한 화면 아래로 줄면(스크롤/창 크기 변경/행 추가 후) EDT에서 호출.
+ *   조회 쪽이 화면을 채울 만큼만 읽고 멈췄다가 스크롤에 맞춰 이어 읽을 때 쓴다(screenRows()로 한 화면 행 수).
+ *
+ * 설정
+ * - -Dtwitter.ui.listChunk (기본 200): 목록에 한 번에 붙이는 행 수(좋아요 여부 조회도 이 단위)
+ */
+
+package myPackage;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EventObject;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public class PostListView extends JPanel implements LiveCountRefresher.Source {
+
+    public static final int APPEND_CHUNK = Math.max(1, Integer.getInteger("twitter.ui.listChunk", 200));
+    private static final int PREVIEW_LINES = 3;
+
+    private final TwitterApp app;          // null이면 읽기 전용
+    private final Model model = new Model();
+    private final JTable table = new JTable(model);
+    private final JLabel status = new JLabel();
+    private final int rowHeight;
+    private final JScrollPane scroll;
+    private Runnable onNearEnd;
+
+    public PostListView(TwitterApp app) {
+        super(new BorderLayout());
+        this.app = app;
+
+        CardRenderer renderer = new CardRenderer(app != null);
+        rowHeight = renderer.previewHeight();
+        table.setDefaultRenderer(Object.class, renderer);
+        if (app != null) table.setDefaultEditor(Object.class, new CardEditor());
+        table.setTableHeader(null);
+        table.setShowGrid(false);
+        table.setIntercellSpacing(new Dimension(0, 0));
+        table.setRowHeight(rowHeight);
+        table.setRowSelectionAllowed(false);
+        table.setFillsViewportHeight(true);
+        table.putClientProperty("JTable.autoStartsEdit", Boolean.FALSE);
+        table.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE);
+
+        status.setBorder(new EmptyBorder(4, 8, 4, 8));
+        status.setVisible(false);
+        add(status, BorderLayout.NORTH);
+
+        scroll = new JScrollPane(table,
+                ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        scroll.getViewport().setBackground(table.getBackground());
+        add(scroll, BorderLayout.CENTER);
+        scroll.getViewport().addChangeListener(e -> checkNearEnd());
+    }
+
+    /** 모든 행 제거(편집 중인 카드는 버림) */
+    public void clear() {
+        if (table.isEditing()) table.getCellEditor().cancelCellEditing();
+        model.clear();
+    }
+
+    /** 목록 끝에 묶음으로 추가 */
+    public <T extends FeedCardFactory.PostViewDTO> void append(List<T> rows, Predicate<? super T> liked) {
+        model.append(rows, liked);
+        if (onNearEnd != null) SwingUtilities.invokeLater(this::checkNearEnd); // 레이아웃이 끝난 뒤 높이로
+    }
+
+    public int getRowCount() { return model.getRowCount(); }
+
+    /** 한 화면에 보이는 행 수(아직 화면에 없으면 창 크기 대신 기본값) */
+    public int screenRows() {
+        int h = scroll.getViewport().getExtentSize().height;
+        return h > 0 ? h / rowHeight + 1 : 20;
+    }
+
+    public void setOnNearEnd(Runnable r) {
+        onNearEnd = r;
+        checkNearEnd();
+    }
+
+    private void checkNearEnd() {
+        if (onNearEnd == null) return;
+        JViewport vp = scroll.getViewport();
+        int below = table.getHeight() - (vp.getViewPosition().y + vp.getExtentSize().height);
+        if (below < vp.getExtentSize().height) onNearEnd.run();
+    }
+
+    @Override public void addNotify() {
+        super.addNotify();
+        LiveCountRefresher.register(this);
+    }
+
+    @Override public void removeNotify() {
+        super.removeNotify();
+        LiveCountRefresher.unregister(this);
+    }
+
+    /* ========= 살아 있는 숫자(LiveCountRefresher) ========= */
+
+    private int liveFirst, liveLast = -1; // 마지막으로 알려 준 보이는 행 범위
+
+    @Override public void collectVisible(Set<Integer> out) {
+        liveFirst = 0;
+        liveLast = -1;
+        if (!isShowing() || model.getRowCount() == 0) return;
+        Rectangle view = scroll.getViewport().getViewRect();
+        int first = table.rowAtPoint(new Point(0, view.y));
+        if (first < 0) return;
+        int last = table.rowAtPoint(new Point(0, view.y + view.height - 1));
+        liveFirst = first;
+        liveLast = last < 0 ? model.getRowCount() - 1 : last;
+        for (int row = liveFirst; row <= liveLast; row++) {
+            if (row != table.getEditingRow()) out.add(model.rows.get(row).getPostId()); // 편집 중인 카드는 자기 라벨을 쓴다
+        }
+    }
+
+    @Override public boolean apply(int postId, int likes, int comments) {
+        for (int row = liveFirst; row <= liveLast && row < model.getRowCount(); row++) { // 그 사이 clear됐으면 범위 밖
+            if (model.rows.get(row).getPostId() == postId) {
+                return row != table.getEditingRow() && model.setCounts(row, likes, comments);
+            }
+        }
+        return false;
+    }
+
+    public void setStatus(String text) {
+        status.setText(text);
+        status.setVisible(text != null);
+        revalidate();
+        repaint();
+    }
+
+    /* ========= 모델: 행 = DTO 하나 ========= */
+
+    private final class Model extends AbstractTableModel {
+        private final ArrayList<FeedCardFactory.PostViewDTO> rows = new ArrayList<>();
+        private final BitSet liked = new BitSet();
+
+        @Override public int getRowCount() { return rows.size(); }
+        @Override public int getColumnCount() { return 1; }
+        @Override public Object getValueAt(int row, int col) { return rows.get(row); }
+        @Override public boolean isCellEditable(int row, int col) { return app != null; }
+
+        boolean isLiked(int row) { return liked.get(row); }
+
+        <T extends FeedCardFactory.PostViewDTO> void append(List<T> chunk, Predicate<? super T> isLiked) {
+            if (chunk.isEmpty()) return;
+            int first = rows.size();
+            rows.ensureCapacity(first + chunk.size());
+            for (T p : chunk) {
+                if (isLiked.test(p)) liked.set(rows.size());
+                rows.add(p);
+            }
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+
+        void clear() {
+            int n = rows.size();
+            rows.clear();
+            rows.trimToSize();
+            liked.clear();
+            if (n > 0) fireTableRowsDeleted(0, n - 1);
+        }
+
+        // 편집기 카드에서 좋아요가 커밋됨 → 숫자 +1, 좋아요 표시(그 사이 목록이 바뀌었으면 무시)
+        void markLiked(int row, int postId) {
+            if (row >= rows.size() || rows.get(row).getPostId() != postId || liked.get(row)) return;
+            FeedCardFactory.PostViewDTO p = rows.get(row);
+            rows.set(row, Counts.of(p, p.getLikeCount() + 1, p.getCommentCount()));
+            liked.set(row);
+            fireTableRowsUpdated(row, row);
+        }
+
+        // 갱신기가 읽어 온 현재 수. 다르면 그 행만 바꿔 다시 그린다
+        boolean setCounts(int row, int likes, int comments) {
+            FeedCardFactory.PostViewDTO p = rows.get(row);
+            if (p.getLikeCount() == likes && p.getCommentCount() == comments) return false;
+            rows.set(row, Counts.of(p, likes, comments));
+            fireTableRowsUpdated(row, row);
+            return true;
+        }
+    }
+
+    // 좋아요/댓글 수만 바꿔 보여주는 래퍼(원래 DTO는 불변, 겹쳐 씌우지 않고 원래 DTO를 감싼다)
+    private static final class Counts implements FeedCardFactory.PostViewDTO {
+        private final FeedCardFactory.PostViewDTO post;
+        private final int likes, comments;
+
+        private Counts(FeedCardFactory.PostViewDTO post, int likes, int comments) {
+            this.post = post; this.likes = likes; this.comments = comments;
+        }
+
+        static Counts of(FeedCardFactory.PostViewDTO p, int likes, int comments) {
+            return new Counts(p instanceof Counts ? ((Counts) p).post : p, likes, comments);
+        }
+
+        @Override public int getPostId() { return post.getPostId(); }
+        @Override public String getWriterId() { return post.getWriterId(); }
+        @Override public String getContent() { return post.getContent(); }
+        @Override public int getLikeCount() { return likes; }
+        @Override public Timestamp getCreatedAt() { return post.getCreatedAt(); }
+        @Override public int getCommentCount() { return comments; }
+    }
+
+    /* ========= 그리기: 카드 모양 패널 하나를 재사용 ========= */
+
+    private static final class CardRenderer extends JPanel implements TableCellRenderer {
+        private final JLabel header = new JLabel();
+        private final JTextArea body = new JTextArea();
+        private final JLabel likeLabel = new JLabel();
+        private final JButton commentsBtn = new JButton("Comments");
+        private final Color defaultFg = likeLabel.getForeground();
+
+        CardRenderer(boolean interactive) {
+            super(new BorderLayout());
+            setBorder(BorderFactory.createCompoundBorder(
+                    new EmptyBorder(0, 0, 8, 0),
+                    BorderFactory.createCompoundBorder(
+                            BorderFactory.createLineBorder(new Color(210,210,210)),
+                            new EmptyBorder(8,8,8,8))));
+            add(header, BorderLayout.NORTH);
+
+            body.setEditable(false);
+            body.setLineWrap(true);
+            body.setWrapStyleWord(true);
+            body.setOpaque(false);
+            add(body, BorderLayout.CENTER);
+
+            // 버튼은 모양만(누르면 CardEditor의 진짜 카드로 바뀌어 그쪽이 받는다)
+            JPanel actions = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+            actions.setOpaque(false);
+            actions.add(likeLabel);
+            if (interactive) {
+                actions.add(new JButton("Like"));
+                actions.add(commentsBtn);
+            }
+            add(actions, BorderLayout.SOUTH);
+        }
+
+        // 본문 PREVIEW_LINES줄 기준 카드 높이 = 모든 행의 높이
+        int previewHeight() {
+            body.setText("");
+            body.setRows(PREVIEW_LINES);
+            return getPreferredSize().height;
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            FeedCardFactory.PostViewDTO post = (FeedCardFactory.PostViewDTO) value;
+            setBackground(table.getBackground());
+            header.setText(post.getCreatedAt() == null ? post.getWriterId()
+                                                       : post.getWriterId() + "  •  " + post.getCreatedAt());
+            body.setText(post.getContent());
+            likeLabel.setText("♥ " + post.getLikeCount());
+            commentsBtn.setText(FeedCardFactory.commentsLabel(post.getCommentCount()));
+            boolean liked = ((Model) table.getModel()).isLiked(row);
+            likeLabel.setForeground(liked ? Color.RED : defaultFg);
+            return this;
+        }
+    }
+
+    /* ========= 편집기: 누른 행만 진짜 카드 ========= */
+
+    private final class CardEditor extends AbstractCellEditor implements TableCellEditor {
+        private int editingRow = -1;
+        private FeedCardFactory.PostViewDTO editing;
+
+        @Override public boolean isCellEditable(EventObject e) { return e instanceof java.awt.event.MouseEvent; }
+        @Override public Object getCellEditorValue() { return editing; }
+
+        @Override
+        public Component getTableCellEditorComponent(JTable t, Object value, boolean isSelected, int row, int column) {
+            editingRow = row;
+            editing = (FeedCardFactory.PostViewDTO) value;
+            final int postId = editing.getPostId();
+            JPanel card = FeedCardFactory.createPostCard(app, editing, model.isLiked(row),
+                    () -> model.markLiked(row, postId));
+
+            // 카드 높이가 바뀌면(댓글 펼침/접기, 댓글 로드) 이 행 높이만 맞춘다
+            JPanel holder = new JPanel(new BorderLayout()) {
+                @Override public void doLayout() {
+                    super.doLayout();
+                    int h = Math.max(rowHeight, getPreferredSize().height);
+                    if (editingRow == row && table.getRowHeight(row) != h) {
+                        SwingUtilities.invokeLater(() -> fitRow(row, h));
+                    }
+                }
+            };
+            holder.setBorder(new EmptyBorder(0, 0, 8, 0));
+            holder.add(card, BorderLayout.CENTER);
+            return holder;
+        }
+
+        private void fitRow(int row, int h) {
+            if (editingRow != row || !table.isEditing()) return;
+            table.setRowHeight(row, h);
+            Component ed = table.getEditorComponent();
+            if (ed != null) {
+                ed.setBounds(table.getCellRect(row, 0, false));
+                ed.validate();
+            }
+        }
+
+        @Override public boolean stopCellEditing() {
+            boolean ok = super.stopCellEditing();
+            collapse();
+            return ok;
+        }
+
+        @Override public void cancelCellEditing() {
+            super.cancelCellEditing();
+            collapse();
+        }
+
+        // 편집이 끝나면 행 높이를 모두 같게 되돌린다(행별 높이 테이블도 버려짐)
+        private void collapse() {
+            editingRow = -1;
+            editing = null;
+            table.setRowHeight(rowHeight);
+        }
+    }
+}
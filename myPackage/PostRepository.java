@@ -0,0 +1,241 @@
+/*
+ * 파일명: PostRepository.java
+ * 목적: 화면마다 복사돼 있던 게시글 SELECT(번호, 작성자, 본문, 좋아요 수, 작성 시각)와 DTO들을 한 곳으로 모은 조회 API.
+ *       피드(FeedPanel), 개인 보드, 해시태그 결과, PostTimelineMain, HashTag.search가 모두 이 클래스를 거친다.
+ *
+ * 조회
+ * - recent(con, projection, cursor, out)          : 전체 글
+ * - byAuthor(con, projection, writerId, cursor, out): 작성자 글(posts(writer_id, post_id) 인덱스)
+ * - byTag(con, projection, tag, cursor, out)       : 태그 글(post_tag(tag, post_id) 인덱스)
+ * - byIds(con, projection, ids, out)               : 주어진 번호의 글(타임라인 엔진이 고른 id → 본문)
+ * - counts(con, ids)                               : 주어진 번호의 좋아요 수/댓글 수만(LiveCountRefresher, 본문은 읽지 않음)
+ *   · 모두 post_id 내림차순. 결과는 행마다 out.accept(row)로 넘긴다(목록을 다 모으지 않고 바로 화면/다음 단계로).
+ *
+ * 커서(Cursor, 키셋)
+ * - first(limit) / before(postId, limit) / after(postId, limit) / ALL.
+ *   OFFSET 없이 "post_id < 마지막으로 받은 번호"로 이어 받으므로 몇 페이지를 내려가도 비용이 같다.
+ *   after는 화면의 최신 글보다 새 글 확인(FeedPanel 새 글 배너)용.
+ * - cursor.streaming(): 전방 전용(TYPE_FORWARD_ONLY, CONCUR_READ_ONLY) + 스트리밍 fetch size로 실행해
+ *   드라이버가 결과 전체를 메모리에 올리지 않게 한다(PostTimelineMain처럼 표 전체를 훑는 조회).
+ *   MySQL(Connector/J)은 Integer.MIN_VALUE(행 단위 스트리밍), 그 밖의 드라이버는 STREAM_FETCH_SIZE.
+ *   MySQL 스트리밍 결과는 일찍 닫아도 남은 행을 끝까지 읽으므로, 멈출 수 있는 호출측은 limit으로 구간을 나눈다.
+ *
+ * 프로젝션(Projection)
+ * - ID(번호만) / TEXT(+작성자, 본문) / LIST(+좋아요 수) / CARD(+작성 시각, 댓글 수).
+ *   컬럼 순서가 같고 앞부분만 잘라 쓰므로 하나의 매퍼(map)가 컬럼 인덱스로 읽는다. 읽지 않은 필드는 null/0.
+ *
+ * 좋아요 여부
+ * - fillLiked(con, viewerId, rows): 묶음의 좋아요 여부를 PostLikeDAO.likedPostIds 한 번으로 채운다.
+ * - streamLiked(con, viewerId, chunkSize, query, out): 조회 결과를 chunkSize개씩 fillLiked 후 out으로(목록 화면 스트리밍용).
+ *
+ * 설정
+ * - -Dtwitter.db.streamFetchSize (기본 500): streaming() 커서의 fetch size(MySQL 제외)
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+public class PostRepository {
+
+    private static final int IN_CHUNK = 500;
+    public static final int STREAM_FETCH_SIZE = Math.max(1, Integer.getInteger("twitter.db.streamFetchSize", 500));
+
+    /** 읽을 컬럼 범위(앞에서부터 잘라 씀) */
+    public enum Projection {
+        ID  ("p.post_id"),
+        TEXT("p.post_id, p.writer_id, p.content"),
+        LIST("p.post_id, p.writer_id, p.content, p.num_of_likes"),
+        CARD("p.post_id, p.writer_id, p.content, p.num_of_likes, p.created_at, p.comment_count");
+
+        final String columns;
+        Projection(String columns) { this.columns = columns; }
+    }
+
+    /** 키셋 커서: before/after 중 하나(0 = 없음), limit 0 = 끝까지 */
+    public static final class Cursor {
+        public static final Cursor ALL = new Cursor(0, 0, 0, false);
+
+        final int before, after, limit;
+        final boolean stream;
+        private Cursor(int before, int after, int limit, boolean stream) {
+            this.before = before; this.after = after; this.limit = limit; this.stream = stream;
+        }
+        private Cursor(int before, int after, int limit) { this(before, after, limit, false); }
+
+        /** 같은 범위를 전방 전용 스트리밍 커서로 */
+        public Cursor streaming() { return new Cursor(before, after, limit, true); }
+
+        public static Cursor first(int limit) { return new Cursor(0, 0, limit); }
+        /** postId보다 오래된 글(postId가 0 이하이면 최신부터) */
+        public static Cursor before(int postId, int limit) { return new Cursor(Math.max(0, postId), 0, limit); }
+        /** postId보다 새 글(최신순으로 limit개) */
+        public static Cursor after(int postId, int limit) { return new Cursor(0, postId, limit); }
+    }
+
+    /** 행 하나씩 받는 쪽 */
+    public interface RowHandler {
+        void accept(PostRow row) throws SQLException;
+    }
+
+    /** streamLiked에 넘길 조회(결과를 handler로 흘려보냄) */
+    public interface Query {
+        void run(RowHandler handler) throws SQLException;
+    }
+
+    /** 게시글 한 행. 모든 목록 화면이 쓰는 공용 DTO(좋아요 수/여부는 화면에서 바꿀 수 있음) */
+    public static final class PostRow implements FeedCardFactory.PostViewDTO {
+        public final int postId;
+        public final String writerId;
+        public final String content;
+        public int likes;          // posts.num_of_likes (LIST/CARD)
+        public final Timestamp createdAt;
+        public int comments;       // posts.comment_count (CARD, 댓글을 달면 화면에서 +1)
+        public boolean liked;      // 현재 사용자가 좋아요했는지(fillLiked로 채움)
+
+        public PostRow(int postId, String writerId, String content, int likes, Timestamp createdAt) {
+            this.postId = postId; this.writerId = writerId; this.content = content;
+            this.likes = likes; this.createdAt = createdAt;
+        }
+
+        @Override public int getPostId()          { return postId; }
+        @Override public String getWriterId()     { return writerId; }
+        @Override public String getContent()      { return content; }
+        @Override public int getLikeCount()       { return likes; }
+        @Override public Timestamp getCreatedAt() { return createdAt; }
+        @Override public int getCommentCount()    { return comments; }
+    }
+
+    /* ========= 조회 ========= */
+
+    public static void recent(Connection con, Projection pr, Cursor cursor, RowHandler out) throws SQLException {
+        query(con, pr, "", null, null, cursor, out);
+    }
+
+    public static void byAuthor(Connection con, Projection pr, String writerId, Cursor cursor, RowHandler out) throws SQLException {
+        query(con, pr, "", "p.writer_id = ?", writerId, cursor, out);
+    }
+
+    public static void byTag(Connection con, Projection pr, String tag, Cursor cursor, RowHandler out) throws SQLException {
+        query(con, pr, " JOIN post_tag t ON t.post_id = p.post_id", "t.tag = ?", tag, cursor, out);
+    }
+
+    /** ids의 글을 post_id 내림차순으로(없는 번호는 빠진다). IN 목록은 IN_CHUNK개씩 나눠 조회 */
+    public static void byIds(Connection con, Projection pr, List<Integer> ids, RowHandler out) throws SQLException {
+        if (ids.isEmpty()) return;
+        List<Integer> sorted = new ArrayList<>(ids);
+        sorted.sort(Collections.reverseOrder()); // 묶음을 차례로 읽어도 전체가 내림차순
+        for (int from = 0; from < sorted.size(); from += IN_CHUNK) {
+            List<Integer> chunk = sorted.subList(from, Math.min(from + IN_CHUNK, sorted.size()));
+            String sql = "SELECT " + pr.columns + " FROM posts p WHERE p.post_id IN " + placeholders(chunk.size())
+                       + " ORDER BY p.post_id DESC";
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                emit(ps, pr, out);
+            }
+        }
+    }
+
+    /** ids 글의 현재 {num_of_likes, comment_count}(post_id → 배열, 없는 번호는 빠진다). PK 조회만 하므로 보이는 카드 수만큼만 읽는다 */
+    public static Map<Integer, int[]> counts(Connection con, Collection<Integer> ids) throws SQLException {
+        Map<Integer, int[]> out = new HashMap<>(ids.size() * 2);
+        List<Integer> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<Integer> chunk = all.subList(from, Math.min(from + IN_CHUNK, all.size()));
+            String sql = "SELECT p.post_id, p.num_of_likes, p.comment_count FROM posts p WHERE p.post_id IN "
+                       + placeholders(chunk.size());
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) out.put(rs.getInt(1), new int[] { rs.getInt(2), rs.getInt(3) });
+                }
+            }
+        }
+        return out;
+    }
+
+    private static String placeholders(int n) {
+        StringJoiner in = new StringJoiner(",", "(", ")");
+        for (int i = 0; i < n; i++) in.add("?");
+        return in.toString();
+    }
+
+    // SELECT <pr> FROM posts p <join> WHERE <filter> AND <cursor> ORDER BY p.post_id DESC [LIMIT ?]
+    private static void query(Connection con, Projection pr, String join, String filter, String arg,
+                              Cursor cursor, RowHandler out) throws SQLException {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (filter != null) where.add(filter);
+        if (cursor.before > 0) where.add("p.post_id < ?");
+        if (cursor.after > 0) where.add("p.post_id > ?");
+        String sql = "SELECT " + pr.columns + " FROM posts p" + join + where
+                   + " ORDER BY p.post_id DESC" + (cursor.limit > 0 ? " LIMIT ?" : "");
+        try (PreparedStatement ps = cursor.stream ? prepareStreaming(con, sql) : con.prepareStatement(sql)) {
+            int i = 1;
+            if (filter != null) ps.setString(i++, arg);
+            if (cursor.before > 0) ps.setInt(i++, cursor.before);
+            if (cursor.after > 0) ps.setInt(i++, cursor.after);
+            if (cursor.limit > 0) ps.setInt(i, cursor.limit);
+            emit(ps, pr, out);
+        }
+    }
+
+    private static PreparedStatement prepareStreaming(Connection con, String sql) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        boolean mysql = "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+        ps.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+        return ps;
+    }
+
+    private static void emit(PreparedStatement ps, Projection pr, RowHandler out) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) out.accept(map(rs, pr));
+        }
+    }
+
+    /** 공용 행 매퍼: 프로젝션이 읽은 컬럼만 인덱스로 읽는다 */
+    static PostRow map(ResultSet rs, Projection pr) throws SQLException {
+        int id = rs.getInt(1);
+        if (pr == Projection.ID) return new PostRow(id, null, null, 0, null);
+        String writer = rs.getString(2), content = rs.getString(3);
+        int likes = pr.ordinal() >= Projection.LIST.ordinal() ? rs.getInt(4) : 0;
+        if (pr != Projection.CARD) return new PostRow(id, writer, content, likes, null);
+        PostRow row = new PostRow(id, writer, content, likes, rs.getTimestamp(5));
+        row.comments = rs.getInt(6);
+        return row;
+    }
+
+    /* ========= 좋아요 여부 ========= */
+
+    /** rows의 좋아요 여부를 한 번의 조회로 채운다(viewerId가 없으면 모두 false) */
+    public static void fillLiked(Connection con, String viewerId, List<PostRow> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (PostRow r : rows) ids.add(r.postId);
+        Set<Integer> liked = PostLikeDAO.likedPostIds(con, viewerId, ids);
+        for (PostRow r : rows) r.liked = liked.contains(r.postId);
+    }
+
+    /** query 결과를 chunkSize개씩 좋아요 여부를 채워 out으로 내보낸다(마지막 자투리 포함) */
+    public static void streamLiked(Connection con, String viewerId, int chunkSize, Query query,
+                                   DbExecutor.Sink<PostRow> out) throws SQLException {
+        List<PostRow> chunk = new ArrayList<>(chunkSize);
+        query.run(row -> {
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                fillLiked(con, viewerId, chunk);
+                for (PostRow r : chunk) out.publish(r);
+                chunk.clear();
+            }
+        });
+        fillLiked(con, viewerId, chunk);
+        for (PostRow r : chunk) out.publish(r);
+    }
+}
@@ -1,25 +1,36 @@
 /*
  * 파일명: PostTimelineMain.java
- * 목적: DB의 posts(+user 조인) 데이터를 읽어 간단한 타임라인 UI로 표시하는 독립 실행형 스윙 프레임.
+ * 목적: DB의 posts 데이터를(PostRepository) 읽어 간단한 타임라인 UI로 표시하는 독립 실행형 스윙 프레임.
  *
  * 주요 기능
  * - 상단 바: "타임라인" 제목과 [새로고침] 버튼 제공.
- * - 본문: 스크롤 가능한 카드 목록; 각 카드에 작성자 ID, 좋아요 수, 본문 내용 표시.
- * - 데이터 로딩: posts와 user를 조인하여 최신 post_id 순으로 조회 후 화면에 렌더링.
+ * - 본문: PostListView(읽기 전용 가상화 목록); 각 행에 작성자 ID, 좋아요 수, 본문 내용 표시.
+ *   보이는 행만 그리므로 글이 수만 개여도 컴포넌트 수는 화면 크기만큼.
+ * - 데이터 로딩(스트리밍): PostRepository.recent(LIST 프로젝션, 전방 전용 스트리밍 커서)로 최신 post_id 순으로
+ *   DbExecutor.stream(백그라운드)에서 읽고, PostListView.APPEND_CHUNK개 이하씩 EDT에서 목록에 붙임(다시 누르면 이전 조회 취소).
+ *   · 화면 요청(demand): 행을 하나 내보낼 때마다 허가 하나를 쓴다. 허가는 목록이 끝에 가까워질 때(setOnNearEnd)
+ *     두 화면 분량까지 채워 주므로, 화면을 채우면 읽기를 멈추고 스크롤하면 같은 커서에서 이어 읽는다.
+ *   · 허가 없이 IDLE_MS 동안 기다리면 구간을 끝내고 커서/커넥션을 반납한다. 다음 요청 때
+ *     마지막으로 받은 post_id 아래부터(Cursor.before) 새 구간을 연다. 한 구간은 SEGMENT행까지.
+ *   · 힙에는 지금까지 스크롤해 내려온 행만 남는다(표 크기와 무관). 드라이버도 fetch size만큼만 버퍼링.
  *
  * 동작 흐름
- * - main()에서 DBConn.getConnection()으로 커넥션 획득 → PostTimelineMain 생성 및 표시.
+ * - main()에서 PostTimelineMain 생성 및 표시. 커넥션은 로딩할 때마다 DBConn 풀에서 빌리고 바로 반납.
  * - 생성자에서 최초 1회 loadPosts() 호출 → 이후 [새로고침] 버튼으로 재호출.
  *
+ * 설정
+ * - -Dtwitter.timeline.segmentRows (기본 5000): 한 커서 구간의 최대 행 수(MySQL 스트리밍은 일찍 닫아도 남은 행을 읽으므로 작게)
+ * - -Dtwitter.timeline.idleMs (기본 3000): 화면 요청 없이 커서를 열어 두는 시간
+ *
  * DB 가정/전제
  * - 테이블: posts(post_id, content, writer_id, num_of_likes, created_at…), user(user_id, …) 존재.
- * - FK: posts.writer_id → user.user_id (코드에서는 존재 가정; 실제 제약은 스키마에 따라 다를 수 있음)
+ * - FK: posts.writer_id → user.user_id (스키마 제약이 보장하므로 user 조인 없이 posts만 읽음)
  *
  * UI/설계 포인트
  * - 단순 미니 타임라인이므로 작성/좋아요 기능은 포함하지 않음(읽기 전용).
  *
  * 예외 처리
- * - DB 조회 실패 시 다이얼로그로 오류 메시지 노출.
+ * - DB 조회 실패 시 다이얼로그로 오류 메시지 노출(이미 붙은 행은 그대로 둠).
  *
  */
 
@@ -28,33 +39,32 @@ package myPackage;
 import javax.swing.*;
 import java.awt.*;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
- * DB의 posts + user 테이블을 읽어서
+ * DB의 posts 테이블을 읽어서
  * 스크롤 가능한 타임라인으로 보여주는 간단한 예제
  */
 public class PostTimelineMain extends JFrame {
 
-    // DB 연결
-    private final Connection conn;
+    private static final int SEGMENT = Math.max(1, Integer.getInteger("twitter.timeline.segmentRows", 5000));
+    private static final long IDLE_MS = Math.max(1, Long.getLong("twitter.timeline.idleMs", 3000));
 
-    // 포스트 카드들이 쌓일 패널
-    private final JPanel postsContainer;
+    // 포스트 목록(읽기 전용 가상화 목록)
+    private final PostListView postList;
+    private Future<?> pendingLoad; // 진행 중 구간(EDT에서만 접근)
 
-    // ====== Post DTO ======
-    private static class Post {
-        int postId;
-        String writerId;      // user.user_id
-        String content;
-        int numOfLikes;
-    }
+    // 스트리밍 상태(EDT에서만 접근). demand는 작업 스레드와 공유
+    private Semaphore demand = new Semaphore(0);
+    private int lastId;          // 목록에 붙은 마지막(가장 오래된) post_id, 0 = 아직 없음
+    private boolean exhausted;   // 표 끝까지 읽음
 
     // ====== 생성자 ======
-    public PostTimelineMain(Connection conn) {
-        this.conn = conn;
-
+    public PostTimelineMain() {
         setTitle("Mini Twitter Timeline");
         setSize(600, 800);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -73,13 +83,9 @@ public class PostTimelineMain extends JFrame {
         add(topPanel, BorderLayout.NORTH);
 
         // 가운데: 스크롤 가능한 포스트 목록
-        postsContainer = new JPanel();
-        postsContainer.setLayout(new BoxLayout(postsContainer, BoxLayout.Y_AXIS));
-
-        JScrollPane scrollPane = new JScrollPane(postsContainer);
-        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-
-        add(scrollPane, BorderLayout.CENTER);
+        postList = new PostListView(null);
+        postList.setOnNearEnd(this::grant);
+        add(postList, BorderLayout.CENTER);
 
         // 처음 한 번 로딩
         loadPosts();
@@ -88,100 +94,108 @@ public class PostTimelineMain extends JFrame {
         refreshButton.addActionListener(e -> loadPosts());
     }
 
-    // ====== DB에서 posts 읽어서 패널에 뿌리기 ======
+    // ====== DB에서 posts 읽어서 목록에 붙이기 ======
     private void loadPosts() {
-        postsContainer.removeAll(); // 기존 카드 제거
+        if (pendingLoad != null) pendingLoad.cancel(true);
+        pendingLoad = null;
+        postList.clear(); // 기존 행 제거
+        postList.setStatus("불러오는 중…");
+        demand = new Semaphore(0); // 이전 구간이 남은 허가를 쓰지 않도록 새로
+        lastId = 0;
+        exhausted = false;
+        grant();
+    }
 
-        List<Post> posts = fetchPostsFromDb();
+    // 목록 끝이 가까움 → 읽을 허가를 두 화면 분량까지 채우고, 멈춰 있던 구간이면 새로 연다
+    private void grant() {
+        if (exhausted) return;
+        int screen = postList.screenRows();
+        int outstanding = demand.availablePermits();
+        if (outstanding < screen) demand.release(2 * screen - outstanding);
+        if (pendingLoad == null) startSegment();
+    }
 
-        for (Post p : posts) {
-            JPanel postPanel = createPostPanel(p);
-            postsContainer.add(postPanel);
-        }
+    private void startSegment() {
+        final Semaphore d = demand;
+        final int from = lastId;
+        final int[] read = new int[1];     // 작업 스레드에서만 씀
+        final boolean[] paused = new boolean[1];
+        Future<?>[] self = new Future<?>[1];
 
-        postsContainer.revalidate();
-        postsContainer.repaint();
+        self[0] = DbExecutor.<PostRepository.PostRow>stream(out -> {
+            try {
+                streamPostsFromDb(from, d, out, read);
+            } catch (Paused p) {
+                paused[0] = true;
+            }
+        }, PostListView.APPEND_CHUNK, 0, this::appendChunk, (r, e) -> {
+            if (pendingLoad != self[0]) return; // 새로고침으로 대체된 구간
+            pendingLoad = null;
+            if (e != null) {
+                postList.setStatus(postList.getRowCount() + " posts");
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(this,
+                        "posts 불러오는 중 오류: " + e.getMessage(),
+                        "DB 오류",
+                        JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            exhausted = !paused[0] && read[0] < SEGMENT;
+            postList.setStatus(postList.getRowCount() + (exhausted ? " posts" : " posts…"));
+            if (!exhausted && demand.availablePermits() > 0) startSegment(); // 구간 끝/대기 중 들어온 요청
+        });
+        pendingLoad = self[0];
     }
 
-    // posts + user 테이블에서 데이터 읽어오기
-    private List<Post> fetchPostsFromDb() {
-        List<Post> list = new ArrayList<>();
-
-        // created_at은 조회/표시 대상에서 제외 (간단한 데모 목적)
-        String sql =
-                "SELECT p.post_id, p.content, p.writer_id, p.num_of_likes " +
-                "FROM posts p " +
-                "JOIN `user` u ON p.writer_id = u.user_id " +
-                "ORDER BY p.post_id DESC";
-
-        try (PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Post p = new Post();
-                p.postId = rs.getInt("post_id");
-                p.content = rs.getString("content");
-                p.writerId = rs.getString("writer_id");
-                p.numOfLikes = rs.getInt("num_of_likes");
-                list.add(p);
-            }
+    private void appendChunk(List<PostRepository.PostRow> chunk) {
+        postList.append(chunk, p -> false);
+        lastId = chunk.get(chunk.size() - 1).postId;
+        postList.setStatus(postList.getRowCount() + " posts…");
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "posts 불러오는 중 오류: " + e.getMessage(),
-                    "DB 오류",
-                    JOptionPane.ERROR_MESSAGE);
+    // 최신순으로 from보다 오래된 글을 SEGMENT행까지 읽는다(행마다 허가 하나, 허가가 없으면 모은 행을 먼저 보내고 기다림)
+    // created_at은 조회/표시 대상에서 제외 (간단한 데모 목적) → LIST 프로젝션
+    private static void streamPostsFromDb(int from, Semaphore demand, DbExecutor.Sink<PostRepository.PostRow> out,
+                                          int[] read) throws SQLException {
+        try (Connection conn = DBConn.getReadConnection()) {
+            PostRepository.recent(conn, PostRepository.Projection.LIST,
+                    PostRepository.Cursor.before(from, SEGMENT).streaming(), row -> {
+                if (!demand.tryAcquire()) {
+                    out.flush();
+                    try {
+                        if (!demand.tryAcquire(IDLE_MS, TimeUnit.MILLISECONDS)) throw new Paused();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("timeline stream cancelled");
+                    }
+                }
+                out.publish(row);
+                read[0]++;
+            });
         }
-
-        return list;
     }
 
-    // ====== 포스트 하나를 카드 형태로 만드는 패널 ======
-    private JPanel createPostPanel(Post post) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBorder(
-                BorderFactory.createCompoundBorder(
-                        BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
-                        BorderFactory.createEmptyBorder(8, 8, 8, 8)
-                )
-        );
-
-        // 상단: 작성자 + 좋아요 수 (시간 제거)
-        String headerText = post.writerId + "  ·  ❤ " + post.numOfLikes;
-        JLabel headerLabel = new JLabel(headerText);
-        headerLabel.setFont(headerLabel.getFont().deriveFont(Font.BOLD, 12f));
-
-        // 중앙: 내용 (여러 줄 지원)
-        JTextArea contentArea = new JTextArea(post.content);
-        contentArea.setLineWrap(true);
-        contentArea.setWrapStyleWord(true);
-        contentArea.setEditable(false);
-        contentArea.setOpaque(false);
-
-        panel.add(headerLabel, BorderLayout.NORTH);
-        panel.add(contentArea, BorderLayout.CENTER);
-
-        return panel;
+    // 화면 요청 없이 IDLE_MS가 지남 → 구간을 끝내고 커서를 닫는다(오류 아님)
+    private static final class Paused extends SQLException {
+        Paused() { super("timeline stream paused"); }
     }
 
     // ====== main: 바로 실행용 ======
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                // 네가 만든 DBConn 사용 (예: 커넥션 풀을 쓰는 경우 여기서 대체 가능)
-                Connection conn = DBConn.getConnection();
-
-                PostTimelineMain frame = new PostTimelineMain(conn);
-                frame.setVisible(true);
-
+                // 연결 확인만 하고 반납 (실제 조회는 loadPosts()에서 풀 커넥션 사용)
+                DBConn.ping();
             } catch (SQLException e) {
                 e.printStackTrace();
                 JOptionPane.showMessageDialog(null,
                         "DB 연결 실패: " + e.getMessage(),
                         "DB 오류",
                         JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            PostTimelineMain frame = new PostTimelineMain();
+            frame.setVisible(true);
         });
     }
 }
@@ -5,7 +5,7 @@
  * 주요 기능
  * 1) 즉시 게시:
  *    - 상단 텍스트 영역의 내용을 posts(content, writer_id, created_at)로 INSERT
- *    - 본문에서 #해시태그를 정규식으로 추출하여 post_tag(post_id, tag)에 저장(중복 무시)
+ *    - 본문에서 #해시태그를 추출(Hashtags)하여 post_tag(post_id, tag)에 저장(중복 무시)
  *
  * 2) 예약 게시:
  *    - "예약 포스트" 체크 시 yyyy-MM-dd HH:mm 형식의 예약 시각 입력
@@ -44,8 +44,6 @@ import java.awt.event.ActionEvent;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 트위터 스타일 글쓰기 화면
@@ -56,7 +54,6 @@ import java.util.regex.Pattern;
  */
 public class PostWriterMain extends JFrame {
 
-    private final Connection conn;
     private final String currentUserId;  // 로그인한 사용자 아이디
 
     private final JTextArea contentArea;
@@ -68,11 +65,7 @@ public class PostWriterMain extends JFrame {
     private final DateTimeFormatter formatter =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    // 해시태그 추출 정규식: 영문/숫자/밑줄/한글
-    private static final Pattern TAG = Pattern.compile("#([\\p{IsAlphabetic}\\p{IsDigit}_가-힣]+)");
-
-    public PostWriterMain(Connection conn, String currentUserId) {
-        this.conn = conn;
+    public PostWriterMain(String currentUserId) {
         this.currentUserId = currentUserId;
 
         setTitle("Write Post");
@@ -192,18 +185,27 @@ public class PostWriterMain extends JFrame {
     private boolean insertPostNow(String content) {
         String sql = "INSERT INTO posts (content, writer_id) VALUES (?, ?)";
 
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, content);
-            ps.setString(2, currentUserId);
-            ps.executeUpdate();
-
-            int postId = -1;
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) postId = keys.getInt(1);
-            }
-            if (postId > 0) {
-                saveHashtags(conn, postId, content); // 본문 내 #태그 저장
-            }
+        try {
+            // 글 + 해시태그를 한 트랜잭션으로(데드락 시 재시도)
+            int newPostId = TxExecutor.inTransaction("post_write", conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setString(1, content);
+                    ps.setString(2, currentUserId);
+                    ps.executeUpdate();
+
+                    int postId = -1;
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) postId = keys.getInt(1);
+                    }
+                    if (postId > 0) {
+                        Hashtags.save(conn, postId, content); // 본문 내 #태그 저장
+                        TimelineFanout.addOwn(conn, postId, currentUserId); // 내 타임라인에는 바로
+                    }
+                    return postId;
+                }
+            });
+            if (newPostId > 0) TimelineFanout.published(newPostId, currentUserId); // 팔로워 타임라인은 비동기로
+            DBConn.noteWrite(currentUserId); // 직후 피드 리로드는 primary에서(read-your-writes)
             return true;
         } catch (SQLException ex) {
             ex.printStackTrace();
@@ -220,11 +222,13 @@ public class PostWriterMain extends JFrame {
         String sql = "INSERT INTO reserved_post (writer_id, content, scheduled_time, is_posted) " +
                      "VALUES (?, ?, ?, FALSE)";
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = DBConn.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, currentUserId);
             ps.setString(2, content);
             ps.setTimestamp(3, Timestamp.valueOf(scheduledTime));
             ps.executeUpdate();
+            DBConn.noteWrite(currentUserId);
             return true;
         } catch (SQLException ex) {
             ex.printStackTrace();
@@ -247,99 +251,28 @@ public class PostWriterMain extends JFrame {
      * reserved_post 테이블에서
      * - scheduled_time <= 현재 시각
      * - is_posted = FALSE
-     * 인 것들을 찾아서
-     * 1) posts 테이블에 INSERT
-     * 2) reserved_post.is_posted = TRUE 로 업데이트
-     * 3) 해당 content의 해시태그 post_tag에 저장
+     * 인 것들을 게시한다(posts INSERT + 해시태그 저장 + is_posted 갱신).
+     * 배치 잠금/트랜잭션/재시도는 ReservedPostWorker가 담당하며, EDT를 막지 않도록 DbExecutor에서 실행한다.
      */
     private void processReservedPosts() {
-        String selectSql =
-                "SELECT s_id, writer_id, content, scheduled_time " +
-                "FROM reserved_post " +
-                "WHERE is_posted = FALSE AND scheduled_time <= NOW()";
-
-        String insertPostSql =
-                "INSERT INTO posts (content, writer_id, created_at) " +
-                "VALUES (?, ?, NOW())";
-
-        String updateReservedSql =
-                "UPDATE reserved_post SET is_posted = TRUE WHERE s_id = ?";
-
-        try (PreparedStatement psSelect = conn.prepareStatement(selectSql);
-             ResultSet rs = psSelect.executeQuery()) {
-
-            while (rs.next()) {
-                int sId = rs.getInt("s_id");
-                String writerId = rs.getString("writer_id");
-                String content  = rs.getString("content");
-
-                int newPostId = -1;
-
-                // 1) posts에 INSERT (생성된 post_id 회수)
-                try (PreparedStatement psInsert =
-                             conn.prepareStatement(insertPostSql, Statement.RETURN_GENERATED_KEYS)) {
-                    psInsert.setString(1, content);
-                    psInsert.setString(2, writerId);
-                    psInsert.executeUpdate();
-                    try (ResultSet keys = psInsert.getGeneratedKeys()) {
-                        if (keys.next()) newPostId = keys.getInt(1);
-                    }
-                }
-
-                // 1-1) 해시태그 저장
-                if (newPostId > 0) {
-                    saveHashtags(conn, newPostId, content);
-                }
-
-                // 2) reserved_post의 is_posted 갱신
-                try (PreparedStatement psUpdate = conn.prepareStatement(updateReservedSql)) {
-                    psUpdate.setInt(1, sId);
-                    psUpdate.executeUpdate();
-                }
-            }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            // 예약 워커는 조용히 로그만 출력
-        }
-    }
-
-    /* ======================= 해시태그 저장 유틸 ======================= */
-
-    private void saveHashtags(Connection con, int postId, String content) throws SQLException {
-        if (content == null || content.isEmpty()) return;
-
-        Matcher m = TAG.matcher(content);
-        try (PreparedStatement ps = con.prepareStatement(
-                "INSERT IGNORE INTO post_tag(post_id, tag) VALUES(?, ?)")) {
-            while (m.find()) {
-                String tag = m.group(1);
-                if (tag == null || tag.isBlank()) continue;
-
-                String norm = tag.trim().toLowerCase(); // 정규화
-                if (norm.length() > 50) norm = norm.substring(0, 50);
-
-                ps.setInt(1, postId);
-                ps.setString(2, norm);
-                ps.addBatch();
-            }
-            ps.executeBatch();
-        }
+        DbExecutor.submit(() -> { ReservedPostWorker.runOnce(); return null; }, null);
     }
 
     // ===== 실행용 main (단독 테스트용) =====
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             try {
-                Connection conn = DBConn.getConnection();
-                String currentUserId = "kim";   // 테스트용. 실제 로그인 ID 사용.
-                new PostWriterMain(conn, currentUserId);
+                DBConn.ping();   // 연결 확인 후 바로 반납
             } catch (SQLException ex) {
                 ex.printStackTrace();
                 JOptionPane.showMessageDialog(null,
                         "DB 연결 실패: " + ex.getMessage(),
                         "DB 오류",
                         JOptionPane.ERROR_MESSAGE);
+                return;
             }
+            String currentUserId = "kim";   // 테스트용. 실제 로그인 ID 사용.
+            new PostWriterMain(currentUserId);
         });
     }
 }
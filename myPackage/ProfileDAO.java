@@ -9,7 +9,7 @@
  * 4) countFollowings(userId): 해당 사용자가 팔로우 중인 사람 수 조회
  *
  * 의존 전제
- * - DBConn.getConnection(): JDBC Connection 제공
+ * - DBConn.getReadConnection(): 조회용(복제본 라우팅), DBConn.getConnection(): 쓰기용 Connection 제공
  * - 스키마:
  *    user_profile(user_id PK, bio TEXT, updated_at TIMESTAMP …)
  *    following(f_id AI, user_id, follower_id, UNIQUE(user_id, follower_id) …)
@@ -27,7 +27,7 @@ public class ProfileDAO {
     /** user_profile에서 해당 사용자의 bio(상태 메시지) 조회 */
     public static String getBio(String userId) throws SQLException {
         String sql = "SELECT bio FROM user_profile WHERE user_id=?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -52,6 +52,7 @@ public class ProfileDAO {
             ps.setString(2, bio);
             ps.executeUpdate();
         }
+        DBConn.noteWrite(userId);
     }
 
     /**
@@ -60,7 +61,7 @@ public class ProfileDAO {
      */
     public static int countFollowers(String userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM following WHERE user_id=?"; 
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) { rs.next(); return rs.getInt(1); }
@@ -70,7 +71,7 @@ public class ProfileDAO {
     /** 해당 사용자가 팔로우 중인 사람 수 */
     public static int countFollowings(String userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM following WHERE follower_id=?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) { rs.next(); return rs.getInt(1); }
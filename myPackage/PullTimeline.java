@@ -0,0 +1,302 @@
+/*
+ * 파일명: PullTimeline.java
+ * 목적: 추가 테이블 없이 "읽을 때 합치는(pull)" 홈 타임라인 엔진.
+ *       -Dtwitter.timeline.engine=pull 일 때 FeedPanel이 home_timeline 대신 이 클래스를 쓴다(TimelineFanout는 쓰기를 하지 않음).
+ *
+ * 자료구조
+ * - 작성자마다 최근 글 RING_SIZE개의 (post_id, 작성 시각)을 담은 링 버퍼(Ring: int[] / long[] 원시 배열, post_id 오름차순).
+ *   · 게시 커밋 후 TimelineFanout.published → onPublished로 맨 뒤에 추가(가득 차면 가장 오래된 글을 덮어씀)
+ *   · 처음 읽힐 때 posts(writer_id, post_id) 인덱스에서 채운다(warm). 채우기 전에 들어온 게시는 채울 때 합쳐진다.
+ *   · 다른 클라이언트/프로세스의 게시는 onPublished로 오지 않으므로, 마지막 동기화 후 REFRESH_MS가 지난 링은 읽을 때
+ *     posts에서 "post_id > 마지막으로 DB에서 본 글"만 다시 읽어 보탠다(top-up). 기준값은 DB에서 실제로 읽은 글로만 올리므로
+ *     (onPublished로 들어온 글은 제외) 복제본이 늦어 아직 안 보인 글도 다음 top-up에서 들어온다.
+ *
+ * 읽기(pageIds)
+ *  1) following에서 내가 팔로우하는 작성자 목록(+ 나 자신)
+ *  2) 아직 없는 링은 작성자 MERGE_CHUNK명씩 UNION ALL 한 번으로 채움
+ *  3) 각 링에서 before보다 작은 가장 최신 글을 이진 탐색으로 찾아 최대 힙(post_id 기준)에 넣고,
+ *     limit개가 될 때까지 꺼내며 꺼낸 링의 다음 글을 넣는 k-way 병합
+ *     - 힙/결과는 int[]/long[]만 쓰고 박싱하지 않는다. 링 안 위치 대신 "직전 post_id보다 작은 글"을 매번 이진 탐색하므로
+ *       병합 도중 새 글이 들어와 링이 밀려도 순서가 깨지지 않는다.
+ * - 링에 남은 범위(작성자마다 최근 RING_SIZE개)까지만 내려갈 수 있다. 더 오래된 글은 피드 끝으로 본다.
+ *
+ * 설정
+ * - -Dtwitter.timeline.engine=pull, -Dtwitter.timeline.pull.ringSize (기본 50)
+ * - -Dtwitter.timeline.pull.refreshMs (기본 5000): 링을 posts에서 다시 보충하는 간격(0이면 읽을 때마다)
+ *
+ * 통계
+ * - stats(): 링 수, 읽기 횟수와 병합 소요시간(p50/p99), 채운(warm) 작성자 수, 보충(top-up) 횟수
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class PullTimeline {
+
+    public static final boolean ENABLED = "pull".equals(System.getProperty("twitter.timeline.engine", "push"));
+
+    private static final int RING_SIZE   = Math.max(1, Integer.getInteger("twitter.timeline.pull.ringSize", 50));
+    private static final int MERGE_CHUNK = 50;
+    private static final long REFRESH_NANOS = Math.max(0L, Long.getLong("twitter.timeline.pull.refreshMs", 5_000L)) * 1_000_000L;
+
+    private static final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    private static final LongAdder reads = new LongAdder(), warmed = new LongAdder(), toppedUp = new LongAdder();
+    private static final LatencyHistogram mergeLatency = new LatencyHistogram();
+
+    /* ========= 작성자별 링 ========= */
+
+    // 최근 글 RING_SIZE개. ids/times[(start + i) % RING_SIZE] (i = 0..size-1)가 post_id 오름차순
+    static final class Ring {
+        private final int[] ids = new int[RING_SIZE];
+        private final long[] times = new long[RING_SIZE];
+        private int start, size;
+        private boolean warm;       // posts에서 채웠는지
+        private long syncedAtNanos; // 마지막으로 posts에서 읽은 시각
+        private int syncedMax;      // posts에서 읽어 본 가장 큰 post_id(top-up 기준)
+
+        // 읽을 때 posts에서 (다시) 읽어야 하는지
+        synchronized boolean stale(long now) {
+            return !warm || now - syncedAtNanos >= REFRESH_NANOS;
+        }
+
+        // top-up 기준: 아직 안 채웠으면 0(최근 RING_SIZE개 전체), 아니면 DB에서 본 마지막 글 이후만
+        synchronized int syncFrom() {
+            return warm ? syncedMax : 0;
+        }
+
+        synchronized void add(int postId, long time) {
+            if (size > 0 && postId <= ids[(start + size - 1) % RING_SIZE]) {
+                insertOlder(postId, time);
+                return;
+            }
+            if (size < RING_SIZE) {
+                int at = (start + size++) % RING_SIZE;
+                ids[at] = postId;
+                times[at] = time;
+            } else {
+                ids[start] = postId;
+                times[start] = time;
+                start = (start + 1) % RING_SIZE;
+            }
+        }
+
+        // 드문 경우(채우기와 게시가 엇갈림): 순서를 맞춰 끼워 넣는다. 중복이면 무시
+        private void insertOlder(int postId, long time) {
+            int pos = search(postId);
+            if (pos < size && ids[(start + pos) % RING_SIZE] == postId) return;
+            if (size == RING_SIZE) {
+                if (pos == 0) return;              // 링에 남은 가장 오래된 글보다 오래됨
+                start = (start + 1) % RING_SIZE;   // 가장 오래된 글을 버리고 한 칸 앞당김
+                size--;
+                pos--;
+            }
+            for (int i = size; i > pos; i--) {
+                int to = (start + i) % RING_SIZE, from = (start + i - 1) % RING_SIZE;
+                ids[to] = ids[from];
+                times[to] = times[from];
+            }
+            int at = (start + pos) % RING_SIZE;
+            ids[at] = postId;
+            times[at] = time;
+            size++;
+        }
+
+        // postId 이상인 첫 위치(0..size)
+        private int search(int postId) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ids[(start + mid) % RING_SIZE] < postId) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /** before보다 작은 가장 최신 글의 (post_id, 시각)을 out에 담고 true. 없으면 false */
+        synchronized boolean newestBefore(int before, long[] out) {
+            int pos = search(before) - 1;
+            if (pos < 0) return false;
+            int at = (start + pos) % RING_SIZE;
+            out[0] = ids[at];
+            out[1] = times[at];
+            return true;
+        }
+    }
+
+    /** 게시 커밋 후(TimelineFanout.published에서): 이미 있는 링이면 맨 뒤에, 없으면 채우기 전 링을 만들어 둔다 */
+    static void onPublished(int postId, String writer, long time) {
+        rings.computeIfAbsent(writer, w -> new Ring()).add(postId, time);
+    }
+
+    public static String stats() {
+        return String.format("[timeline-pull] rings=%d warmed=%d toppedUp=%d reads=%d | merge p50=%dus p99=%dus",
+                rings.size(), warmed.sum(), toppedUp.sum(), reads.sum(),
+                mergeLatency.percentile(50), mergeLatency.percentile(99));
+    }
+
+    /* ========= 읽기 ========= */
+
+    /** uid가 팔로우하는 사람들(+ 자신)의 글 중 before보다 오래된 것 limit개의 post_id(내림차순). before == 0이면 최신부터 */
+    public static List<Integer> pageIds(Connection con, String uid, int before, int limit) throws SQLException {
+        List<String> authors = new ArrayList<>();
+        authors.add(uid);
+        try (PreparedStatement ps = con.prepareStatement("SELECT user_id FROM following WHERE follower_id = ?")) {
+            ps.setString(1, uid);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) authors.add(rs.getString(1));
+            }
+        }
+        Ring[] sources = ringsFor(con, authors);
+
+        long t0 = System.nanoTime();
+        int[] ids = new int[limit];
+        int n = merge(sources, before > 0 ? before : Integer.MAX_VALUE, ids, new long[limit]);
+        mergeLatency.recordNanos(System.nanoTime() - t0);
+        reads.increment();
+
+        List<Integer> page = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) page.add(ids[i]);
+        return page;
+    }
+
+    /**
+     * k-way 병합: 링들에서 before보다 작은 글을 post_id 내림차순으로 outIds.length개까지 꺼낸다.
+     * @return 채운 개수
+     */
+    static int merge(Ring[] sources, int before, int[] outIds, long[] outTimes) {
+        int k = sources.length;
+        // 최대 힙: heapId[i] = 후보 post_id, heapSrc[i] = 링 번호, heapTime[i] = 시각
+        int[] heapId = new int[k], heapSrc = new int[k];
+        long[] heapTime = new long[k];
+        long[] cur = new long[2];
+        int h = 0;
+        for (int s = 0; s < k; s++) {
+            if (sources[s].newestBefore(before, cur)) {
+                heapId[h] = (int) cur[0];
+                heapTime[h] = cur[1];
+                heapSrc[h] = s;
+                siftUp(heapId, heapSrc, heapTime, h++);
+            }
+        }
+        int n = 0;
+        int last = Integer.MAX_VALUE;
+        while (h > 0 && n < outIds.length) {
+            int id = heapId[0], src = heapSrc[0];
+            if (id != last) { // 같은 글이 두 링에 있을 일은 없지만(작성자 하나) 방어적으로
+                outIds[n] = id;
+                outTimes[n] = heapTime[0];
+                n++;
+                last = id;
+            }
+            if (sources[src].newestBefore(id, cur)) {
+                heapId[0] = (int) cur[0];
+                heapTime[0] = cur[1];
+            } else {
+                h--;
+                heapId[0] = heapId[h];
+                heapSrc[0] = heapSrc[h];
+                heapTime[0] = heapTime[h];
+            }
+            siftDown(heapId, heapSrc, heapTime, 0, h);
+        }
+        return n;
+    }
+
+    private static void siftUp(int[] id, int[] src, long[] time, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (id[parent] >= id[i]) return;
+            swap(id, src, time, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] id, int[] src, long[] time, int i, int h) {
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, top = i;
+            if (l < h && id[l] > id[top]) top = l;
+            if (r < h && id[r] > id[top]) top = r;
+            if (top == i) return;
+            swap(id, src, time, i, top);
+            i = top;
+        }
+    }
+
+    private static void swap(int[] id, int[] src, long[] time, int a, int b) {
+        int ti = id[a]; id[a] = id[b]; id[b] = ti;
+        int ts = src[a]; src[a] = src[b]; src[b] = ts;
+        long tt = time[a]; time[a] = time[b]; time[b] = tt;
+    }
+
+    /* ========= 채우기(warm) ========= */
+
+    // 작성자들의 링을 돌려준다. 채우지 않았거나 REFRESH_MS가 지난 링은 posts에서 채우거나 보충한다
+    private static Ring[] ringsFor(Connection con, List<String> authors) throws SQLException {
+        Ring[] out = new Ring[authors.size()];
+        List<String> stale = new ArrayList<>();
+        long now = System.nanoTime();
+        for (int i = 0; i < out.length; i++) {
+            Ring r = rings.computeIfAbsent(authors.get(i), w -> new Ring());
+            out[i] = r;
+            if (r.stale(now)) stale.add(authors.get(i));
+        }
+        for (int from = 0; from < stale.size(); from += MERGE_CHUNK) {
+            sync(con, stale.subList(from, Math.min(from + MERGE_CHUNK, stale.size())), now);
+        }
+        return out;
+    }
+
+    // 작성자마다 syncFrom()보다 큰 최근 글 최대 RING_SIZE개를 UNION ALL 한 번으로 읽어 링에 보탠다
+    private static void sync(Connection con, List<String> authors, long now) throws SQLException {
+        StringJoiner union = new StringJoiner(" UNION ALL ");
+        for (int i = 0; i < authors.size(); i++) {
+            union.add("(SELECT writer_id, post_id, created_at FROM posts WHERE writer_id = ? AND post_id > ?"
+                    + " ORDER BY post_id DESC LIMIT ?)");
+        }
+        try (PreparedStatement ps = con.prepareStatement(union.toString())) {
+            int p = 1;
+            for (String a : authors) {
+                ps.setString(p++, a);
+                ps.setInt(p++, rings.get(a).syncFrom());
+                ps.setInt(p++, RING_SIZE);
+            }
+            List<String> writers = new ArrayList<>();
+            int[] ids = new int[authors.size() * RING_SIZE];
+            long[] times = new long[ids.length];
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp ts = rs.getTimestamp(3);
+                    ids[writers.size()] = rs.getInt(2);
+                    times[writers.size()] = ts != null ? ts.getTime() : 0L;
+                    writers.add(rs.getString(1));
+                }
+            }
+            // 작성자별로 최신순으로 왔으므로 거꾸로 넣으면 링 뒤에 붙이기만 한다(이미 게시로 들어온 글과 겹치면 add가 무시)
+            for (int i = writers.size() - 1; i >= 0; i--) {
+                Ring r = rings.get(writers.get(i));
+                synchronized (r) {
+                    r.add(ids[i], times[i]);
+                    r.syncedMax = Math.max(r.syncedMax, ids[i]);
+                }
+            }
+        }
+        for (String a : authors) {
+            Ring r = rings.get(a);
+            synchronized (r) {
+                if (r.warm) {
+                    toppedUp.increment();
+                } else {
+                    r.warm = true;
+                    warmed.increment();
+                }
+                r.syncedAtNanos = now;
+            }
+        }
+    }
+}
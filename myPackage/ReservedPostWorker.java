@@ -1,9 +1,8 @@
 package myPackage;
 
 import java.sql.*;
-import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ReservedPostWorker
@@ -14,10 +13,11 @@ import java.util.regex.Pattern;
  *    해당 예약 레코드를 is_posted=TRUE 로 마킹한다.
  *
  * 동작 개요
- *  1) reserved_post에서 (scheduled_time <= NOW() AND is_posted=FALSE) 행을 조회(FOR UPDATE).
+ *  1) reserved_post에서 (scheduled_time <= NOW() AND is_posted=FALSE) 행을 최대 BATCH_SIZE건 조회(FOR UPDATE).
  *  2) 각 행에 대해 posts에 INSERT(생성된 post_id 회수) → post_tag에 해시태그 배치 INSERT.
  *  3) 처리 완료한 예약글은 is_posted=TRUE로 업데이트.
- *  4) 위 과정을 단일 트랜잭션으로 묶어 원자성 보장.
+ *  4) 배치 하나를 단일 트랜잭션(TxExecutor, 데드락 시 재시도)으로 묶어 원자성 보장, 남은 건이 없을 때까지 반복.
+ *  5) 게시한 글은 트랜잭션 안에서 작성자 타임라인에 넣고, 커밋 후 팔로워 타임라인 팬아웃을 예약(TimelineFanout).
  *
  * 사용 방법
  *  - 주기 실행 타이머(예: javax.swing.Timer 또는 ScheduledExecutorService)에서
@@ -25,105 +25,102 @@ import java.util.regex.Pattern;
  *  - 독립적인 DB 연결을 매 호출마다 획득하므로, 장시간 유휴 커넥션 타임아웃 이슈를 회피한다.
  *
  * 주의
- *  - 동시에 여러 인스턴스가 실행될 수 있다면, SELECT … FOR UPDATE 구문과
- *    트랜잭션 범위가 충돌 없이 동작하도록 DB 격리수준을 확인할 것.
- *  - 해시태그 키는 소문자/길이 50 제한으로 정규화되어 post_tag에 저장한다.
+ *  - 잠금 범위를 좁히기 위해 reserved_post(is_posted, scheduled_time) 인덱스(idx_reserved_due)를 전제로 한다.
+ *    인덱스가 없으면 FOR UPDATE가 전체 스캔 범위를 잠가 다른 예약 INSERT와 충돌할 수 있다.
+ *  - 해시태그는 Hashtags.save(소문자/길이 50 제한 정규화)로 post_tag에 저장한다.
  */
 public class ReservedPostWorker {
-    // PostWriterMain과 동일한 규칙 유지: #뒤에 영문/숫자/밑줄/한글
-    private static final Pattern TAG = Pattern.compile("#([\\p{IsAlphabetic}\\p{IsDigit}_가-힣]+)");
+    // 한 트랜잭션에서 잠그고 처리할 최대 예약글 수(잠금 보유 시간을 짧게 유지)
+    private static final int BATCH_SIZE = Integer.getInteger("twitter.reserved.batchSize", 50);
 
     /**
      * 예약글을 한 번 처리한다.
      * - 기한 도달 & 미게시 → posts 이동 + 해시태그 저장 + 플래그 업데이트
-     * - 호출 시마다 새 Connection을 열고 닫는다.
+     * - BATCH_SIZE건씩 나눠 각각 별도 트랜잭션(TxExecutor)으로 처리하고, 남은 건이 없을 때까지 반복한다.
+     * - 데드락/락 대기 타임아웃이 나면 해당 배치만 재시도된다.
      */
     public static void runOnce() {
-        // 실행 때마다 새 연결을 잡는 방식: 커넥션 타임아웃/끊김 대비
-        try (Connection con = DBConn.getConnection()) {
-            con.setAutoCommit(false); // 전체 처리 원자성 보장
-
-            // 게시 시각 도달 + 미게시 건을 잠금 상태로 선점
-            final String selectSql =
-                "SELECT s_id, writer_id, content " +
-                "FROM reserved_post " +
-                "WHERE is_posted = FALSE AND scheduled_time <= NOW() " +
-                "FOR UPDATE"; // 동시 실행 대비(단일 인스턴스면 없어도 됨)
-
-            // posts에 실제 업로드(작성 시간은 NOW())
-            final String insertPostSql =
-                "INSERT INTO posts (content, writer_id, created_at) VALUES (?, ?, NOW())";
-
-            // 처리 완료 표시
-            final String updateReservedSql =
-                "UPDATE reserved_post SET is_posted = TRUE WHERE s_id = ?";
-
-            try (PreparedStatement psSel = con.prepareStatement(selectSql);
-                 ResultSet rs = psSel.executeQuery()) {
-
-                while (rs.next()) {
-                    int sId = rs.getInt("s_id");
-                    String writer = rs.getString("writer_id");
-                    String content = rs.getString("content");
-
-                    int newPostId = -1;
-
-                    // 1) posts INSERT → 생성된 post_id 회수
-                    try (PreparedStatement psIns =
-                             con.prepareStatement(insertPostSql, Statement.RETURN_GENERATED_KEYS)) {
-                        psIns.setString(1, content);
-                        psIns.setString(2, writer);
-                        psIns.executeUpdate();
-                        try (ResultSet keys = psIns.getGeneratedKeys()) {
-                            if (keys.next()) newPostId = keys.getInt(1);
-                        }
-                    }
-
-                    // 1-1) 해시태그 저장(있다면)
-                    if (newPostId > 0) {
-                        saveHashtags(con, newPostId, content);
-                    }
-
-                    // 2) 예약글 처리 완료 마킹
-                    try (PreparedStatement psUp = con.prepareStatement(updateReservedSql)) {
-                        psUp.setInt(1, sId);
-                        psUp.executeUpdate();
-                    }
+        try {
+            int total = 0;
+            List<Object[]> published;
+            do {
+                published = TxExecutor.inTransaction("reserved_post_publish", ReservedPostWorker::publishBatch);
+                total += published.size();
+                // 커밋된 배치만 팔로워에게 배포(재시도로 버려진 시도는 여기까지 오지 않음)
+                for (Object[] p : published) {
+                    int postId = (Integer) p[0];
+                    if (postId > 0) TimelineFanout.published(postId, (String) p[1]);
                 }
-            }
-
-            con.commit(); // 모든 예약글 처리 성공 시 커밋
+            } while (published.size() == BATCH_SIZE);
+            if (total > 0) System.out.println("Reserved posts published: " + total);
         } catch (SQLException e) {
             // 예약 워커는 콘솔 로그로 원인 파악
             e.printStackTrace();
         }
     }
 
-    /**
-     * 본문에서 해시태그를 추출하여 post_tag에 저장한다.
-     * - 태그는 소문자 정규화, 최대 길이 50으로 절단.
-     * - INSERT IGNORE: 중복 태그 삽입 시 무시(UNIQUE(post_id, tag) 가정).
-     */
-    private static void saveHashtags(Connection con, int postId, String content) throws SQLException {
-        if (content == null || content.isBlank()) return;
-
-        try (PreparedStatement ps = con.prepareStatement(
-                "INSERT IGNORE INTO post_tag(post_id, tag) VALUES(?, ?)")) {
-
-            Matcher m = TAG.matcher(content);
-            while (m.find()) {
-                String raw = m.group(1);
-                if (raw == null || raw.isBlank()) continue;
+    // 기한이 지난 예약글을 최대 BATCH_SIZE건 잠가서 게시한다. 처리한 {post_id, writer_id} 목록 반환
+    private static List<Object[]> publishBatch(Connection con) throws SQLException {
+        // 게시 시각 도달 + 미게시 건을 잠금 상태로 선점
+        //  - (is_posted, scheduled_time) 인덱스 범위만 잠그도록 조건을 인덱스 순서에 맞추고 LIMIT으로 상한
+        final String selectSql =
+            "SELECT s_id, writer_id, content " +
+            "FROM reserved_post " +
+            "WHERE is_posted = FALSE AND scheduled_time <= NOW() " +
+            "ORDER BY scheduled_time, s_id " +
+            "LIMIT ? " +
+            "FOR UPDATE";
+
+        // posts에 실제 업로드(작성 시간은 NOW())
+        final String insertPostSql =
+            "INSERT INTO posts (content, writer_id, created_at) VALUES (?, ?, NOW())";
+
+        // 처리 완료 표시
+        final String updateReservedSql =
+            "UPDATE reserved_post SET is_posted = TRUE WHERE s_id = ?";
+
+        // 선점한 행을 먼저 읽어 두고(결과셋을 연 채로 다른 문장을 실행하지 않음) 처리한다
+        List<Object[]> due = new ArrayList<>();
+        try (PreparedStatement psSel = con.prepareStatement(selectSql)) {
+            psSel.setInt(1, BATCH_SIZE);
+            try (ResultSet rs = psSel.executeQuery()) {
+                while (rs.next()) {
+                    due.add(new Object[]{ rs.getInt("s_id"), rs.getString("writer_id"), rs.getString("content") });
+                }
+            }
+        }
+        List<Object[]> published = new ArrayList<>(due.size());
+        if (due.isEmpty()) return published;
+
+        try (PreparedStatement psIns = con.prepareStatement(insertPostSql, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement psUp = con.prepareStatement(updateReservedSql)) {
+            for (Object[] r : due) {
+                int sId = (Integer) r[0];
+                String writer = (String) r[1];
+                String content = (String) r[2];
+
+                // 1) posts INSERT → 생성된 post_id 회수
+                int newPostId = -1;
+                psIns.setString(1, content);
+                psIns.setString(2, writer);
+                psIns.executeUpdate();
+                try (ResultSet keys = psIns.getGeneratedKeys()) {
+                    if (keys.next()) newPostId = keys.getInt(1);
+                }
 
-                // 정규화: 소문자, 길이 제한
-                String norm = raw.trim().toLowerCase();
-                if (norm.length() > 50) norm = norm.substring(0, 50);
+                // 1-1) 해시태그 저장(있다면)
+                if (newPostId > 0) {
+                    Hashtags.save(con, newPostId, content); // PostWriterMain과 같은 규칙
+                    TimelineFanout.addOwn(con, newPostId, writer);
+                }
+                published.add(new Object[]{ newPostId, writer });
 
-                ps.setInt(1, postId);
-                ps.setString(2, norm);
-                ps.addBatch();
+                // 2) 예약글 처리 완료 마킹(배치)
+                psUp.setInt(1, sId);
+                psUp.addBatch();
             }
-            ps.executeBatch(); // 배치로 한 번에 INSERT
+            psUp.executeBatch();
         }
+        return published;
     }
 }
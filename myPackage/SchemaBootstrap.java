@@ -0,0 +1,112 @@
+/*
+ * 파일명: SchemaBootstrap.java
+ * 목적: 내장 DB(H2) 프로필로 실행할 때 twitter.sql 스크립트로 스키마/시드 데이터를 만들어 준다.
+ *
+ * 동작 개요
+ * - loadScript(): twitter.sql을 찾는다.
+ *     1) -Dtwitter.db.schema=경로 가 있으면 그 파일
+ *     2) 작업 디렉터리의 twitter.sql
+ *     3) 클래스패스 루트의 /twitter.sql
+ * - split(): 스크립트를 세미콜론 단위 문장으로 자른다. 작은따옴표/백틱 안의 ';' 와 '--' 는 무시하지 않고 그대로 둔다.
+ *   '--' 주석은 문장에서 제거한다.
+ * - run(con): 각 문장을 순서대로 실행한다.
+ *     · CREATE DATABASE / USE 문은 MySQL 전용이므로 건너뛴다(내장 DB는 URL이 곧 DB).
+ *     · 스키마가 이미 있으면(posts 테이블 존재) 아무것도 하지 않는다 → 파일 기반 DB 재시작 시 시드 중복 방지.
+ *
+ * 주의
+ * - H2는 MODE=MySQL, NON_KEYWORDS=USER 로 열어야 `user` 테이블명/INSERT IGNORE/ON DUPLICATE KEY 등이 그대로 동작한다.
+ *   (URL 구성은 DBConn 담당)
+ */
+
+package myPackage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SchemaBootstrap {
+
+    /** 스키마가 없을 때만 twitter.sql을 실행한다. 실행했으면 true */
+    public static boolean runIfEmpty(Connection con) throws SQLException {
+        if (tableExists(con, "posts")) return false;
+
+        String script;
+        try {
+            script = loadScript();
+        } catch (IOException e) {
+            throw new SQLException("twitter.sql을 읽지 못했습니다: " + e.getMessage(), e);
+        }
+
+        int n = 0;
+        try (Statement st = con.createStatement()) {
+            for (String sql : split(script)) {
+                String head = sql.trim().toUpperCase();
+                if (head.startsWith("CREATE DATABASE") || head.startsWith("USE ")) continue; // MySQL 전용
+                st.execute(sql);
+                n++;
+            }
+        }
+        System.out.println("Schema bootstrapped from twitter.sql (" + n + " statements)");
+        return true;
+    }
+
+    private static boolean tableExists(Connection con, String table) throws SQLException {
+        DatabaseMetaData md = con.getMetaData();
+        for (String name : new String[]{ table, table.toUpperCase() }) {
+            try (ResultSet rs = md.getTables(null, null, name, new String[]{"TABLE"})) {
+                if (rs.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    /** twitter.sql 내용 읽기(프로퍼티 경로 → 작업 디렉터리 → 클래스패스) */
+    static String loadScript() throws IOException {
+        String prop = System.getProperty("twitter.db.schema");
+        Path p = Paths.get(prop != null ? prop : "twitter.sql");
+        if (Files.isRegularFile(p)) {
+            return Files.readString(p, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = SchemaBootstrap.class.getResourceAsStream("/twitter.sql")) {
+            if (in == null) throw new IOException("twitter.sql not found (" + p.toAbsolutePath() + ")");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** ';' 기준 문장 분리(따옴표/백틱 내부는 보존, '--' 주석 제거) */
+    static List<String> split(String script) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        char quote = 0; // 현재 열려 있는 따옴표(' 또는 `), 없으면 0
+
+        for (int i = 0; i < script.length(); i++) {
+            char c = script.charAt(i);
+            if (quote != 0) {
+                cur.append(c);
+                if (c == quote) quote = 0;
+                continue;
+            }
+            if (c == '\'' || c == '`') {
+                quote = c;
+                cur.append(c);
+            } else if (c == '-' && i + 1 < script.length() && script.charAt(i + 1) == '-') {
+                // 줄 끝까지 주석
+                while (i < script.length() && script.charAt(i) != '\n') i++;
+                cur.append('\n');
+            } else if (c == ';') {
+                if (!cur.toString().isBlank()) out.add(cur.toString().trim());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (!cur.toString().isBlank()) out.add(cur.toString().trim());
+        return out;
+    }
+}
@@ -23,7 +23,7 @@ import java.util.List;
  * 주의
  *  - 스키마는 following 단일 테이블을 기준으로 하며,
  *    컬럼: (user_id, follower_id) 를 사용한다.
- *  - Connection은 DBConn.getConnection() (AutoCloseable)로 획득하며,
+ *  - Connection은 DBConn.getReadConnection() (AutoCloseable, 복제본 라우팅)으로 획득하며,
  *    본 클래스는 트랜잭션을 직접 다루지 않고 단순 조회만 수행한다.
  */
 public class SeeFollow {
@@ -31,7 +31,7 @@ public class SeeFollow {
     /** 대상 사용자를 팔로우하는 모든 계정 ID 목록 (오름차순) */
     public static List<String> getFollowers(String userId) throws SQLException {
         String sql = "SELECT follower_id FROM following WHERE user_id=? ORDER BY follower_id ASC";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -51,7 +51,7 @@ public class SeeFollow {
             ORDER BY follower_id ASC
             LIMIT ? OFFSET ?
         """;
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             ps.setInt(2, Math.max(0, limit));
@@ -67,7 +67,7 @@ public class SeeFollow {
     /** 대상 사용자가 팔로우 중인 모든 계정 ID 목록 (오름차순) */
     public static List<String> getFollowings(String userId) throws SQLException {
         String sql = "SELECT user_id FROM following WHERE follower_id=? ORDER BY user_id ASC";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -87,7 +87,7 @@ public class SeeFollow {
             ORDER BY user_id ASC
             LIMIT ? OFFSET ?
         """;
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             ps.setInt(2, Math.max(0, limit));
@@ -103,7 +103,7 @@ public class SeeFollow {
     /** 팔로워 수 카운트 */
     public static int countFollowers(String userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM following WHERE user_id=?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -115,7 +115,7 @@ public class SeeFollow {
     /** 팔로잉 수 카운트 */
     public static int countFollowings(String userId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM following WHERE follower_id=?";
-        try (Connection con = DBConn.getConnection();
+        try (Connection con = DBConn.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
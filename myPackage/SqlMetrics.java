@@ -0,0 +1,255 @@
+/*
+ * 파일명: SqlMetrics.java
+ * 목적: DBConn이 내주는 Connection/Statement를 계측용 프록시로 감싸 SQL별 실행 통계를 모은다.
+ *
+ * 수집 항목(SQL 지문 단위)
+ * - 호출 수, 오류 수
+ * - 실행 지연 히스토그램(p50/p99/max, LatencyHistogram)
+ * - 반환 행 수(ResultSet.next()가 true였던 횟수), 변경 행 수(executeUpdate/executeBatch 결과 합)
+ *
+ * SQL 지문(fingerprint)
+ * - 공백을 하나로 줄이고, 문자열/숫자 리터럴은 ?로, IN (?, ?, ...) 목록은 IN (?+)로 접는다.
+ *   → 같은 모양의 쿼리는 파라미터 값/목록 길이가 달라도 한 줄로 집계된다.
+ *
+ * 동작 개요
+ * - wrap(con): Connection 프록시를 돌려준다. prepareStatement/createStatement/prepareCall 결과도 프록시로 감싼다.
+ * - 실행 메서드(execute*)의 소요시간만 잰다(결과 행을 읽는 시간은 호출측 처리 시간이므로 제외).
+ * - report(n): 총 소요시간 기준 상위 n개를 표로 만든다. dump(n): 콘솔 출력.
+ * - 종료 시: -Dtwitter.db.metrics.report=true(기본)이면 상위 20개를 출력한다.
+ *
+ * 설정
+ * - -Dtwitter.db.metrics=false 이면 감싸지 않는다(오버헤드 0).
+ */
+
+package myPackage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+public class SqlMetrics {
+
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("twitter.db.metrics", "true"));
+
+    private static final Map<String, StatementStats> BY_FINGERPRINT = new ConcurrentHashMap<>();
+    private static final Map<String, String> FINGERPRINT_CACHE = new ConcurrentHashMap<>();
+    private static final int FINGERPRINT_CACHE_MAX = 10_000;
+
+    static {
+        if (ENABLED && Boolean.parseBoolean(System.getProperty("twitter.db.metrics.report", "true"))) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (!BY_FINGERPRINT.isEmpty()) dump(20);
+            }, "sql-metrics-report"));
+        }
+    }
+
+    /* ========= SQL 지문별 통계 ========= */
+    public static final class StatementStats {
+        public final String fingerprint;
+        public final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rowsReturned = new LongAdder();
+        final LongAdder rowsUpdated = new LongAdder();
+
+        StatementStats(String fingerprint) { this.fingerprint = fingerprint; }
+
+        public long calls()        { return latency.count(); }
+        public long errors()       { return errors.sum(); }
+        public long rowsReturned() { return rowsReturned.sum(); }
+        public long rowsUpdated()  { return rowsUpdated.sum(); }
+    }
+
+    /** Connection을 계측 프록시로 감싼다(비활성화 시 그대로 반환). */
+    public static Connection wrap(Connection con) {
+        if (!ENABLED || con == null) return con;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(con));
+    }
+
+    /** 현재까지 수집된 통계(복사본) */
+    public static List<StatementStats> snapshot() {
+        return new ArrayList<>(BY_FINGERPRINT.values());
+    }
+
+    public static void reset() {
+        BY_FINGERPRINT.clear();
+    }
+
+    /** 총 소요시간 기준 상위 n개 리포트 */
+    public static String report(int n) {
+        List<StatementStats> all = snapshot();
+        all.sort(Comparator.comparingLong((StatementStats s) -> s.latency.totalMicros()).reversed());
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("=== SQL top %d by total time ===%n", n));
+        sb.append(String.format("%8s %10s %8s %8s %8s %6s %10s %10s  %s%n",
+                "calls", "total(ms)", "p50(us)", "p99(us)", "max(us)", "err", "rows/call", "upd/call", "sql"));
+        for (int i = 0; i < Math.min(n, all.size()); i++) {
+            StatementStats s = all.get(i);
+            long calls = Math.max(1, s.calls());
+            sb.append(String.format("%8d %10.1f %8d %8d %8d %6d %10.1f %10.1f  %s%n",
+                    s.calls(), s.latency.totalMicros() / 1000.0,
+                    s.latency.percentile(50), s.latency.percentile(99), s.latency.max(),
+                    s.errors(), (double) s.rowsReturned() / calls, (double) s.rowsUpdated() / calls,
+                    abbreviate(s.fingerprint, 160)));
+        }
+        return sb.toString();
+    }
+
+    public static void dump(int n) {
+        System.out.print(report(n));
+    }
+
+    /* ========= 지문 ========= */
+
+    private static final Pattern WS       = Pattern.compile("\\s+");
+    private static final Pattern STRING   = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER   = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST  = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern VALUES_ROWS =
+            Pattern.compile("(?i)(VALUES\\s*\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+
+    static String fingerprint(String sql) {
+        String cached = FINGERPRINT_CACHE.get(sql);
+        if (cached != null) return cached;
+
+        String f = WS.matcher(sql.trim()).replaceAll(" ");
+        f = STRING.matcher(f).replaceAll("?");
+        f = NUMBER.matcher(f).replaceAll("?");
+        f = IN_LIST.matcher(f).replaceAll("IN (?+)");
+        f = VALUES_ROWS.matcher(f).replaceAll("$1, ...");   // 다중 행 INSERT는 첫 행만 남김
+
+        if (FINGERPRINT_CACHE.size() < FINGERPRINT_CACHE_MAX) FINGERPRINT_CACHE.put(sql, f);
+        return f;
+    }
+
+    private static StatementStats statsFor(String sql) {
+        return BY_FINGERPRINT.computeIfAbsent(fingerprint(sql), StatementStats::new);
+    }
+
+    private static String abbreviate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 3) + "...";
+    }
+
+    /* ========= 프록시 ========= */
+
+    private static Object invokeRaw(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+
+        ConnectionHandler(Connection raw) { this.raw = raw; }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "equals":   return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "Metered" + raw;
+                default: break;
+            }
+            Object r = invokeRaw(raw, m, args);
+            String name = m.getName();
+            if (r instanceof Statement) {
+                // prepareStatement/prepareCall은 SQL이 첫 인자, createStatement는 실행 시점에 SQL을 받는다
+                String sql = (name.startsWith("prepare") && args != null && args[0] instanceof String)
+                        ? (String) args[0] : null;
+                Class<?> iface = (r instanceof CallableStatement) ? CallableStatement.class
+                        : (r instanceof PreparedStatement) ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[]{iface},
+                        new StatementHandler((Statement) r, sql));
+            }
+            return r;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement raw;
+        private final String preparedSql;
+        private StatementStats lastStats; // getResultSet()으로 꺼내는 결과의 행 수 귀속용
+
+        StatementHandler(Statement raw, String preparedSql) {
+            this.raw = raw;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            switch (name) {
+                case "equals":   return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "Metered" + raw;
+                default: break;
+            }
+
+            if (!name.startsWith("execute")) {
+                Object r = invokeRaw(raw, m, args);
+                if (name.equals("getResultSet") && r != null && lastStats != null) {
+                    return wrapResultSet((ResultSet) r, lastStats);
+                }
+                return r;
+            }
+
+            String sql = (args != null && args.length > 0 && args[0] instanceof String)
+                    ? (String) args[0] : preparedSql;
+            if (sql == null) return invokeRaw(raw, m, args); // 배치 등 SQL을 알 수 없는 경우
+
+            StatementStats st = statsFor(sql);
+            lastStats = st;
+            long t0 = System.nanoTime();
+            Object r;
+            try {
+                r = invokeRaw(raw, m, args);
+            } catch (Throwable t) {
+                st.latency.recordNanos(System.nanoTime() - t0);
+                st.errors.increment();
+                throw t;
+            }
+            st.latency.recordNanos(System.nanoTime() - t0);
+
+            if (r instanceof ResultSet) {
+                return wrapResultSet((ResultSet) r, st);
+            } else if (r instanceof Integer) {
+                st.rowsUpdated.add(Math.max(0, (Integer) r));
+            } else if (r instanceof Long) {
+                st.rowsUpdated.add(Math.max(0, (Long) r));
+            } else if (r instanceof int[]) {
+                for (int c : (int[]) r) if (c > 0) st.rowsUpdated.add(c);
+            } else if (r instanceof long[]) {
+                for (long c : (long[]) r) if (c > 0) st.rowsUpdated.add(c);
+            }
+            return r;
+        }
+    }
+
+    private static ResultSet wrapResultSet(ResultSet rs, StatementStats st) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, m, args) -> {
+                    switch (m.getName()) {
+                        case "equals":   return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: break;
+                    }
+                    Object r = invokeRaw(rs, m, args);
+                    if (m.getName().equals("next") && Boolean.TRUE.equals(r)) st.rowsReturned.increment();
+                    return r;
+                });
+    }
+}
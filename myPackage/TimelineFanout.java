@@ -0,0 +1,421 @@
+/*
+ * 파일명: TimelineFanout.java
+ * 목적: 팔로우 기반 홈 타임라인(home_timeline)을 "쓰기 시 팬아웃(fan-out-on-write)"으로 미리 만들어 둔다.
+ *       피드 화면은 home_timeline(user_id, post_id) PK 범위 하나만 읽으면 된다(FeedPanel 참고).
+ *
+ * 동작 개요
+ * - 글 게시 경로(PostWriterMain.insertPostNow, ReservedPostWorker, PostDialog, UploadPost)
+ *     1) 게시 트랜잭션 안에서 addOwn(con, postId, writer): 작성자 자신의 타임라인에 즉시 한 줄(직후 새로고침에 바로 보이도록)
+ *     2) 커밋 후 published(postId, writer): 팔로워 팬아웃 작업을 큐에 넣고 바로 반환(비동기)
+ *        (새 글 이벤트 EngagementEvents.published도 여기서 발행)
+ * - 팬아웃 스레드(timeline-fanout): 큐에서 작업을 꺼내
+ *     · 게시: 작성자의 팔로워를 follower_id 순 키셋으로 BATCH명씩 읽어 다중 행 INSERT IGNORE → 배치마다 짧은 트랜잭션
+ *       (팔로워가 많은 사용자의 글도 잠금을 오래 잡지 않는다. 재실행해도 PK 덕분에 중복 없음)
+ *     · 팔로우: 대상의 최근 글 FOLLOW_BACKFILL개를 새 팔로워 타임라인에 채움
+ *     · 언팔로우: 새 팔로워 타임라인에서 대상의 글 삭제
+ * - 큐가 가득 차면 작업을 버리고 dropped를 센다(게시 자체는 이미 커밋됨). 빠진 줄은 backfill로 복구.
+ *
+ * 하이브리드(push/pull) — 팔로워가 많은 계정
+ * - user.followers >= CELEBRITY_THRESHOLD 인 작성자의 글은 팬아웃하지 않는다(글 하나에 수십만 행 쓰기 방지).
+ *   팔로우 시 최근 글 채우기, backfill도 이런 작성자는 건너뛴다(자기 타임라인의 자기 글은 그대로).
+ * - 대신 읽을 때 pageIds()가 합친다:
+ *     1) 내가 팔로우하는 사람 중 기준 이상인 작성자 목록(following.follower_id 인덱스 + user PK)
+ *     2) home_timeline 범위에서 limit개 + 작성자마다 posts(writer_id, post_id) 인덱스(idx_posts_writer)에서 limit개
+ *        (작성자별 쿼리는 UNION ALL로 묶어 한 번에)
+ *     3) 모두 post_id 내림차순이므로 합쳐서 중복 제거 후 앞에서 limit개 → 키셋 페이지 순서가 정확히 유지된다
+ * - 기준 이상이던 작성자가 기준 아래로 내려가면 그동안 쓴 글은 어느 쪽에도 없으므로 backfill로 채운다.
+ *
+ * pull 엔진(-Dtwitter.timeline.engine=pull)
+ * - home_timeline을 쓰지 않는다: addOwn/팔로우 훅은 아무것도 하지 않고, published는 PullTimeline의 작성자별 링에만 넣는다.
+ *
+ * 백필(기존 팔로우 관계로 타임라인 채우기)
+ *  java myPackage.TimelineFanout backfill [--days=N]
+ *   - user_id 순으로 BATCH명씩: 팔로우한 사람들의 글(팔로워 많은 작성자 제외) + 자기 글을 INSERT IGNORE ... SELECT (페이지마다 트랜잭션)
+ *   - --days를 주면 최근 N일 글만(기본: 전체)
+ *
+ * 설정
+ * - -Dtwitter.timeline.fanoutBatch (기본 500), .queueCapacity (기본 10000), .followBackfill (기본 50)
+ * - -Dtwitter.timeline.celebrityThreshold (기본 10000, 0이면 하이브리드 끔 = 모두 팬아웃)
+ *
+ * 통계
+ * - stats(): 처리한 작업 수/입력한 타임라인 행 수/버린 작업 수/큐 길이, 작업 소요시간(p50/p99)
+ *   + 팬아웃을 건너뛴 글 수, 읽기 경로별 횟수(push만/병합)와 소요시간, 병합으로 들어간 글 수
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TimelineFanout {
+
+    private static final int BATCH           = Math.max(1, Integer.getInteger("twitter.timeline.fanoutBatch", 500));
+    private static final int QUEUE_CAPACITY  = Integer.getInteger("twitter.timeline.queueCapacity", 10_000);
+    private static final int FOLLOW_BACKFILL = Integer.getInteger("twitter.timeline.followBackfill", 50);
+    // 팔로워가 이 수 이상이면 팬아웃하지 않고 읽을 때 합친다(0 이하 = 끔)
+    private static final int CELEBRITY_THRESHOLD = Integer.getInteger("twitter.timeline.celebrityThreshold", 10_000);
+    // 작성자별 최근 글 쿼리를 UNION ALL로 묶는 최대 개수
+    private static final int MERGE_CHUNK = 50;
+
+    private enum Kind { PUBLISH, FOLLOW, UNFOLLOW }
+
+    // 큐에 쌓이는 팬아웃 작업 하나
+    private static final class Job {
+        final Kind kind;
+        final int postId;       // PUBLISH
+        final String author;    // 글 작성자 / 팔로우 대상
+        final String follower;  // FOLLOW/UNFOLLOW
+
+        Job(Kind kind, int postId, String author, String follower) {
+            this.kind = kind; this.postId = postId; this.author = author; this.follower = follower;
+        }
+    }
+
+    private static final BlockingQueue<Job> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static volatile Thread worker;
+
+    private static final LongAdder jobs = new LongAdder(), rows = new LongAdder(), dropped = new LongAdder();
+    private static final LatencyHistogram jobLatency = new LatencyHistogram();
+    private static final LongAdder skippedFanouts = new LongAdder();
+    private static final LongAdder pushReads = new LongAdder(), mergedReads = new LongAdder(), mergedPosts = new LongAdder();
+    private static final LatencyHistogram pushReadLatency = new LatencyHistogram(), mergedReadLatency = new LatencyHistogram();
+
+    /* ========= 게시 트랜잭션 안 ========= */
+
+    /** 작성자 자신의 타임라인에 글을 넣는다(게시와 같은 트랜잭션) */
+    public static void addOwn(Connection con, int postId, String writer) throws SQLException {
+        if (PullTimeline.ENABLED) return;
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT IGNORE INTO home_timeline(user_id, post_id) VALUES(?, ?)")) {
+            ps.setString(1, writer);
+            ps.setInt(2, postId);
+            ps.executeUpdate();
+        }
+    }
+
+    /* ========= 커밋 후(비동기) ========= */
+
+    /** 게시 커밋 후 호출: 팔로워 타임라인 팬아웃 예약(+ 새 글 이벤트) */
+    public static void published(int postId, String writer) {
+        EngagementEvents.published(postId, writer);
+        if (PullTimeline.ENABLED) {
+            PullTimeline.onPublished(postId, writer, System.currentTimeMillis());
+            return;
+        }
+        enqueue(new Job(Kind.PUBLISH, postId, writer, null));
+    }
+
+    /** 팔로우 커밋 후 호출: 대상의 최근 글을 새 팔로워 타임라인에 */
+    public static void followed(String follower, String target) {
+        if (PullTimeline.ENABLED) return; // 읽을 때 following을 본다
+        enqueue(new Job(Kind.FOLLOW, 0, target, follower));
+    }
+
+    /** 언팔로우 커밋 후 호출: 대상의 글을 팔로워 타임라인에서 제거 */
+    public static void unfollowed(String follower, String target) {
+        if (PullTimeline.ENABLED) return;
+        enqueue(new Job(Kind.UNFOLLOW, 0, target, follower));
+    }
+
+    public static String stats() {
+        return String.format("[timeline-fanout] jobs=%d rows=%d dropped=%d queued=%d skippedCelebrity=%d | job p50=%dus p99=%dus%n"
+                        + "[timeline-read] push=%d (p50=%dus p99=%dus) merged=%d (p50=%dus p99=%dus) mergedPosts=%d",
+                jobs.sum(), rows.sum(), dropped.sum(), queue.size(), skippedFanouts.sum(),
+                jobLatency.percentile(50), jobLatency.percentile(99),
+                pushReads.sum(), pushReadLatency.percentile(50), pushReadLatency.percentile(99),
+                mergedReads.sum(), mergedReadLatency.percentile(50), mergedReadLatency.percentile(99),
+                mergedPosts.sum());
+    }
+
+    /* ========= 읽기(하이브리드 병합) ========= */
+
+    /**
+     * uid의 홈 타임라인에서 before보다 오래된 글 limit개의 post_id(내림차순).
+     * home_timeline에 없는 팔로워 많은 작성자의 글을 여기서 합쳐 준다.
+     * @param before 0이면 최신부터
+     */
+    public static List<Integer> pageIds(Connection con, String uid, int before, int limit) throws SQLException {
+        long t0 = System.nanoTime();
+        int upper = before > 0 ? before : Integer.MAX_VALUE;
+
+        List<Integer> ids = new ArrayList<>(limit);
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT post_id FROM home_timeline WHERE user_id = ? AND post_id < ? ORDER BY post_id DESC LIMIT ?")) {
+            ps.setString(1, uid);
+            ps.setInt(2, upper);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+
+        List<String> celebrities = followedCelebrities(con, uid);
+        if (celebrities.isEmpty()) {
+            pushReads.increment();
+            pushReadLatency.recordNanos(System.nanoTime() - t0);
+            return ids;
+        }
+
+        // 모든 출처가 내림차순 상위 limit개이므로, 합친 뒤 앞에서 limit개가 곧 정확한 다음 페이지
+        TreeSet<Integer> merged = new TreeSet<>(Collections.reverseOrder());
+        merged.addAll(ids);
+        for (int from = 0; from < celebrities.size(); from += MERGE_CHUNK) {
+            List<String> chunk = celebrities.subList(from, Math.min(from + MERGE_CHUNK, celebrities.size()));
+            StringJoiner union = new StringJoiner(" UNION ALL ");
+            for (int i = 0; i < chunk.size(); i++) {
+                union.add("(SELECT post_id FROM posts WHERE writer_id = ? AND post_id < ? ORDER BY post_id DESC LIMIT ?)");
+            }
+            try (PreparedStatement ps = con.prepareStatement(union.toString())) {
+                int p = 1;
+                for (String author : chunk) {
+                    ps.setString(p++, author);
+                    ps.setInt(p++, upper);
+                    ps.setInt(p++, limit);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) merged.add(rs.getInt(1));
+                }
+            }
+        }
+
+        Set<Integer> pushed = new HashSet<>(ids);
+        List<Integer> page = new ArrayList<>(limit);
+        for (int id : merged) {
+            if (page.size() == limit) break;
+            page.add(id);
+            if (!pushed.contains(id)) mergedPosts.increment();
+        }
+        mergedReads.increment();
+        mergedReadLatency.recordNanos(System.nanoTime() - t0);
+        return page;
+    }
+
+    // uid가 팔로우하는 사람 중 팬아웃하지 않는(팔로워 수 기준 이상) 작성자
+    private static List<String> followedCelebrities(Connection con, String uid) throws SQLException {
+        List<String> list = new ArrayList<>();
+        if (CELEBRITY_THRESHOLD <= 0) return list;
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT f.user_id FROM following f JOIN user u ON u.user_id = f.user_id " +
+                "WHERE f.follower_id = ? AND u.followers >= ?")) {
+            ps.setString(1, uid);
+            ps.setInt(2, CELEBRITY_THRESHOLD);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(rs.getString(1));
+            }
+        }
+        return list;
+    }
+
+    // 팔로워 수가 기준 이상이면 팬아웃하지 않는다(읽을 때 합침)
+    private static boolean isCelebrity(String userId) throws SQLException {
+        if (CELEBRITY_THRESHOLD <= 0) return false;
+        try (Connection con = DBConn.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT followers FROM user WHERE user_id = ?")) {
+            ps.setString(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) >= CELEBRITY_THRESHOLD;
+            }
+        }
+    }
+
+    private static void enqueue(Job job) {
+        ensureWorker();
+        if (!queue.offer(job)) {
+            // 게시/팔로우 자체는 커밋됐다. 타임라인 줄만 빠지므로 backfill로 복구 가능
+            dropped.increment();
+            System.out.println("[timeline-fanout] queue full, dropped " + job.kind + " for " + job.author);
+        }
+    }
+
+    private static void ensureWorker() {
+        if (worker != null) return;
+        synchronized (TimelineFanout.class) {
+            if (worker != null) return;
+            Thread t = new Thread(TimelineFanout::workLoop, "timeline-fanout");
+            t.setDaemon(true);
+            t.start();
+            worker = t;
+        }
+    }
+
+    private static void workLoop() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long t0 = System.nanoTime();
+            try {
+                switch (job.kind) {
+                    case PUBLISH:  fanOut(job.postId, job.author); break;
+                    case FOLLOW:   addRecentPosts(job.follower, job.author); break;
+                    case UNFOLLOW: removePosts(job.follower, job.author); break;
+                }
+                jobs.increment();
+            } catch (Throwable t) {
+                // 팬아웃 스레드는 죽지 않는다(빠진 줄은 backfill로 복구)
+                t.printStackTrace();
+            } finally {
+                jobLatency.recordNanos(System.nanoTime() - t0);
+            }
+        }
+    }
+
+    /* ========= 작업 ========= */
+
+    // 작성자의 팔로워들에게 글을 배포: follower_id 키셋으로 BATCH명씩, 배치마다 트랜잭션
+    private static void fanOut(int postId, String writer) throws SQLException {
+        if (isCelebrity(writer)) {
+            skippedFanouts.increment();
+            return;
+        }
+        String after = "";
+        while (true) {
+            List<String> followers = new ArrayList<>(BATCH);
+            try (Connection con = DBConn.getConnection();
+                 PreparedStatement ps = con.prepareStatement(
+                         "SELECT follower_id FROM following WHERE user_id = ? AND follower_id > ? " +
+                         "ORDER BY follower_id LIMIT ?")) {
+                ps.setString(1, writer);
+                ps.setString(2, after);
+                ps.setInt(3, BATCH);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) followers.add(rs.getString(1));
+                }
+            }
+            if (followers.isEmpty()) return;
+
+            int n = TxExecutor.inTransaction("timeline_fanout", con -> {
+                try (PreparedStatement ps = con.prepareStatement(
+                        "INSERT IGNORE INTO home_timeline(user_id, post_id) VALUES " + placeholders("(?,?)", followers.size()))) {
+                    int p = 1;
+                    for (String f : followers) {
+                        ps.setString(p++, f);
+                        ps.setInt(p++, postId);
+                    }
+                    return ps.executeUpdate();
+                }
+            });
+            rows.add(n);
+            if (followers.size() < BATCH) return;
+            after = followers.get(followers.size() - 1);
+        }
+    }
+
+    private static void addRecentPosts(String follower, String target) throws SQLException {
+        if (isCelebrity(target)) return; // 읽을 때 합쳐지므로 채울 필요 없음
+        int n = TxExecutor.inTransaction("timeline_follow", con -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT IGNORE INTO home_timeline(user_id, post_id) " +
+                    "SELECT ?, post_id FROM posts WHERE writer_id = ? ORDER BY post_id DESC LIMIT ?")) {
+                ps.setString(1, follower);
+                ps.setString(2, target);
+                ps.setInt(3, FOLLOW_BACKFILL);
+                return ps.executeUpdate();
+            }
+        });
+        rows.add(n);
+    }
+
+    private static void removePosts(String follower, String target) throws SQLException {
+        TxExecutor.inTransaction("timeline_unfollow", con -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "DELETE FROM home_timeline WHERE user_id = ? " +
+                    "AND post_id IN (SELECT post_id FROM posts WHERE writer_id = ?)")) {
+                ps.setString(1, follower);
+                ps.setString(2, target);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    /* ========= 백필 ========= */
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length == 0 || !"backfill".equals(args[0])) {
+            System.out.println("usage: java myPackage.TimelineFanout backfill [--days=N]");
+            return;
+        }
+        int days = 0;
+        for (String a : args) {
+            if (a.startsWith("--days=")) days = Integer.parseInt(a.substring("--days=".length()));
+        }
+        long t0 = System.currentTimeMillis();
+        long n = backfill(days);
+        System.out.printf("home_timeline backfill: %d rows in %.1fs%n", n, (System.currentTimeMillis() - t0) / 1000.0);
+        System.exit(0);
+    }
+
+    /**
+     * 모든 사용자의 타임라인을 현재 팔로우 관계로 채운다(이미 있는 줄은 그대로).
+     * @param days 0이면 전체 글, 아니면 최근 days일 글만
+     * @return 새로 넣은 행 수
+     */
+    public static long backfill(int days) throws SQLException {
+        Timestamp since = days > 0 ? new Timestamp(System.currentTimeMillis() - days * 86_400_000L) : new Timestamp(0);
+        long total = 0;
+        String after = "";
+        while (true) {
+            List<String> users = new ArrayList<>(BATCH);
+            try (Connection con = DBConn.getConnection();
+                 PreparedStatement ps = con.prepareStatement(
+                         "SELECT user_id FROM user WHERE user_id > ? ORDER BY user_id LIMIT ?")) {
+                ps.setString(1, after);
+                ps.setInt(2, BATCH);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) users.add(rs.getString(1));
+                }
+            }
+            if (users.isEmpty()) break;
+
+            String in = placeholders("?", users.size());
+            total += TxExecutor.inTransaction("timeline_backfill", con -> {
+                int n = 0;
+                // 팔로우한 사람들의 글
+                try (PreparedStatement ps = con.prepareStatement(
+                        "INSERT IGNORE INTO home_timeline(user_id, post_id) " +
+                        "SELECT f.follower_id, p.post_id FROM following f " +
+                        "JOIN user w ON w.user_id = f.user_id " +
+                        "JOIN posts p ON p.writer_id = f.user_id " +
+                        "WHERE f.follower_id IN (" + in + ") AND p.created_at >= ? AND w.followers < ?")) {
+                    int i = 1;
+                    for (String u : users) ps.setString(i++, u);
+                    ps.setTimestamp(i++, since);
+                    ps.setInt(i, CELEBRITY_THRESHOLD > 0 ? CELEBRITY_THRESHOLD : Integer.MAX_VALUE);
+                    n += ps.executeUpdate();
+                }
+                // 자기 글
+                try (PreparedStatement ps = con.prepareStatement(
+                        "INSERT IGNORE INTO home_timeline(user_id, post_id) " +
+                        "SELECT p.writer_id, p.post_id FROM posts p WHERE p.writer_id IN (" + in + ") AND p.created_at >= ?")) {
+                    int i = 1;
+                    for (String u : users) ps.setString(i++, u);
+                    ps.setTimestamp(i, since);
+                    n += ps.executeUpdate();
+                }
+                return n;
+            });
+            after = users.get(users.size() - 1);
+            if (users.size() < BATCH) break;
+        }
+        rows.add(total);
+        return total;
+    }
+
+    private static String placeholders(String one, int n) {
+        StringJoiner j = new StringJoiner(",");
+        for (int i = 0; i < n; i++) j.add(one);
+        return j.toString();
+    }
+}
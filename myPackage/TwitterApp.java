@@ -29,7 +29,9 @@ import java.util.Map;
  *      • 해시태그 결과(HashtagResultPanel) : "hashtag:{tag}" 키로 추가/재사용
  *
  * 핵심 상태
- *  - conn           : DB 연결 객체(앱 시작 시 1회 획득)
+ *  - DB 커넥션은 보관하지 않고 필요할 때마다 DBConn(커넥션 풀)에서 빌려 쓴다.
+ *    시작 시 연결 확인/풀 워밍업은 백그라운드(DbExecutor)에서 하고, 실패하면 그때 오류 창을 띄운다.
+ *    피드는 처음 표시될 때 읽으며, 로그인 사용자의 지난 첫 페이지(FeedSnapshot)를 먼저 그린다.
  *  - currentUserId  : 현재 로그인한 사용자 ID
  *
  * 핵심 동작
@@ -38,6 +40,8 @@ import java.util.Map;
  *  - openHashtag(raw/#tag)              : 태그 정규화 후 결과 패널 동적 생성/표시
  *  - goChangePasswordFor(userId)        : 비밀번호 변경 대상 지정 후 패널 전환
  *  - refreshPersonalBoardHeader(userId) : 특정 보드 헤더(레벨/팔로워/팔로잉) 즉시 갱신
+ *  - Ctrl+Shift+M                       : SQL 실행 통계(SqlMetrics) 상위 20개와 풀·DbExecutor·트랜잭션 재시도·그룹 커밋·좋아요 수 보정·인기순 랭커(읽기 지연/SLO) 현황 콘솔 출력
+ *  - 백그라운드 타이머                   : 예약글 게시(1분), 좋아요 수 보정 LikeCounterReconciler(-Dtwitter.likes.reconcileMinutes, 기본 10, 0이면 끔)
  *  
  */
 public class TwitterApp extends JFrame {
@@ -45,7 +49,6 @@ public class TwitterApp extends JFrame {
     private CardLayout cardLayout;
     private JPanel cardPanel;
 
-    private Connection conn;
     private String currentUserId;
 
     public static final String PAGE_FIRST   = "first";
@@ -67,12 +70,15 @@ public class TwitterApp extends JFrame {
         setSize(1200, 800);
         setLocationRelativeTo(null);
 
-        try {
-            conn = DBConn.getConnection(); // 앱 시작 시 DB 커넥션 한번 획득
-        } catch (SQLException e) {
+        // 앱 시작 시 연결 확인 겸 풀 워밍업(커넥션은 바로 반납). 화면은 DB를 기다리지 않고 먼저 뜬다
+        DbExecutor.submit(() -> {
+            DBConn.ping();
+            return null;
+        }, 0, (r, e) -> {
+            if (e == null) return;
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "DB 연결 실패: " + e.getMessage(), "DB 오류", JOptionPane.ERROR_MESSAGE);
-        }
+        });
 
         cardLayout = new CardLayout();
         cardPanel  = new JPanel(cardLayout);
@@ -92,7 +98,37 @@ public class TwitterApp extends JFrame {
 
         add(cardPanel);
         showPage(PAGE_FIRST); // 초기 진입 화면
-        new javax.swing.Timer(60_000, e -> ReservedPostWorker.runOnce()).start();
+
+        // Ctrl+Shift+M: SQL 통계 상위 20개 + 풀 현황을 콘솔에 출력(성능 점검용)
+        JRootPane root = getRootPane();
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("ctrl shift M"), "DUMP_SQL_METRICS");
+        root.getActionMap().put("DUMP_SQL_METRICS", new AbstractAction() {
+            @Override public void actionPerformed(java.awt.event.ActionEvent e) {
+                SqlMetrics.dump(20);
+                System.out.println(DBConn.poolStats());
+                System.out.println(DbExecutor.stats());
+                System.out.print(TxExecutor.stats());
+                System.out.println(EngagementWriter.stats());
+                System.out.println(LikeCounterReconciler.stats());
+                System.out.println(TimelineFanout.stats());
+                System.out.println(PullTimeline.stats());
+                System.out.println(FeedRanker.stats());
+                System.out.println(EngagementEvents.stats());
+                System.out.println(LiveCountRefresher.stats());
+                System.out.println(FeedSnapshot.stats());
+                System.out.println(FeedPanel.commentCacheStats());
+                System.out.println(FeedCardFactory.commentCacheStats());
+            }
+        });
+        new javax.swing.Timer(60_000, e ->   // 예약글 게시는 EDT 밖(DbExecutor)에서
+                DbExecutor.submit(() -> { ReservedPostWorker.runOnce(); return null; }, null)).start();
+        int reconcileMinutes = Integer.getInteger("twitter.likes.reconcileMinutes", 10);
+        if (reconcileMinutes > 0) {   // 좋아요 수 컬럼 보정(전체 스캔이라 타임아웃 없이)
+            javax.swing.Timer reconcile = new javax.swing.Timer(reconcileMinutes * 60_000, e ->
+                    DbExecutor.submit(LikeCounterReconciler::runOnce, 0, null));
+            reconcile.setInitialDelay(30_000);
+            reconcile.start();
+        }
 
     }
 
@@ -101,9 +137,11 @@ public class TwitterApp extends JFrame {
         cardLayout.show(cardPanel, pageName);
     }
 
-    public void setCurrentUserId(String userId) { this.currentUserId = userId; }
+    public void setCurrentUserId(String userId) {
+        this.currentUserId = userId;
+        DBConn.setSessionUser(userId); // 읽기 라우팅(read-your-writes) 기준 세션
+    }
     public String getCurrentUserId() { return currentUserId; }
-    public Connection getConnection() { return conn; }
 
     /* ===================== 사용자 존재 확인 ===================== */
 
@@ -111,7 +149,8 @@ public class TwitterApp extends JFrame {
     private boolean userExists(String userId) {
         if (userId == null || userId.isBlank()) return false;
         String sql = "SELECT 1 FROM user WHERE user_id=? LIMIT 1";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection con = DBConn.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, userId);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
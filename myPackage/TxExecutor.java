@@ -0,0 +1,171 @@
+/*
+ * 파일명: TxExecutor.java
+ * 목적: 여러 문장을 한 트랜잭션으로 묶는 쓰기 경로(팔로우/좋아요/예약글 처리 등)의 공용 실행 틀.
+ *       각 DAO가 직접 setAutoCommit/commit/rollback을 짜던 코드를 대체한다.
+ *
+ * 동작 개요
+ * - inTransaction(name, isolation, work):
+ *     1) DBConn.getConnection()으로 커넥션을 빌려 autoCommit=false, 격리수준 설정
+ *     2) work.run(con) 실행 → 정상 반환이면 commit, 예외면 rollback
+ *     3) 데드락/락 대기 타임아웃이면 새 커넥션으로 처음부터 다시 실행(최대 maxAttempts회)
+ *        · 재시도 간격: 지수 증가 + full jitter (base * 2^n 상한 안에서 무작위) → 같은 상대와 다시 부딪히는 것을 피한다
+ *     4) 커넥션은 반납 시 풀이 autoCommit/격리수준을 원복한다.
+ * - 재시도 대상: MySQL 1213(deadlock), 1205(lock wait timeout), SQLState 40001(직렬화 실패, H2 데드락 포함),
+ *                H2 50200(lock timeout)
+ * - 그 외 예외(중복 키 등)는 롤백 후 그대로 던진다.
+ *
+ * 주의
+ * - work는 재실행될 수 있으므로 트랜잭션 밖 부수효과(UI 갱신, 캐시 반영 등)는 넣지 말고 반환값으로 돌려줄 것.
+ *
+ * 통계
+ * - stats(): 트랜잭션 이름별 커밋/롤백/재시도(데드락·락타임아웃)/포기 건수와 소요시간(p50/p99).
+ *
+ * 설정
+ * - -Dtwitter.db.tx.maxAttempts (기본 4), -Dtwitter.db.tx.backoffBaseMs (기본 20), -Dtwitter.db.tx.backoffMaxMs (기본 500)
+ */
+
+package myPackage;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TxExecutor {
+
+    /** 트랜잭션 격리수준 */
+    public enum Isolation {
+        DEFAULT(-1),    // 드라이버/서버 기본값 유지
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        final int level;
+        Isolation(int level) { this.level = level; }
+    }
+
+    /** 트랜잭션 안에서 실행할 작업(재시도 시 다시 호출됨) */
+    public interface TxWork<T> {
+        T run(Connection con) throws SQLException;
+    }
+
+    private static final int  MAX_ATTEMPTS    = Math.max(1, Integer.getInteger("twitter.db.tx.maxAttempts", 4));
+    private static final long BACKOFF_BASE_MS = Long.getLong("twitter.db.tx.backoffBaseMs", 20);
+    private static final long BACKOFF_MAX_MS  = Long.getLong("twitter.db.tx.backoffMaxMs", 500);
+
+    /* ========= 트랜잭션별 통계 ========= */
+    public static final class TxStats {
+        public final String name;
+        public final LatencyHistogram latency = new LatencyHistogram(); // 재시도 포함 전체 소요시간
+        final LongAdder commits = new LongAdder(), rollbacks = new LongAdder();
+        final LongAdder deadlockRetries = new LongAdder(), lockTimeoutRetries = new LongAdder(), gaveUp = new LongAdder();
+
+        TxStats(String name) { this.name = name; }
+
+        public long commits()            { return commits.sum(); }
+        public long rollbacks()          { return rollbacks.sum(); }
+        public long deadlockRetries()    { return deadlockRetries.sum(); }
+        public long lockTimeoutRetries() { return lockTimeoutRetries.sum(); }
+        public long gaveUp()             { return gaveUp.sum(); }
+    }
+
+    private static final Map<String, TxStats> BY_NAME = new ConcurrentHashMap<>();
+
+    /** READ COMMITTED로 실행(갭 락이 줄어 데드락 가능성이 낮다) */
+    public static <T> T inTransaction(String name, TxWork<T> work) throws SQLException {
+        return inTransaction(name, Isolation.READ_COMMITTED, work);
+    }
+
+    public static <T> T inTransaction(String name, Isolation isolation, TxWork<T> work) throws SQLException {
+        TxStats st = BY_NAME.computeIfAbsent(name, TxStats::new);
+        long t0 = System.nanoTime();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try (Connection con = DBConn.getConnection()) {
+                    con.setAutoCommit(false);
+                    if (isolation.level >= 0) con.setTransactionIsolation(isolation.level);
+                    try {
+                        T result = work.run(con);
+                        con.commit();
+                        st.commits.increment();
+                        return result;
+                    } catch (SQLException | RuntimeException e) {
+                        rollbackQuietly(con, e);
+                        st.rollbacks.increment();
+                        throw e;
+                    }
+                } catch (SQLException e) {
+                    int kind = retryKind(e);
+                    if (kind == NOT_RETRYABLE) throw e;
+                    if (attempt >= MAX_ATTEMPTS) {
+                        st.gaveUp.increment();
+                        System.out.println("[tx " + name + "] giving up after " + attempt + " attempts: " + e.getMessage());
+                        throw e;
+                    }
+                    (kind == DEADLOCK ? st.deadlockRetries : st.lockTimeoutRetries).increment();
+                    backoff(attempt, e);
+                }
+            }
+        } finally {
+            st.latency.recordNanos(System.nanoTime() - t0);
+        }
+    }
+
+    /** 이름별 통계 표(커밋 수 내림차순) */
+    public static String stats() {
+        List<TxStats> all = new ArrayList<>(BY_NAME.values());
+        all.sort(Comparator.comparingLong(TxStats::commits).reversed());
+        StringBuilder sb = new StringBuilder("=== transactions ===\n");
+        sb.append(String.format("%8s %8s %9s %9s %7s %8s %8s  %s%n",
+                "commits", "rollback", "deadlock", "lockwait", "gaveUp", "p50(us)", "p99(us)", "name"));
+        for (TxStats s : all) {
+            sb.append(String.format("%8d %8d %9d %9d %7d %8d %8d  %s%n",
+                    s.commits(), s.rollbacks(), s.deadlockRetries(), s.lockTimeoutRetries(), s.gaveUp(),
+                    s.latency.percentile(50), s.latency.percentile(99), s.name));
+        }
+        return sb.toString();
+    }
+
+    /* ========= 재시도 판정 ========= */
+
+    private static final int NOT_RETRYABLE = 0, DEADLOCK = 1, LOCK_TIMEOUT = 2;
+
+    // 원인 체인과 getNextException()까지 훑어서 데드락/락 대기 타임아웃인지 본다
+    static int retryKind(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                for (SQLException s = (SQLException) t; s != null; s = s.getNextException()) {
+                    int code = s.getErrorCode();
+                    if (code == 1213 || "40001".equals(s.getSQLState())) return DEADLOCK;
+                    if (code == 1205 || code == 50200) return LOCK_TIMEOUT;
+                    if (s.getNextException() == s) break;
+                }
+            }
+            if (t.getCause() == t) break;
+        }
+        return NOT_RETRYABLE;
+    }
+
+    private static void backoff(int attempt, SQLException cause) throws SQLException {
+        long cap = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt - 1, 16));
+        long sleep = ThreadLocalRandom.current().nextLong(cap + 1); // full jitter
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static void rollbackQuietly(Connection con, Exception original) {
+        try {
+            con.rollback();
+        } catch (SQLException re) {
+            original.addSuppressed(re);
+        }
+    }
+}
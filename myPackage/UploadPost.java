@@ -5,16 +5,24 @@ import java.sql.*;
 public class UploadPost {
 
     public static int uploadPost(String writer, String content) throws SQLException {
-        Connection con = DBConn.getConnection();
-
         String postQuery = "insert into posts(content, writer_id) values(?,?)";
-        PreparedStatement ps = con.prepareStatement(postQuery, Statement.RETURN_GENERATED_KEYS);
-        ps.setString(1, content);
-        ps.setString(2, writer);
-        ps.executeUpdate();
 
-        ResultSet keys = ps.getGeneratedKeys();
-        if (keys.next()) return keys.getInt(1);
+        try (Connection con = DBConn.getConnection();
+             PreparedStatement ps = con.prepareStatement(postQuery, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, content);
+            ps.setString(2, writer);
+            ps.executeUpdate();
+            DBConn.noteWrite(writer);
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) {
+                    int postId = keys.getInt(1);
+                    TimelineFanout.addOwn(con, postId, writer);  // 내 타임라인
+                    TimelineFanout.published(postId, writer);    // 팔로워 타임라인(비동기)
+                    return postId;
+                }
+            }
+        }
 
         return -1;
     }
@@ -23,14 +31,16 @@ public class UploadPost {
         if (tags.isEmpty()) return; //When there's no tag
 
         String[] str = tags.split(",");
-        Connection con = DBConn.getConnection();
-
-        for (String t : str) {
-            String insert = "insert into post_tag(post_id, tag) values(?,?)";
-            PreparedStatement ps = con.prepareStatement(insert);
-            ps.setInt(1, postId);
-            ps.setString(2, t.trim());
-            ps.executeUpdate();
+        String insert = "insert into post_tag(post_id, tag) values(?,?)";
+
+        try (Connection con = DBConn.getConnection();
+             PreparedStatement ps = con.prepareStatement(insert)) {
+            for (String t : str) {
+                ps.setInt(1, postId);
+                ps.setString(2, t.trim());
+                ps.addBatch();
+            }
+            ps.executeBatch();
         }
     }
 }
@@ -21,7 +21,9 @@ CREATE TABLE posts (
   writer_id VARCHAR(20) NOT NULL,             -- 작성자 ID
   num_of_likes INT DEFAULT 0,                 -- 좋아요 수
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,  -- 작성 시간 자동 저장
-  FOREIGN KEY (writer_id) REFERENCES user(user_id) -- 작성자 → user 테이블 참조
+  comment_count INT DEFAULT 0,                -- 댓글 수(댓글 INSERT와 같은 트랜잭션에서 +1). 기존 DB: ALTER TABLE posts ADD COLUMN comment_count INT DEFAULT 0; 후 LikeCounterReconciler 1회 실행
+  FOREIGN KEY (writer_id) REFERENCES user(user_id), -- 작성자 → user 테이블 참조
+  KEY idx_posts_writer (writer_id, post_id)   -- 작성자별 최근 글(보드, 타임라인 병합). 기존 DB: ALTER TABLE posts ADD KEY idx_posts_writer (writer_id, post_id);
 );
 
 CREATE TABLE reserved_post (
@@ -30,6 +32,7 @@ CREATE TABLE reserved_post (
   content TEXT NOT NULL,                     -- 예약할 게시글 내용
   scheduled_time DATETIME NOT NULL,          -- 게시 예정 시간
   is_posted BOOLEAN DEFAULT FALSE,           -- 실제 업로드 여부 (FALSE: 미게시, TRUE: 게시됨)
+  KEY idx_reserved_due (is_posted, scheduled_time), -- 예약 워커의 FOR UPDATE가 기한 도래분만 잠그도록
   FOREIGN KEY (writer_id) REFERENCES user(user_id) -- 작성자 참조
 );
 
@@ -41,13 +44,21 @@ CREATE TABLE comment (
   num_of_likes INT DEFAULT 0,                    -- 댓글 좋아요 수
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,-- 댓글 작성 시각
   FOREIGN KEY (writer_id) REFERENCES user(user_id),
-  FOREIGN KEY (post_id) REFERENCES posts(post_id)
+  FOREIGN KEY (post_id) REFERENCES posts(post_id),
+  KEY idx_comment_post (post_id, comment_id)     -- 글별 댓글 키셋 페이지(CommentRepository). 기존 DB: ALTER TABLE comment ADD KEY idx_comment_post (post_id, comment_id);
 );
 
+-- 좋아요 쓰기는 INSERT IGNORE + UNIQUE 키로 중복을 막는다(PostLike/CommentLike/EngagementWriter). 기존 DB는 중복 행을 지운 뒤 키를 추가하고
+-- java myPackage.LikeCounterReconciler 로 num_of_likes를 한 번 맞춘다(키가 없으면 클릭마다 좋아요 행/경험치가 늘어난다):
+--   DELETE a FROM post_like a JOIN post_like b ON a.post_id = b.post_id AND a.liker_id = b.liker_id AND a.l_id > b.l_id;
+--   ALTER TABLE post_like ADD UNIQUE KEY uq_post_like (post_id, liker_id);
+--   DELETE a FROM comment_like a JOIN comment_like b ON a.comment_id = b.comment_id AND a.liker_id = b.liker_id AND a.l_id > b.l_id;
+--   ALTER TABLE comment_like ADD UNIQUE KEY uq_comment_like (comment_id, liker_id);
 CREATE TABLE post_like (
   l_id INT AUTO_INCREMENT PRIMARY KEY,       -- 좋아요 고유 ID
   post_id INT NOT NULL,                      -- 어떤 게시글을 좋아요했는지
   liker_id VARCHAR(20) NOT NULL,             -- 좋아요 누른 사용자
+  UNIQUE KEY uq_post_like (post_id, liker_id), -- 같은 글에 중복 좋아요 방지(INSERT IGNORE 전제)
   FOREIGN KEY (post_id) REFERENCES posts(post_id),
   FOREIGN KEY (liker_id) REFERENCES user(user_id)
 );
@@ -56,6 +67,7 @@ CREATE TABLE comment_like (
   l_id INT AUTO_INCREMENT PRIMARY KEY,       -- 댓글 좋아요 고유 ID
   comment_id INT NOT NULL,                   -- 어떤 댓글을 좋아요했는지
   liker_id VARCHAR(20) NOT NULL,             -- 좋아요 누른 사용자
+  UNIQUE KEY uq_comment_like (comment_id, liker_id), -- 같은 댓글에 중복 좋아요 방지(INSERT IGNORE 전제)
   FOREIGN KEY (comment_id) REFERENCES comment(comment_id),
   FOREIGN KEY (liker_id) REFERENCES user(user_id)
 );
@@ -95,7 +107,19 @@ CREATE TABLE post_tag (
   post_id INT NOT NULL,                      -- 어떤 게시글에 달렸는지
   tag VARCHAR(50) NOT NULL,                  -- 해시태그 이름 (예: 여행, 제주도)
   FOREIGN KEY (post_id) REFERENCES posts(post_id),
-  UNIQUE (post_id, tag)                      -- 한 게시글에 같은 태그 중복 저장 방지
+  UNIQUE (post_id, tag),                     -- 한 게시글에 같은 태그 중복 저장 방지
+  KEY idx_post_tag_tag (tag, post_id)        -- 태그 결과 최신순/키셋(PostRepository.byTag). 기존 DB: ALTER TABLE post_tag ADD KEY idx_post_tag_tag (tag, post_id);
+);
+
+-- 홈 타임라인(팔로우한 사람들의 글 + 내 글). 글 게시 시 팔로워들에게 미리 넣어 둔다(TimelineFanout)
+-- 피드는 PK (user_id, post_id) 범위 하나만 역순으로 읽는다. 기존 DB는 이 테이블을 만든 뒤
+-- java myPackage.TimelineFanout backfill 로 한 번 채운다.
+CREATE TABLE home_timeline (
+  user_id VARCHAR(20) NOT NULL,              -- 타임라인 주인
+  post_id INT NOT NULL,                      -- 보여줄 게시글
+  PRIMARY KEY (user_id, post_id),
+  FOREIGN KEY (user_id) REFERENCES user(user_id),
+  FOREIGN KEY (post_id) REFERENCES posts(post_id)
 );
 
 CREATE TABLE IF NOT EXISTS user_profile (
@@ -131,6 +155,10 @@ INSERT INTO post_tag (post_id, tag)
 VALUES (LAST_INSERT_ID(), 'test')
 ON DUPLICATE KEY UPDATE tag = VALUES(tag);  -- 재실행해도 중복 에러 방지
 
+-- 3) 작성자 본인의 홈 타임라인에도 넣기(메인 피드는 home_timeline을 읽는다)
+INSERT IGNORE INTO home_timeline (user_id, post_id)
+SELECT writer_id, post_id FROM posts;
+
 SELECT post_id, writer_id, content, created_at
 FROM posts
 ORDER BY post_id DESC